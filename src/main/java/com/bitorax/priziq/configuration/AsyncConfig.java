@@ -1,18 +1,41 @@
 package com.bitorax.priziq.configuration;
 
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
+@FieldDefaults(level = AccessLevel.PRIVATE)
 public class AsyncConfig {
 
+    @Value("${priziq.execution.virtual-threads}")
+    boolean virtualThreads;
+
+    @Value("${priziq.execution.async-concurrency-limit}")
+    int asyncConcurrencyLimit;
+
+    @Value("${priziq.execution.mailbox-pool-size}")
+    int mailboxPoolSize;
+
     @Bean(name = "asyncTaskExecutor")
     public Executor asyncTaskExecutor() {
+        if (virtualThreads) {
+            // One virtual thread per task, a burst waits for the limit instead of being rejected
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-task-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(asyncConcurrencyLimit);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(4);
         executor.setMaxPoolSize(8);
@@ -21,4 +44,31 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    // Kept apart from asyncTaskExecutor so live session commands never compete with other tasks for its bounded queue.
+    // Each session queues at most one runner, so the queue is bounded by the number of live sessions
+    @Bean(name = "liveSessionMailboxExecutor")
+    public Executor liveSessionMailboxExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("live-session-mailbox-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mailboxPoolSize);
+        executor.setMaxPoolSize(mailboxPoolSize);
+        executor.setThreadNamePrefix("live-session-mailbox-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "liveSessionScheduler")
+    public ThreadPoolTaskScheduler liveSessionScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("live-session-");
+        scheduler.initialize();
+        return scheduler;
+    }
+}
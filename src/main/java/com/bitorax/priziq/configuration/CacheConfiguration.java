@@ -0,0 +1,58 @@
+package com.bitorax.priziq.configuration;
+
+import com.bitorax.priziq.service.cache.TwoLevelCache;
+import com.bitorax.priziq.service.cache.TwoLevelCacheManager;
+import com.bitorax.priziq.service.cache.TwoLevelCacheMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CacheConfiguration {
+    @Value("${priziq.cache.invalidation-channel}")
+    String invalidationChannel;
+
+    @Value("${priziq.cache.local-max-size}")
+    long localMaxSize;
+
+    @Value("${priziq.cache.local-ttl-seconds}")
+    long localTtlSeconds;
+
+    @Value("${priziq.cache.remote-ttl-seconds}")
+    long remoteTtlSeconds;
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper) {
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(stringRedisTemplate, objectMapper, invalidationChannel,
+                localMaxSize, Duration.ofSeconds(localTtlSeconds), Duration.ofSeconds(remoteTtlSeconds));
+        // Evictions made inside a write transaction are applied once it commits, when reloads see the new rows
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory, TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cacheManager.getInvalidationChannel()));
+        return container;
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMetrics::new;
+    }
+}
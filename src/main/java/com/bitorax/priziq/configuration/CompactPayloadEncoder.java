@@ -0,0 +1,164 @@
+package com.bitorax.priziq.configuration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Opt-in compact frames for live session topics. A client sends "payload-format: compact" in its CONNECT
+// frame and then receives only the data of each ApiResponse, without message and meta, with short field names
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CompactPayloadEncoder implements ChannelInterceptor {
+    private static final String FORMAT_HEADER = "payload-format";
+    private static final String COMPACT_FORMAT = "compact";
+    private static final String LIVE_SESSION_DESTINATION_PREFIX = "/public/session/";
+    // Set on encoded frames, a conflated frame is sent on the outbound channel again once its connection catches up
+    static final String ENCODED_HEADER = "priziqCompactEncoded";
+
+    private static final Map<String, String> SHORT_FIELD_NAMES = Map.ofEntries(
+            Map.entry("sessionParticipantId", "id"),
+            Map.entry("displayName", "n"),
+            Map.entry("displayAvatar", "av"),
+            Map.entry("realtimeScore", "s"),
+            Map.entry("realtimeRanking", "r"),
+            Map.entry("isConnected", "c"),
+            Map.entry("totalParticipants", "t"),
+            Map.entry("participants", "p"),
+            Map.entry("sequence", "q"),
+            Map.entry("keyframe", "k"));
+
+    private static final Set<String> DROPPED_FIELDS = Set.of("createdAt", "updatedAt", "createdBy", "updatedBy");
+
+    private record Encoded(byte[] original, byte[] compact) {}
+
+    ObjectMapper objectMapper;
+
+    Set<String> compactSessionIds = ConcurrentHashMap.newKeySet();
+
+    // The broker hands the same payload instance to every subscriber, so one conversion serves the whole room
+    AtomicReference<Encoded> lastEncoded = new AtomicReference<>();
+
+    AtomicLong encodedFrames = new AtomicLong();
+    AtomicLong originalBytes = new AtomicLong();
+    AtomicLong compactBytes = new AtomicLong();
+    AtomicLong encodingNanos = new AtomicLong();
+
+    @NonFinal
+    @Value("${priziq.websocket.compact-payload.enabled}")
+    Boolean enabled;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!enabled) {
+            return message;
+        }
+
+        StompHeaderAccessor stompAccessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (stompAccessor != null && StompCommand.CONNECT.equals(stompAccessor.getCommand())) {
+            if (COMPACT_FORMAT.equalsIgnoreCase(stompAccessor.getFirstNativeHeader(FORMAT_HEADER))) {
+                compactSessionIds.add(stompAccessor.getSessionId());
+            }
+            return message;
+        }
+
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (messageType == SimpMessageType.DISCONNECT) {
+            compactSessionIds.remove(sessionId);
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (messageType != SimpMessageType.MESSAGE || sessionId == null || !compactSessionIds.contains(sessionId)
+                || destination == null || !destination.startsWith(LIVE_SESSION_DESTINATION_PREFIX)
+                || message.getHeaders().containsKey(ENCODED_HEADER)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        byte[] compact = encode(payload);
+        if (compact == null) {
+            return message;
+        }
+        MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+        accessor.setHeader(ENCODED_HEADER, true);
+        return MessageBuilder.createMessage(compact, accessor.getMessageHeaders());
+    }
+
+    public void reportStats() {
+        long frames = encodedFrames.get();
+        if (frames == 0) {
+            return;
+        }
+        log.info("Compact payloads: {} frames encoded, {} bytes as JSON envelopes, {} bytes compact, {} µs encoding per frame",
+                frames, originalBytes.get(), compactBytes.get(), encodingNanos.get() / frames / 1000);
+    }
+
+    private byte[] encode(byte[] payload) {
+        Encoded cached = lastEncoded.get();
+        if (cached != null && cached.original() == payload) {
+            return cached.compact();
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            JsonNode envelope = objectMapper.readTree(payload);
+            JsonNode data = envelope.has("data") ? envelope.get("data") : envelope;
+            byte[] compact = objectMapper.writeValueAsBytes(shorten(data));
+
+            encodedFrames.incrementAndGet();
+            originalBytes.addAndGet(payload.length);
+            compactBytes.addAndGet(compact.length);
+            encodingNanos.addAndGet(System.nanoTime() - startedAt);
+
+            lastEncoded.set(new Encoded(payload, compact));
+            return compact;
+        } catch (Exception e) {
+            log.warn("Could not encode compact payload, sending it unchanged: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private JsonNode shorten(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            ObjectNode shortened = objectMapper.createObjectNode();
+            object.fields().forEachRemaining(field -> {
+                if (!DROPPED_FIELDS.contains(field.getKey())) {
+                    shortened.set(SHORT_FIELD_NAMES.getOrDefault(field.getKey(), field.getKey()), shorten(field.getValue()));
+                }
+            });
+            return shortened;
+        }
+        if (node instanceof ArrayNode array) {
+            ArrayNode shortened = objectMapper.createArrayNode();
+            array.forEach(element -> shortened.add(shorten(element)));
+            return shortened;
+        }
+        return node;
+    }
+}
@@ -149,6 +149,8 @@ public class DataInitializer implements ApplicationRunner {
                         new Permission("Retrieve the list of collection topics", "/api/v1/collections/topics", "GET", "COLLECTIONS"),
                         new Permission("Retrieve collections grouped by topic", "/api/v1/collections/grouped/topics", "GET", "COLLECTIONS"),
                         new Permission("Copy a collection", "/api/v1/collections/{collectionId}/copy", "POST", "COLLECTIONS"),
+                        new Permission("Copy a collection in the background", "/api/v1/collections/{collectionId}/copy-jobs", "POST", "COLLECTIONS"),
+                        new Permission("Retrieve the progress of a collection copy", "/api/v1/collections/copy-jobs/{jobId}", "GET", "COLLECTIONS"),
                         new Permission("Retrieve the list of background music collections", "/api/v1/collections/background-music", "GET", "COLLECTIONS"),
 
                         // Module Activities
@@ -226,6 +228,8 @@ public class DataInitializer implements ApplicationRunner {
                         findPermissionOrThrow("/api/v1/collections/{collectionId}", "DELETE"),
                         findPermissionOrThrow("/api/v1/collections/{collectionId}/activities/reorder", "PUT"),
                         findPermissionOrThrow("/api/v1/collections/{collectionId}/copy", "POST"),
+                        findPermissionOrThrow("/api/v1/collections/{collectionId}/copy-jobs", "POST"),
+                        findPermissionOrThrow("/api/v1/collections/copy-jobs/{jobId}", "GET"),
                         findPermissionOrThrow("/api/v1/collections/background-music", "GET"),
 
                         findPermissionOrThrow("/api/v1/activities", "POST"),
@@ -0,0 +1,105 @@
+package com.bitorax.priziq.configuration;
+
+import com.bitorax.priziq.dto.cache.BrokerMessageCacheDTO;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.util.UUID;
+
+// Fans out every message this node sends to the broker channel over Redis pub/sub, so subscribers connected
+// to any instance receive /public topics and /client user messages. Each node still runs its own simple broker
+// and resolves user destinations against its own connections; messages for users it does not hold are dropped
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(name = "priziq.websocket.broker.mode", havingValue = "redis")
+public class RedisBrokerRelay implements ChannelInterceptor, MessageListener {
+    private static final String RELAYED_HEADER = "priziqRelayed";
+
+    RedisTemplate<String, Object> redisTemplate;
+    ObjectProvider<SimpMessagingTemplate> messagingTemplateProvider;
+
+    String nodeId = UUID.randomUUID().toString();
+
+    @NonFinal
+    @Value("${priziq.websocket.broker.redis-channel}")
+    String channel;
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel messageChannel) {
+        if (!isRelayable(message)) {
+            return message;
+        }
+
+        try {
+            MimeType contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE, MimeType.class);
+            redisTemplate.convertAndSend(channel, BrokerMessageCacheDTO.builder()
+                    .nodeId(nodeId)
+                    .destination(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))
+                    .contentType(contentType != null ? contentType.toString() : null)
+                    .payload((byte[]) message.getPayload())
+                    .build());
+        } catch (Exception e) {
+            // Local subscribers are still served, only the other instances miss this message
+            log.error("Failed to relay broker message to Redis: {}", e.getMessage(), e);
+        }
+        return message;
+    }
+
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message redisMessage, byte[] pattern) {
+        try {
+            BrokerMessageCacheDTO relayed = (BrokerMessageCacheDTO) redisTemplate.getValueSerializer().deserialize(redisMessage.getBody());
+            if (relayed == null || nodeId.equals(relayed.getNodeId())) {
+                return;
+            }
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(relayed.getDestination());
+            if (relayed.getContentType() != null) {
+                accessor.setContentType(MimeType.valueOf(relayed.getContentType()));
+            }
+            accessor.setHeader(RELAYED_HEADER, true);
+            accessor.setLeaveMutable(true);
+
+            messagingTemplateProvider.getObject().getMessageChannel()
+                    .send(MessageBuilder.createMessage(relayed.getPayload(), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            log.error("Failed to deliver relayed broker message: {}", e.getMessage(), e);
+        }
+    }
+
+    // Only messages sent by this node's application code; relayed copies and user destinations
+    // already resolved from a relayed or published message are not sent again
+    private boolean isRelayable(Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        return SimpMessageHeaderAccessor.getMessageType(headers) == SimpMessageType.MESSAGE
+                && SimpMessageHeaderAccessor.getDestination(headers) != null
+                && headers.get(RELAYED_HEADER) == null
+                && SimpMessageHeaderAccessor.getFirstNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, headers) == null
+                && message.getPayload() instanceof byte[];
+    }
+}
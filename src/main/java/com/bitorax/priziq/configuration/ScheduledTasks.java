@@ -1,15 +1,22 @@
 package com.bitorax.priziq.configuration;
 
+import com.bitorax.priziq.constant.CacheNames;
 import com.bitorax.priziq.constant.SessionStatus;
 import com.bitorax.priziq.domain.User;
 import com.bitorax.priziq.domain.session.Session;
 import com.bitorax.priziq.repository.SessionParticipantRepository;
 import com.bitorax.priziq.repository.SessionRepository;
 import com.bitorax.priziq.repository.UserRepository;
+import com.bitorax.priziq.service.SessionService;
+import com.bitorax.priziq.service.job.BackgroundJobRunner;
+import com.bitorax.priziq.service.live.LiveSessionOwnership;
+import com.bitorax.priziq.service.live.LiveSessionRegistry;
+import com.bitorax.priziq.service.live.ParticipantBroadcastScheduler;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +25,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Component
@@ -29,6 +37,14 @@ public class ScheduledTasks {
     SessionRepository sessionRepository;
     SessionParticipantRepository sessionParticipantRepository;
     UserRepository userRepository;
+    LiveSessionRegistry liveSessionRegistry;
+    LiveSessionOwnership liveSessionOwnership;
+    WebSocketBackpressure webSocketBackpressure;
+    CompactPayloadEncoder compactPayloadEncoder;
+    ParticipantBroadcastScheduler participantBroadcastScheduler;
+    BackgroundJobRunner backgroundJobRunner;
+    SessionService sessionService;
+    CacheManager cacheManager;
 
     private static final long PENDING_SESSION_TIMEOUT_HOURS = 24;
     private static final long STARTED_SESSION_TIMEOUT_HOURS = 7;
@@ -50,15 +66,20 @@ public class ScheduledTasks {
             // Sessions to delete (PENDING)
             List<Session> sessionsToDelete = new ArrayList<>(pendingSessions);
 
-            // Sessions to end (STARTED)
-            List<Session> sessionsToEnd = new ArrayList<>();
+            // STARTED sessions are ended one by one, a session that fails is retried by the next run
             for (Session session : startedSessions) {
-                if (session.getStartTime() != null) {
-                    session.setSessionStatus(SessionStatus.ENDED);
-                    session.setEndTime(now);
-                    sessionsToEnd.add(session);
-                } else {
+                if (session.getStartTime() == null) {
                     log.warn("Skipping STARTED session {} with null startTime", session.getSessionCode());
+                    continue;
+                }
+                try {
+                    if (!liveSessionOwnership.claim(session.getSessionCode())) {
+                        // The owning instance ends it
+                        continue;
+                    }
+                    sessionService.endStaleSession(session.getSessionId());
+                } catch (Exception e) {
+                    log.error("Failed to end stale session {}: {}", session.getSessionCode(), e.getMessage());
                 }
             }
 
@@ -69,11 +90,7 @@ public class ScheduledTasks {
                         .collect(Collectors.toList());
                 sessionParticipantRepository.deleteBySession_SessionIdIn(sessionIds);
                 sessionRepository.deleteAllInBatch(sessionsToDelete);
-            }
-
-            // Batch update STARTED sessions
-            if (!sessionsToEnd.isEmpty()) {
-                sessionRepository.saveAll(sessionsToEnd);
+                sessionsToDelete.forEach(session -> participantBroadcastScheduler.discard(session.getSessionCode()));
             }
 
         } catch (Exception e) {
@@ -81,6 +98,44 @@ public class ScheduledTasks {
         }
     }
 
+    @Scheduled(fixedDelayString = "${priziq.session.ownership.renew-interval-ms}")
+    public void renewLiveSessionOwnership() {
+        try {
+            // Another node took over these sessions, its copy is now the only writer
+            liveSessionOwnership.renewAll().forEach(liveSessionRegistry::detach);
+        } catch (Exception e) {
+            log.error("Failed to renew live session ownership: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${priziq.jobs.poll-interval-ms}")
+    public void runBackgroundJobs() {
+        try {
+            backgroundJobRunner.runDueJobs();
+        } catch (Exception e) {
+            log.error("Failed to run background jobs: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${priziq.websocket.backpressure.conflation-retry-ms}")
+    public void flushConflatedSnapshots() {
+        try {
+            webSocketBackpressure.flushConflated();
+        } catch (Exception e) {
+            log.error("Failed to flush conflated snapshots: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 30000)
+    public void reportSlowSubscribers() {
+        webSocketBackpressure.reportSlowSubscribers();
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    public void reportCompactPayloadStats() {
+        compactPayloadEncoder.reportStats();
+    }
+
     @Scheduled(cron = "0 0 0 * * *")
     @Transactional
     public void cleanupUnverifiedUsers() {
@@ -94,6 +149,8 @@ public class ScheduledTasks {
                 if (createdAt != null && now.isAfter(createdAt.plus(UNVERIFIED_USER_TIMEOUT_DAYS, ChronoUnit.DAYS))) {
                     user.getRoles().clear();
                     userRepository.delete(user);
+                    // Applied once the deletion commits, the cache manager is transaction aware
+                    Objects.requireNonNull(cacheManager.getCache(CacheNames.USER_DETAILS)).evict(user.getUserId());
                 }
             }
         } catch (Exception e) {
@@ -0,0 +1,209 @@
+package com.bitorax.priziq.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Tracks the bytes waiting to be written to each websocket connection. While a connection lags behind,
+// leaderboard snapshots sent to it are conflated: only the latest one per destination is kept and delivered
+// once the backlog drains. Connections over the send time or buffer limits are closed by Spring's session decorator.
+// Exposes the queued bytes of each connection, the conflated frames and the number of lagging connections as metrics
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class WebSocketBackpressure implements ChannelInterceptor, WebSocketHandlerDecoratorFactory, MeterBinder {
+    Map<String, Subscriber> subscribersBySessionId = new ConcurrentHashMap<>();
+    LongAdder conflatedFrames = new LongAdder();
+
+    @NonFinal
+    volatile MessageChannel clientOutboundChannel;
+
+    @NonFinal
+    volatile MeterRegistry meterRegistry;
+
+    @NonFinal
+    @Value("${priziq.websocket.backpressure.conflation-threshold}")
+    Long conflationThreshold;
+
+    @NonFinal
+    @Value("${priziq.websocket.backpressure.conflated-destinations}")
+    List<String> conflatedDestinationSuffixes;
+
+    private static final class Subscriber {
+        final AtomicLong queuedBytes = new AtomicLong();
+        // Payload sizes of the MESSAGE frames handed to the connection and not yet written
+        final Queue<Integer> queuedPayloadSizes = new ConcurrentLinkedQueue<>();
+        final Map<String, Message<?>> conflatedByDestination = new ConcurrentHashMap<>();
+        volatile Meter queuedBytesGauge;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        subscribersBySessionId.forEach((sessionId, subscriber) -> bindSubscriber(registry, sessionId, subscriber));
+
+        FunctionCounter.builder("websocket.subscriber.conflated.frames", conflatedFrames, LongAdder::sum)
+                .description("The number of leaderboard frames replaced by a newer one before reaching a lagging connection")
+                .register(registry);
+        Gauge.builder("websocket.subscriber.slow", subscribersBySessionId, subscribers -> subscribers.values().stream()
+                        .filter(subscriber -> subscriber.queuedBytes.get() > conflationThreshold)
+                        .count())
+                .description("The number of connections with more bytes queued than the conflation threshold")
+                .register(registry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        clientOutboundChannel = channel;
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Subscriber subscriber = sessionId != null ? subscribersBySessionId.get(sessionId) : null;
+        if (subscriber == null
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        String destination = subscribedDestination(message);
+        if (subscriber.queuedBytes.get() > conflationThreshold && isConflated(destination)) {
+            // A newer snapshot replaces the one still waiting, the client only needs the latest
+            if (subscriber.conflatedByDestination.put(destination, message) != null) {
+                conflatedFrames.increment();
+            }
+            return null;
+        }
+
+        subscriber.queuedPayloadSizes.add(payload.length);
+        subscriber.queuedBytes.addAndGet(payload.length);
+        return message;
+    }
+
+    // Re-sends the latest conflated snapshots of connections that caught up
+    public void flushConflated() {
+        MessageChannel channel = clientOutboundChannel;
+        if (channel == null) {
+            return;
+        }
+
+        subscribersBySessionId.values().forEach(subscriber -> {
+            if (subscriber.conflatedByDestination.isEmpty() || subscriber.queuedBytes.get() > conflationThreshold) {
+                return;
+            }
+            for (String destination : List.copyOf(subscriber.conflatedByDestination.keySet())) {
+                Message<?> latest = subscriber.conflatedByDestination.remove(destination);
+                if (latest != null) {
+                    channel.send(latest);
+                }
+            }
+        });
+    }
+
+    public void reportSlowSubscribers() {
+        subscribersBySessionId.forEach((sessionId, subscriber) -> {
+            long queuedBytes = subscriber.queuedBytes.get();
+            if (queuedBytes > conflationThreshold) {
+                log.warn("Websocket session {} is lagging with {} bytes queued and {} conflated snapshots",
+                        sessionId, queuedBytes, subscriber.conflatedByDestination.size());
+            }
+        });
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                Subscriber subscriber = new Subscriber();
+                subscribersBySessionId.put(session.getId(), subscriber);
+                MeterRegistry registry = meterRegistry;
+                if (registry != null) {
+                    bindSubscriber(registry, session.getId(), subscriber);
+                }
+                super.afterConnectionEstablished(new FlushTrackingSession(session, subscriber));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                Subscriber subscriber = subscribersBySessionId.remove(session.getId());
+                MeterRegistry registry = meterRegistry;
+                if (subscriber != null && subscriber.queuedBytesGauge != null && registry != null) {
+                    registry.remove(subscriber.queuedBytesGauge);
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    // Removed when the connection closes, so the number of series follows the open connections
+    private void bindSubscriber(MeterRegistry registry, String sessionId, Subscriber subscriber) {
+        subscriber.queuedBytesGauge = Gauge.builder("websocket.subscriber.queued.bytes", subscriber, queued -> queued.queuedBytes.get())
+                .tag("connection", sessionId)
+                .baseUnit("bytes")
+                .description("The bytes handed to a websocket connection and not yet written")
+                .register(registry);
+    }
+
+    // User destinations reach this channel resolved to /private/rank-user<sessionId>, the destination the client
+    // subscribed to is carried in a native header and only restored when the frame is written
+    private static String subscribedDestination(Message<?> message) {
+        String originalDestination = SimpMessageHeaderAccessor.getFirstNativeHeader(
+                SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, message.getHeaders());
+        return originalDestination != null ? originalDestination : SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    }
+
+    private boolean isConflated(String destination) {
+        return destination != null && conflatedDestinationSuffixes.stream().anyMatch(destination::endsWith);
+    }
+
+    // Sits below Spring's buffering decorator, so it sees each frame when it is actually written
+    private static final class FlushTrackingSession extends WebSocketSessionDecorator {
+        private final Subscriber subscriber;
+
+        FlushTrackingSession(WebSocketSession session, Subscriber subscriber) {
+            super(session);
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            super.sendMessage(message);
+            if (message instanceof TextMessage textMessage && textMessage.getPayload().startsWith("MESSAGE")) {
+                Integer payloadSize = subscriber.queuedPayloadSizes.poll();
+                if (payloadSize != null) {
+                    subscriber.queuedBytes.addAndGet(-payloadSize);
+                }
+            }
+        }
+    }
+}
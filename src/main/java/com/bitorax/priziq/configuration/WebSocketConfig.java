@@ -1,9 +1,21 @@
 package com.bitorax.priziq.configuration;
 
 import com.bitorax.priziq.interceptor.UserInterceptor;
+import com.bitorax.priziq.service.live.LiveSessionCommandRouter;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.scheduling.TaskScheduler;
@@ -12,26 +24,55 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import java.util.concurrent.Executor;
 
 @Configuration
 @EnableWebSocketMessageBroker
 @Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    // Present only in the redis broker mode, when several instances serve the same sessions
+    ObjectProvider<RedisBrokerRelay> redisBrokerRelay;
+    LiveSessionCommandRouter liveSessionCommandRouter;
+    WebSocketBackpressure webSocketBackpressure;
+    CompactPayloadEncoder compactPayloadEncoder;
+
+    @NonFinal
+    @Value("${priziq.execution.virtual-threads}")
+    Boolean virtualThreads;
+
+    @NonFinal
+    @Value("${priziq.execution.channel-concurrency-limit}")
+    Integer channelConcurrencyLimit;
+
+    @NonFinal
+    @Value("${priziq.websocket.backpressure.send-time-limit-ms}")
+    Integer sendTimeLimitMs;
+
+    @NonFinal
+    @Value("${priziq.websocket.backpressure.send-buffer-size-limit}")
+    Integer sendBufferSizeLimit;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.setApplicationDestinationPrefixes("/server");
         config.setUserDestinationPrefix("/client");
+        // Outbound delivery is no longer bound to a small pool, keep each client's messages in order
+        config.setPreservePublishOrder(virtualThreads);
         config
                 .enableSimpleBroker("/public", "/private")
                 .setHeartbeatValue(new long[]{10000, 10000})
                 .setTaskScheduler(taskScheduler());
+        redisBrokerRelay.ifAvailable(relay -> config.configureBrokerChannel().interceptors(relay));
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // Each client's commands are handled one at a time and in order, whatever the executor
+        registry.setPreserveReceiveOrder(virtualThreads);
         registry.addEndpoint("/ws").setAllowedOrigins(
                 "http://localhost:5173",
                 "https://localhost:5173",
@@ -43,7 +84,45 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(new UserInterceptor());
+        registration.interceptors(new UserInterceptor(), compactPayloadEncoder, liveSessionCommandRouter);
+        if (virtualThreads) {
+            registration.executor(channelExecutor());
+        }
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A connection that cannot keep up within these limits is closed instead of growing the heap
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(webSocketBackpressure);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Encoded first, so the backlog is measured in the bytes actually sent
+        registration.interceptors(compactPayloadEncoder, webSocketBackpressure);
+        if (virtualThreads) {
+            registration.executor(channelExecutor());
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "priziq.websocket.broker.mode", havingValue = "redis")
+    public RedisMessageListenerContainer brokerRelayListenerContainer(RedisConnectionFactory connectionFactory, RedisBrokerRelay relay) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(relay, new ChannelTopic(relay.getChannel()));
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "priziq.session.ownership.enabled", havingValue = "true")
+    public RedisMessageListenerContainer sessionCommandListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(liveSessionCommandRouter, new ChannelTopic(liveSessionCommandRouter.getNodeChannel()));
+        return container;
     }
 
     @Bean
@@ -57,6 +136,13 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Bean
     public Executor channelExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("channel-thread-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(channelConcurrencyLimit);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(8);
         executor.setMaxPoolSize(16);
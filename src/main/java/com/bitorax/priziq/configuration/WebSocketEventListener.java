@@ -8,6 +8,11 @@ import com.bitorax.priziq.dto.response.common.ApiResponse;
 import com.bitorax.priziq.dto.response.session.SessionParticipantSummaryResponse;
 import com.bitorax.priziq.mapper.SessionParticipantMapper;
 import com.bitorax.priziq.repository.SessionParticipantRepository;
+import com.bitorax.priziq.service.live.LiveSession;
+import com.bitorax.priziq.service.live.LiveSessionCommandRouter;
+import com.bitorax.priziq.service.live.LiveSessionRegistry;
+import com.bitorax.priziq.service.live.LiveSessionStore;
+import com.bitorax.priziq.service.live.ParticipantBroadcastScheduler;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -24,6 +29,7 @@ import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.bitorax.priziq.utils.MetaUtils.buildWebSocketMetaInfo;
@@ -36,6 +42,10 @@ public class WebSocketEventListener {
     SimpMessagingTemplate messagingTemplate;
     SessionParticipantRepository sessionParticipantRepository;
     SessionParticipantMapper sessionParticipantMapper;
+    LiveSessionRegistry liveSessionRegistry;
+    LiveSessionStore liveSessionStore;
+    ParticipantBroadcastScheduler participantBroadcastScheduler;
+    LiveSessionCommandRouter liveSessionCommandRouter;
 
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectEvent event) {
@@ -68,6 +78,13 @@ public class WebSocketEventListener {
 
         log.info("Client disconnected with websocketSessionId: {}", websocketSessionId);
 
+        // Started sessions are served from memory without querying the database
+        Optional<LiveSession> liveSession = liveSessionRegistry.findByWebsocketSessionId(websocketSessionId);
+        if (liveSession.isPresent()) {
+            handleLiveSessionDisconnect(liveSession.get(), websocketSessionId, headerAccessor);
+            return;
+        }
+
         sessionParticipantRepository.findByWebsocketSessionId(websocketSessionId)
                 .ifPresent(participant -> {
                     String sessionCode = participant.getSession().getSessionCode();
@@ -75,6 +92,12 @@ public class WebSocketEventListener {
                     String hostUserId = participant.getSession().getHostUser().getUserId();
                     boolean isHost = participant.getUser() != null && participant.getUser().getUserId().equals(hostUserId);
 
+                    // A started session served by another instance handles the disconnect there
+                    if (sessionStatus == SessionStatus.STARTED
+                            && liveSessionCommandRouter.forwardDisconnect(sessionCode, websocketSessionId, headerAccessor.getUser())) {
+                        return;
+                    }
+
                     if (isHost) {
                         if (sessionStatus == SessionStatus.PENDING) {
                             // All participants leave the session
@@ -118,10 +141,33 @@ public class WebSocketEventListener {
                                     .meta(buildWebSocketMetaInfo(headerAccessor))
                                     .build();
 
-                            String destination = "/public/session/" + sessionCode + "/participants";
-                            messagingTemplate.convertAndSend(destination, apiResponse);
+                            participantBroadcastScheduler.publish(sessionCode, () -> apiResponse);
                         }
                     }
                 });
     }
-}
\ No newline at end of file
+
+    private void handleLiveSessionDisconnect(LiveSession liveSession, String websocketSessionId, SimpMessageHeaderAccessor headerAccessor) {
+        liveSession.findByWebsocketSessionId(websocketSessionId).ifPresent(participant -> {
+            boolean isHost = participant.getUserId() != null && participant.getUserId().equals(liveSession.getHostUserId());
+
+            if (isHost) {
+                // Only host triggers session complete event
+                EndSessionRequest endSessionRequest = EndSessionRequest.builder()
+                        .sessionId(liveSession.getSessionId())
+                        .build();
+                messagingTemplate.convertAndSend("/server/session/complete", endSessionRequest, headerAccessor.getMessageHeaders());
+                return;
+            }
+
+            // Mark participant as inactive, the database is written at activity boundaries
+            liveSession.markDisconnected(websocketSessionId)
+                    .ifPresent(disconnected -> liveSessionStore.recordParticipants(liveSession, List.of(disconnected)));
+
+            // Send updated participant list (only active participants)
+            participantBroadcastScheduler.publishLiveChanges(liveSession,
+                    "Participant disconnected from session with code: %s",
+                    liveSession::getConnectedParticipants);
+        });
+    }
+}
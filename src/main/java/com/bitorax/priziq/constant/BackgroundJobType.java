@@ -0,0 +1,15 @@
+package com.bitorax.priziq.constant;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public enum BackgroundJobType {
+    SESSION_FINALIZATION,
+    COLLECTION_COPY,
+    COLLECTION_PURGE
+}
@@ -0,0 +1,16 @@
+package com.bitorax.priziq.constant;
+
+// Names of the two-level read caches, constants so they can be used in cache annotations
+public final class CacheNames {
+    public static final String COLLECTION_DETAILS = "collectionDetails";
+    public static final String ACTIVITY_DETAILS = "activityDetails";
+    public static final String ACHIEVEMENT_DETAILS = "achievementDetails";
+    // Pages of the public achievement list, keyed by filter and page
+    public static final String ACHIEVEMENT_LISTS = "achievementLists";
+    public static final String USER_DETAILS = "userDetails";
+
+    public static final String[] ALL = {COLLECTION_DETAILS, ACTIVITY_DETAILS, ACHIEVEMENT_DETAILS, ACHIEVEMENT_LISTS, USER_DETAILS};
+
+    private CacheNames() {
+    }
+}
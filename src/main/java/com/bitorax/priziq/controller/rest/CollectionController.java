@@ -3,9 +3,11 @@ package com.bitorax.priziq.controller.rest;
 import com.bitorax.priziq.constant.CollectionBackgroundMusic;
 import com.bitorax.priziq.constant.CollectionTopicType;
 import com.bitorax.priziq.domain.Collection;
+import com.bitorax.priziq.dto.cache.CollectionFeedCacheDTO;
 import com.bitorax.priziq.dto.request.collection.ActivityReorderRequest;
 import com.bitorax.priziq.dto.request.collection.CreateCollectionRequest;
 import com.bitorax.priziq.dto.request.collection.UpdateCollectionRequest;
+import com.bitorax.priziq.dto.response.collection.CollectionCopyJobResponse;
 import com.bitorax.priziq.dto.response.collection.CollectionDetailResponse;
 import com.bitorax.priziq.dto.response.collection.CollectionSummaryResponse;
 import com.bitorax.priziq.dto.response.collection.ReorderedActivityResponse;
@@ -14,6 +16,7 @@ import com.bitorax.priziq.dto.response.common.PaginationResponse;
 import com.bitorax.priziq.exception.ApplicationException;
 import com.bitorax.priziq.exception.ErrorCode;
 import com.bitorax.priziq.service.CollectionService;
+import com.bitorax.priziq.service.job.BackgroundJobRunner;
 import com.turkraft.springfilter.boot.Filter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -26,6 +29,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Arrays;
 import java.util.List;
@@ -41,6 +45,7 @@ import static com.bitorax.priziq.utils.MetaUtils.buildMetaInfo;
 public class CollectionController {
 
     CollectionService collectionService;
+    BackgroundJobRunner backgroundJobRunner;
 
     @PostMapping
     ApiResponse<CollectionSummaryResponse> createCollection(@RequestBody @Valid CreateCollectionRequest createCollectionRequest, HttpServletRequest servletRequest) {
@@ -89,7 +94,11 @@ public class CollectionController {
 
     @DeleteMapping("/{collectionId}")
     ApiResponse<Void> deleteCollectionById(@PathVariable String collectionId, HttpServletRequest servletRequest) {
-        collectionService.deleteCollectionById(collectionId);
+        String purgeJobId = collectionService.deleteCollectionById(collectionId);
+
+        // The collection is already hidden, its rows are deleted once the deletion is committed
+        backgroundJobRunner.dispatch(purgeJobId);
+
         return ApiResponse.<Void>builder()
                 .message("Collection deleted successfully")
                 .meta(buildMetaInfo(servletRequest))
@@ -114,6 +123,29 @@ public class CollectionController {
                 .build();
     }
 
+    @PostMapping("/{collectionId}/copy-jobs")
+    ApiResponse<CollectionCopyJobResponse> startCollectionCopy(@PathVariable String collectionId, HttpServletRequest servletRequest) {
+        CollectionCopyJobResponse copyJobResponse = collectionService.startCollectionCopy(collectionId);
+
+        // Started once the new collection and its job are committed
+        backgroundJobRunner.dispatch(copyJobResponse.getJobId());
+
+        return ApiResponse.<CollectionCopyJobResponse>builder()
+                .message("Collection copy started successfully")
+                .data(copyJobResponse)
+                .meta(buildMetaInfo(servletRequest))
+                .build();
+    }
+
+    @GetMapping("/copy-jobs/{jobId}")
+    ApiResponse<CollectionCopyJobResponse> getCollectionCopyJob(@PathVariable String jobId, HttpServletRequest servletRequest) {
+        return ApiResponse.<CollectionCopyJobResponse>builder()
+                .message("Collection copy progress retrieved successfully")
+                .data(collectionService.getCollectionCopyJob(jobId))
+                .meta(buildMetaInfo(servletRequest))
+                .build();
+    }
+
     @GetMapping("/topics")
     ApiResponse<List<String>> getAllCollectionTopics(HttpServletRequest servletRequest){
         return ApiResponse.<List<String>>builder()
@@ -124,10 +156,17 @@ public class CollectionController {
     }
 
     @GetMapping("/grouped/topics")
-    public ApiResponse<Map<String, List<CollectionSummaryResponse>>> getCollectionsGroupedByTopic(@PageableDefault(size = 12) Pageable pageable, HttpServletRequest servletRequest) {
+    public ApiResponse<Map<String, List<CollectionSummaryResponse>>> getCollectionsGroupedByTopic(@PageableDefault(size = 12) Pageable pageable, HttpServletRequest servletRequest, WebRequest webRequest) {
+        CollectionFeedCacheDTO feed = collectionService.getCollectionsGroupedByTopic(pageable);
+
+        // Answered with 304 Not Modified and no body when the client already has this feed
+        if (webRequest.checkNotModified(feed.getEtag())) {
+            return null;
+        }
+
         return ApiResponse.<Map<String, List<CollectionSummaryResponse>>>builder()
                 .message("Collections grouped by topic retrieved successfully")
-                .data(collectionService.getCollectionsGroupedByTopic(pageable))
+                .data(feed.getGroups())
                 .meta(buildMetaInfo(servletRequest))
                 .build();
     }
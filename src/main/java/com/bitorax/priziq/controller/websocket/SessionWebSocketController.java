@@ -6,16 +6,21 @@ import com.bitorax.priziq.dto.request.session.StartSessionRequest;
 import com.bitorax.priziq.dto.request.session.activity_submission.CreateActivitySubmissionRequest;
 import com.bitorax.priziq.dto.request.session.session_participant.GetParticipantsRequest;
 import com.bitorax.priziq.dto.request.session.session_participant.JoinSessionRequest;
+import com.bitorax.priziq.dto.request.session.session_participant.LeaderboardKeyframeRequest;
 import com.bitorax.priziq.dto.request.session.session_participant.LeaveSessionRequest;
-import com.bitorax.priziq.dto.response.achievement.AchievementUpdateResponse;
 import com.bitorax.priziq.dto.response.activity.ActivityDetailResponse;
 import com.bitorax.priziq.dto.response.common.ApiResponse;
 import com.bitorax.priziq.dto.response.session.*;
 import com.bitorax.priziq.exception.ApplicationException;
 import com.bitorax.priziq.exception.ErrorCode;
+import com.bitorax.priziq.exception.WebSocketExceptionHandler;
 import com.bitorax.priziq.service.ActivitySubmissionService;
 import com.bitorax.priziq.service.SessionParticipantService;
 import com.bitorax.priziq.service.SessionService;
+import com.bitorax.priziq.service.job.BackgroundJobRunner;
+import com.bitorax.priziq.service.live.LiveSessionMailbox;
+import com.bitorax.priziq.service.live.LiveSessionRegistry;
+import com.bitorax.priziq.service.live.ParticipantBroadcastScheduler;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -25,11 +30,9 @@ import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Controller;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 import static com.bitorax.priziq.utils.MetaUtils.buildWebSocketMetaInfo;
@@ -43,6 +46,25 @@ public class SessionWebSocketController {
     SessionService sessionService;
     ActivitySubmissionService activitySubmissionService;
     SimpMessagingTemplate messagingTemplate;
+    ParticipantBroadcastScheduler participantBroadcastScheduler;
+    LiveSessionMailbox liveSessionMailbox;
+    LiveSessionRegistry liveSessionRegistry;
+    BackgroundJobRunner backgroundJobRunner;
+    WebSocketExceptionHandler webSocketExceptionHandler;
+
+    // Runs a host command in the session's mailbox, after the commands received before it.
+    // Errors no longer reach the message exception handlers from there, so they are reported here
+    private void dispatch(String sessionCode, SimpMessageHeaderAccessor headerAccessor, Runnable command) {
+        liveSessionMailbox.submit(sessionCode, () -> {
+            try {
+                command.run();
+            } catch (ApplicationException e) {
+                webSocketExceptionHandler.handleApplicationException(e, headerAccessor);
+            } catch (Exception e) {
+                webSocketExceptionHandler.handleAllExceptions(e, headerAccessor);
+            }
+        });
+    }
 
     // Utility method to create ApiResponse with sessionCode for message formatting
     private <T> ApiResponse<T> createApiResponse(String message, T data, String sessionCode, SimpMessageHeaderAccessor headerAccessor) {
@@ -67,8 +89,7 @@ public class SessionWebSocketController {
                 "A participant successfully joined session with code: %s",
                         responses, request.getSessionCode(), headerAccessor);
 
-        String destination = "/public/session/" + request.getSessionCode() + "/participants";
-        messagingTemplate.convertAndSend(destination, apiResponse);
+        participantBroadcastScheduler.publish(request.getSessionCode(), () -> apiResponse);
     }
 
     @MessageMapping("/session/leave")
@@ -84,20 +105,21 @@ public class SessionWebSocketController {
                 "A participant successfully left session with code: %s",
                 responses, request.getSessionCode(), headerAccessor);
 
-        String destination = "/public/session/" + request.getSessionCode() + "/participants";
-        messagingTemplate.convertAndSend(destination, apiResponse);
+        participantBroadcastScheduler.publish(request.getSessionCode(), () -> apiResponse);
     }
 
     @MessageMapping("/session/participants")
     public void handleGetParticipants(@Valid @Payload GetParticipantsRequest request, SimpMessageHeaderAccessor headerAccessor) {
-        List<SessionParticipantSummaryResponse> participants = sessionParticipantService.findParticipantsBySessionCode(request);
-
-        ApiResponse<List<SessionParticipantSummaryResponse>> apiResponse = createApiResponse(
+        // Shares the throttle of the live participants list, so it is read when sent and never replaces newer scores
+        participantBroadcastScheduler.publish(request.getSessionCode(), () -> createApiResponse(
                 "List of participants retrieved for session with code: %s",
-                        participants, request.getSessionCode(), headerAccessor);
+                sessionParticipantService.findParticipantsBySessionCode(request), request.getSessionCode(), headerAccessor));
+    }
 
-        String destination = "/public/session/" + request.getSessionCode() + "/participants";
-        messagingTemplate.convertAndSend(destination, apiResponse);
+    // Asked by a client that subscribed to the participants delta after it started, answered on the delta topic
+    @MessageMapping("/session/participants/keyframe")
+    public void handleLeaderboardKeyframe(@Valid @Payload LeaderboardKeyframeRequest request) {
+        liveSessionRegistry.find(request.getSessionCode()).ifPresent(participantBroadcastScheduler::publishKeyframe);
     }
 
     @MessageMapping("/session/start")
@@ -107,76 +129,63 @@ public class SessionWebSocketController {
             throw new ApplicationException(ErrorCode.CLIENT_SESSION_ID_NOT_FOUND);
         }
 
-        SessionSummaryResponse sessionResponse = sessionService.startSession(request);
+        String sessionCode = sessionService.findSessionCodeBySessionId(request.getSessionId());
+        dispatch(sessionCode, headerAccessor, () -> {
+            SessionSummaryResponse sessionResponse = sessionService.startSession(request);
 
-        String sessionCode = sessionResponse.getSessionCode();
-        ApiResponse<SessionSummaryResponse> apiResponse = createApiResponse(
-                "Session with code %s has started",
-                sessionResponse, sessionCode, headerAccessor);
+            ApiResponse<SessionSummaryResponse> apiResponse = createApiResponse(
+                    "Session with code %s has started",
+                    sessionResponse, sessionCode, headerAccessor);
 
-        String destination = "/public/session/" + sessionCode + "/start";
-        messagingTemplate.convertAndSend(destination, apiResponse);
+            String destination = "/public/session/" + sessionCode + "/start";
+            messagingTemplate.convertAndSend(destination, apiResponse);
+        });
     }
 
     @MessageMapping("/session/submit")
-    @Async("asyncTaskExecutor")
     public void handleSubmitActivity(@Valid @Payload CreateActivitySubmissionRequest request, SimpMessageHeaderAccessor headerAccessor) {
         String websocketSessionId = headerAccessor.getSessionId();
         if (websocketSessionId == null) {
             throw new ApplicationException(ErrorCode.CLIENT_SESSION_ID_NOT_FOUND);
         }
 
-        // Create ActivitySubmission and get responseScore
-        ActivitySubmissionSummaryResponse submissionResponse = activitySubmissionService.createActivitySubmission(request, websocketSessionId);
-
-        // Update realtimeScore and realtimeRanking
-        List<SessionParticipantSummaryResponse> responses = sessionParticipantService.updateRealtimeScoreAndRanking(
-                request.getSessionCode(),
-                websocketSessionId,
-                submissionResponse.getResponseScore()
-        );
-
-        if (responses.isEmpty()) {
-            throw new ApplicationException(ErrorCode.SESSION_NOT_FOUND);
-        }
-
-        String sessionCode = request.getSessionCode();
-        ApiResponse<List<SessionParticipantSummaryResponse>> apiResponse = createApiResponse(
-                "Activity submission processed and scores updated for session with code: %s",
-                responses, sessionCode, headerAccessor);
-
-        // Broadcast updated participants list
-        String destination = "/public/session/" + sessionCode + "/participants";
-        messagingTemplate.convertAndSend(destination, apiResponse);
+        // Score the answer and queue it, scores, rankings and the participants broadcast are applied per micro-batch
+        activitySubmissionService.createActivitySubmission(request, websocketSessionId);
     }
 
     @MessageMapping("/session/nextActivity")
-    @Async("asyncTaskExecutor")
     public void handleNextActivity(@Valid @Payload NextActivityRequest request, SimpMessageHeaderAccessor headerAccessor) {
         String websocketSessionId = headerAccessor.getSessionId();
         if (websocketSessionId == null) {
             throw new ApplicationException(ErrorCode.CLIENT_SESSION_ID_NOT_FOUND);
         }
 
-        ActivityDetailResponse activityResponse = sessionService.nextActivity(request);
-
         String sessionCode = sessionService.findSessionCodeBySessionId(request.getSessionId());
-        ApiResponse<ActivityDetailResponse> apiResponse = createApiResponse(
-                activityResponse != null ? "Moved to next activity in session with code %s" : "No more activities in session with code %s",
-                activityResponse, sessionCode, headerAccessor);
+        dispatch(sessionCode, headerAccessor, () -> {
+            ActivityDetailResponse activityResponse = sessionService.nextActivity(request);
 
-        String destination = "/public/session/" + sessionCode + "/nextActivity";
-        messagingTemplate.convertAndSend(destination, apiResponse);
+            ApiResponse<ActivityDetailResponse> apiResponse = createApiResponse(
+                    activityResponse != null ? "Moved to next activity in session with code %s" : "No more activities in session with code %s",
+                    activityResponse, sessionCode, headerAccessor);
+
+            String destination = "/public/session/" + sessionCode + "/nextActivity";
+            messagingTemplate.convertAndSend(destination, apiResponse);
+        });
     }
 
     @MessageMapping("/session/complete")
-    @Async("asyncTaskExecutor")
     public void handleEndSession(@Valid @Payload EndSessionRequest request, SimpMessageHeaderAccessor headerAccessor) {
         String websocketSessionId = headerAccessor.getSessionId();
         if (websocketSessionId == null) {
             throw new ApplicationException(ErrorCode.CLIENT_SESSION_ID_NOT_FOUND);
         }
 
+        String sessionCode = sessionService.findSessionCodeBySessionId(request.getSessionId());
+        dispatch(sessionCode, headerAccessor, () -> endSession(request, headerAccessor));
+    }
+
+    // Only ends the session and announces it, the host is not kept waiting for the rest
+    private void endSession(EndSessionRequest request, SimpMessageHeaderAccessor headerAccessor) {
         // End session
         SessionEndResultResponse endSessionResult = sessionService.endSession(request);
         SessionSummaryResponse endSessionResponse = endSessionResult.getSessionSummary();
@@ -188,47 +197,7 @@ public class SessionWebSocketController {
         String endDestination = "/public/session/" + endSessionResponse.getSessionCode() + "/end";
         messagingTemplate.convertAndSend(endDestination, endApiResponse);
 
-        // Send a summary to each participant
-        List<Map.Entry<String, Object>> summaryDetails = sessionService.getSessionSummaryDetails(request.getSessionId());
-        for (Map.Entry<String, Object> entry : summaryDetails) {
-            String stompClientId = entry.getKey();
-            Object summaryData = entry.getValue();
-
-            if (summaryData instanceof List) {
-                // Host get the full list
-                @SuppressWarnings("unchecked")
-                List<SessionEndSummaryResponse> summaries = (List<SessionEndSummaryResponse>) summaryData;
-                ApiResponse<List<SessionEndSummaryResponse>> hostSummaryApiResponse = createApiResponse(
-                        "Final summary for all participants in session with code: %s",
-                        summaries, endSessionResponse.getSessionCode(), headerAccessor);
-                messagingTemplate.convertAndSendToUser(stompClientId, "/private/summary", hostSummaryApiResponse);
-            } else if (summaryData instanceof SessionEndSummaryResponse individualSummary) {
-                // Other users or guests receive personal summaries
-                ApiResponse<SessionEndSummaryResponse> individualSummaryApiResponse = createApiResponse(
-                        "Your final summary for session with code: %s",
-                        individualSummary, endSessionResponse.getSessionCode(), headerAccessor);
-                messagingTemplate.convertAndSendToUser(stompClientId, "/private/summary", individualSummaryApiResponse);
-            } else {
-                log.error("Invalid summary data type for stompClientId: {}", stompClientId);
-            }
-        }
-
-        // Get achievement update details from the service
-        List<Map.Entry<String, AchievementUpdateResponse>> updateDetails = sessionParticipantService.getAchievementUpdateDetails(
-                endSessionResult.getAchievementUpdates(),
-                request.getSessionId()
-        );
-
-        // Send achievement updates to each user
-        updateDetails.forEach(entry -> {
-            String stompClientId = entry.getKey();
-            AchievementUpdateResponse update = entry.getValue();
-            ApiResponse<AchievementUpdateResponse> achievementApiResponse = ApiResponse.<AchievementUpdateResponse>builder()
-                    .message(String.format("Achievement updates for user in session with code: %s", endSessionResponse.getSessionCode()))
-                    .data(update)
-                    .meta(buildWebSocketMetaInfo(headerAccessor))
-                    .build();
-            messagingTemplate.convertAndSendToUser(stompClientId, "/private/achievement", achievementApiResponse);
-        });
+        // Points, achievements and the private summaries follow from a background job
+        backgroundJobRunner.dispatch(endSessionResult.getFinalizationJobId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.bitorax.priziq.domain;
+
+import com.bitorax.priziq.constant.BackgroundJobStatus;
+import com.bitorax.priziq.constant.BackgroundJobType;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+// Work done after a request returns, persisted so it survives a restart and is retried when it fails
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "background_jobs", indexes = @Index(name = "idx_background_jobs_status_next_attempt_at", columnList = "status, nextAttemptAt"))
+public class BackgroundJob extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    String jobId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    BackgroundJobType jobType;
+
+    // Id of the entity the job works on
+    @Column(nullable = false)
+    String referenceId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    BackgroundJobStatus status = BackgroundJobStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    Integer attempts = 0;
+
+    @Column(nullable = false)
+    Instant nextAttemptAt;
+
+    Instant startedAt;
+
+    Instant completedAt;
+
+    // Last step completed by the handler and the data it produced, so a retry resumes after it
+    String checkpoint;
+
+    @Column(columnDefinition = "TEXT")
+    String state;
+
+    @Column(columnDefinition = "TEXT")
+    String lastError;
+
+    // Progress of handlers that work through their items in chunks
+    Integer processedItems;
+
+    Integer totalItems;
+}
@@ -30,7 +30,11 @@ public abstract class BaseEntity {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = updatedAt = Instant.now();
+        updatedAt = Instant.now();
+        // Rows written behind keep the time they were actually created
+        if (createdAt == null) {
+            createdAt = updatedAt;
+        }
         createdBy = SecurityUtils.getCurrentUserEmailFromJwt();
     }
 
@@ -6,7 +6,9 @@ import com.bitorax.priziq.domain.session.Session;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,6 +20,7 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
 @Table(name = "collections")
+@SQLRestriction("deleted_at IS NULL")
 public class Collection extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -44,4 +47,7 @@ public class Collection extends BaseEntity {
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     CollectionTopicType topic;
+
+    // Set when the collection is deleted, it stays hidden until the purge job removes its rows
+    Instant deletedAt;
 }
@@ -15,8 +15,8 @@ import lombok.experimental.FieldDefaults;
 @Entity
 @Table(name = "activity_submissions")
 public class ActivitySubmission extends BaseEntity {
+    // Assigned when the answer is submitted, before the row is written behind by the live session
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     String activitySubmissionId;
 
     @ManyToOne
@@ -0,0 +1,16 @@
+package com.bitorax.priziq.dto.cache;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BrokerMessageCacheDTO {
+    String nodeId;
+    String destination;
+    String contentType;
+    byte[] payload;
+}
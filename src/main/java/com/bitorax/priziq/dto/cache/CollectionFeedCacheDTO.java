@@ -0,0 +1,18 @@
+package com.bitorax.priziq.dto.cache;
+
+import com.bitorax.priziq.dto.response.collection.CollectionSummaryResponse;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CollectionFeedCacheDTO {
+    String etag;
+    Map<String, List<CollectionSummaryResponse>> groups;
+}
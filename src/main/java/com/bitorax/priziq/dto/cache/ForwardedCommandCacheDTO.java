@@ -0,0 +1,19 @@
+package com.bitorax.priziq.dto.cache;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ForwardedCommandCacheDTO {
+    // SEND for /server/session/* commands, DISCONNECT for closed connections
+    String command;
+    String destination;
+    String contentType;
+    byte[] payload;
+    String websocketSessionId;
+    String stompClientId;
+}
@@ -3,6 +3,8 @@ package com.bitorax.priziq.dto.cache;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
+import java.time.Instant;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,4 +17,5 @@ public class SubmissionCacheDTO {
     String answerContent;
     Boolean isCorrect;
     Integer responseScore;
+    Instant submittedAt;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.bitorax.priziq.dto.response.collection;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+// The collection is created unpublished when the copy starts and filled chunk by chunk. Until the job is COMPLETED it
+// holds only the first processedActivities activities of the source, in source order. Activities added to it meanwhile
+// are kept, and the copied ones are placed with their source order index
+public class CollectionCopyJobResponse {
+    String jobId;
+    String sourceCollectionId;
+    String collectionId;
+    String status;
+    Integer processedActivities;
+    Integer totalActivities;
+    // False while collectionId holds only part of the source activities
+    Boolean collectionComplete;
+    String lastError;
+    Instant completedAt;
+}
@@ -0,0 +1,18 @@
+package com.bitorax.priziq.dto.response.session;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LeaderboardDeltaResponse {
+    Long sequence;
+    // A keyframe carries every participant and replaces the client state, a delta only the changed ones
+    Boolean keyframe;
+    List<ParticipantDeltaResponse> participants;
+}
@@ -0,0 +1,16 @@
+package com.bitorax.priziq.dto.response.session;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LeaderboardTopResponse {
+    Integer totalParticipants;
+    List<SessionParticipantSummaryResponse> participants;
+}
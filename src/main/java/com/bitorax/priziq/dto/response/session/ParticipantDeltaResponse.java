@@ -0,0 +1,23 @@
+package com.bitorax.priziq.dto.response.session;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ParticipantDeltaResponse {
+    String sessionParticipantId;
+
+    // Only sent in keyframes
+    String displayName;
+    String displayAvatar;
+
+    Integer realtimeScore;
+    Integer realtimeRanking;
+    Boolean isConnected;
+}
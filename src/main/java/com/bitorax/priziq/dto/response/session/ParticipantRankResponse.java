@@ -0,0 +1,16 @@
+package com.bitorax.priziq.dto.response.session;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ParticipantRankResponse {
+    String sessionParticipantId;
+    Integer realtimeScore;
+    Integer realtimeRanking;
+    Integer totalParticipants;
+}
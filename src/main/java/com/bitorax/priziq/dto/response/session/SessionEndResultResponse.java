@@ -1,12 +1,9 @@
 package com.bitorax.priziq.dto.response.session;
 
-import com.bitorax.priziq.dto.response.achievement.AchievementUpdateResponse;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
-import java.util.List;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,5 +12,5 @@ import java.util.List;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class SessionEndResultResponse {
     SessionSummaryResponse sessionSummary;
-    List<AchievementUpdateResponse> achievementUpdates;
+    String finalizationJobId;
 }
@@ -133,6 +133,7 @@ public enum ErrorCode {
     INVALID_COLLECTION_TOPIC_TYPE(1607, HttpStatus.BAD_REQUEST, "Invalid collection topic type. Only the following types are supported: ART, SCIENCE, TECHNOLOGY, HISTORY, LITERATURE, ENTERTAINMENT, SPORTS, GEOGRAPHY, HEALTH, EDUCATION, NATURE, CULTURE, BUSINESS, PHILOSOPHY, FOOD, TRIVIA"),
     COLLECTION_TOPIC_NOT_BLANK(1608, HttpStatus.BAD_REQUEST, "Collection topic must not be blank"),
     COLLECTION_NOT_PUBLISHED(1609, HttpStatus.BAD_REQUEST, "Cannot copy unpublished collection"),
+    COLLECTION_COPY_JOB_NOT_FOUND(1610, HttpStatus.NOT_FOUND, "Collection copy job not found"),
 
     // Module activity errors
     COLLECTION_ID_REQUIRED(1701, HttpStatus.BAD_REQUEST, "Collection ID is required"),
@@ -230,6 +231,7 @@ public enum ErrorCode {
     SESSION_NOT_PENDING(1808, HttpStatus.BAD_REQUEST,"Session must be in PENDING status to start"),
     SESSION_NOT_STARTED(1809, HttpStatus.BAD_REQUEST,"Session must be in STARTED status to proceed to next activity"),
     QR_CODE_GENERATION_FAILED(1810, HttpStatus.BAD_REQUEST, "Lỗi khi sinh mã QR"),
+    SESSION_OWNED_BY_ANOTHER_NODE(1811, HttpStatus.CONFLICT, "The live session is currently served by another instance"),
 
     // Module session participant errors
     SESSION_PARTICIPANT_NOT_FOUND(1901, HttpStatus.NOT_FOUND, "Session participant not found"),
@@ -252,6 +254,8 @@ public enum ErrorCode {
     DUPLICATE_MATCHING_PAIR_ITEM(2009, HttpStatus.BAD_REQUEST, "Duplicate item IDs found in the matching pair answer"),
     INVALID_MATCHING_PAIR_COLUMN(2010, HttpStatus.BAD_REQUEST, "The matching pair does not correspond to left-right columns"),
     NO_CORRECT_MATCHING_PAIR_CONNECTIONS(2011, HttpStatus.BAD_REQUEST, "No correct matching pair connections found in the system"),
+    SUBMISSION_QUEUE_FULL(2012, HttpStatus.TOO_MANY_REQUESTS, "Too many submissions are waiting to be processed, please try again"),
+    SUBMISSION_NOT_PROCESSED(2013, HttpStatus.INTERNAL_SERVER_ERROR, "Your submission could not be processed, please submit again"),
 
     // Module achievement errors
     ACHIEVEMENT_NOT_FOUND(2101, HttpStatus.NOT_FOUND, "Achievement not found"),
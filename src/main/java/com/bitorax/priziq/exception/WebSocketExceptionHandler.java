@@ -94,6 +94,11 @@ public class WebSocketExceptionHandler {
         sendErrorToClient(stompClientId, response);
     }
 
+    // For errors raised after the message handler returned, e.g. while a queued submission was applied
+    public void sendError(String stompClientId, ErrorCode errorCode) {
+        sendErrorToClient(stompClientId, buildErrorResponse(errorCode, Optional.empty(), null));
+    }
+
     private String getStompClientId(SimpMessageHeaderAccessor headerAccessor) {
         Principal principal = headerAccessor.getUser();
         String stompClientId = (principal != null) ? principal.getName() : null;
@@ -16,10 +16,12 @@ public interface CollectionMapper {
     CollectionSummaryResponse collectionToSummaryResponse(Collection collection);
 
     @Mapping(target = "activities", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     Collection createCollectionRequestToCollection(CreateCollectionRequest createCollectionRequest);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "activities", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     void updateCollectionRequestToCollection(@MappingTarget Collection collection, UpdateCollectionRequest updateCollectionRequest);
 
     List<CollectionDetailResponse> collectionsToCollectionDetailResponseList(List<Collection> collections);
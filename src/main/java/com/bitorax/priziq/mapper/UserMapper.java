@@ -26,6 +26,9 @@ public interface UserMapper {
 
     UserResponse userToResponse(User user);
 
+    @Mapping(target = "rolesSecured", ignore = true)
+    UserSecureResponse userResponseToSecureResponse(UserResponse userResponse);
+
     @Mapping(target = "roles", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateUserForAdminRequestToUser(@MappingTarget User user, UpdateUserForAdminRequest updateUserForAdminRequest);
@@ -11,5 +11,6 @@ public interface CollectionCacheMapper {
     CollectionCacheDTO collectionToCacheDTO(Collection collection);
 
     @Mapping(source = "creatorId", target = "creator.userId")
+    @Mapping(target = "deletedAt", ignore = true)
     Collection collectionCacheDTOToCollection(CollectionCacheDTO collectionCacheDTO);
 }
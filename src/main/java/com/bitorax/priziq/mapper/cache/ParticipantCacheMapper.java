@@ -2,9 +2,13 @@ package com.bitorax.priziq.mapper.cache;
 
 import com.bitorax.priziq.domain.session.SessionParticipant;
 import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
+import com.bitorax.priziq.dto.response.session.ParticipantDeltaResponse;
+import com.bitorax.priziq.dto.response.session.SessionParticipantSummaryResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring")
 public interface ParticipantCacheMapper {
     @Mapping(source = "session.sessionId", target = "sessionId")
@@ -13,5 +17,20 @@ public interface ParticipantCacheMapper {
 
     @Mapping(source = "sessionId", target = "session.sessionId")
     @Mapping(source = "userId", target = "user.userId")
+    @Mapping(target = "activitySubmissions", ignore = true)
     SessionParticipant participantCacheDTOToSessionParticipant(ParticipantCacheDTO participantCacheDTO);
+
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
+    SessionParticipantSummaryResponse participantCacheDTOToSummaryResponse(ParticipantCacheDTO participantCacheDTO);
+
+    List<SessionParticipantSummaryResponse> participantCacheDTOsToSummaryResponseList(List<ParticipantCacheDTO> participantCacheDTOs);
+
+    ParticipantDeltaResponse participantCacheDTOToKeyframeResponse(ParticipantCacheDTO participantCacheDTO);
+
+    @Mapping(target = "displayName", ignore = true)
+    @Mapping(target = "displayAvatar", ignore = true)
+    ParticipantDeltaResponse participantCacheDTOToDeltaResponse(ParticipantCacheDTO participantCacheDTO);
 }
@@ -2,6 +2,7 @@ package com.bitorax.priziq.mapper.cache;
 
 import com.bitorax.priziq.domain.session.ActivitySubmission;
 import com.bitorax.priziq.dto.cache.SubmissionCacheDTO;
+import com.bitorax.priziq.dto.response.session.ActivitySubmissionSummaryResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -9,9 +10,16 @@ import org.mapstruct.Mapping;
 public interface SubmissionCacheMapper {
     @Mapping(source = "sessionParticipant.sessionParticipantId", target = "sessionParticipantId")
     @Mapping(source = "activity.activityId", target = "activityId")
+    @Mapping(source = "createdAt", target = "submittedAt")
     SubmissionCacheDTO activitySubmissionToCacheDTO(ActivitySubmission activitySubmission);
 
     @Mapping(source = "sessionParticipantId", target = "sessionParticipant.sessionParticipantId")
     @Mapping(source = "activityId", target = "activity.activityId")
     ActivitySubmission submissionCacheDTOToActivitySubmission(SubmissionCacheDTO submissionCacheDTO);
+
+    @Mapping(source = "submittedAt", target = "createdAt")
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
+    ActivitySubmissionSummaryResponse submissionCacheDTOToSummaryResponse(SubmissionCacheDTO submissionCacheDTO);
 }
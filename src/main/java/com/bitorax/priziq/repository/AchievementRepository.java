@@ -3,13 +3,22 @@ package com.bitorax.priziq.repository;
 import com.bitorax.priziq.domain.Achievement;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface AchievementRepository extends JpaRepository<Achievement, String>, JpaSpecificationExecutor<Achievement> {
+public interface AchievementRepository extends JpaRepository<Achievement, String>, JpaSpecificationExecutor<Achievement>, AchievementRepositoryCustom {
     boolean existsByName(String name);
 
     List<Achievement> findByRequiredPointsLessThanEqual(Integer requiredPoints);
+
+    List<Achievement> findAllByOrderByRequiredPointsAsc();
+
+    // Rows of [userId, achievementId] for the achievements the given users already hold
+    @Query("SELECT u.userId, a.achievementId FROM Achievement a JOIN a.users u WHERE u.userId IN :userIds")
+    List<Object[]> findAchievementIdsByUserIds(@Param("userIds") Collection<String> userIds);
 }
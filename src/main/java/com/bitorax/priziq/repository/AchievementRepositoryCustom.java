@@ -0,0 +1,17 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.domain.Achievement;
+import com.bitorax.priziq.dto.response.achievement.AchievementSummaryResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface AchievementRepositoryCustom {
+    // Inserts every achievementId -> userIds pair in one JDBC batch
+    void insertAchievementUsers(Map<String, Set<String>> userIdsByAchievementId);
+
+    Page<AchievementSummaryResponse> findSummaries(Specification<Achievement> spec, Pageable pageable);
+}
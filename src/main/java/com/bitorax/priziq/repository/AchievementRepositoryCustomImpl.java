@@ -0,0 +1,64 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.domain.Achievement;
+import com.bitorax.priziq.dto.response.achievement.AchievementSummaryResponse;
+import jakarta.persistence.criteria.Selection;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.bitorax.priziq.repository.SpecificationProjectionExecutor.auditSelections;
+import static com.bitorax.priziq.repository.SpecificationProjectionExecutor.withAudit;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AchievementRepositoryCustomImpl implements AchievementRepositoryCustom {
+    // Achievement.users owns the join table with its join columns named the other way round:
+    // user_id holds the achievement and achievement_id holds the user
+    private static final String INSERT_ACHIEVEMENT_USER = "INSERT INTO achievement_users (user_id, achievement_id) VALUES (?, ?)";
+
+    JdbcTemplate jdbcTemplate;
+    SpecificationProjectionExecutor specificationProjectionExecutor;
+
+    @Override
+    public void insertAchievementUsers(Map<String, Set<String>> userIdsByAchievementId) {
+        List<Object[]> rows = new ArrayList<>();
+        userIdsByAchievementId.forEach((achievementId, userIds) ->
+                userIds.forEach(userId -> rows.add(new Object[]{achievementId, userId})));
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ACHIEVEMENT_USER, rows);
+        }
+    }
+
+    @Override
+    public Page<AchievementSummaryResponse> findSummaries(Specification<Achievement> spec, Pageable pageable) {
+        return specificationProjectionExecutor.findPage(Achievement.class, spec, pageable,
+                (root, query, criteriaBuilder) -> {
+                    List<Selection<?>> selections = new ArrayList<>(List.of(
+                            root.get("achievementId").alias("achievementId"),
+                            root.get("name").alias("name"),
+                            root.get("description").alias("description"),
+                            root.get("iconUrl").alias("iconUrl"),
+                            root.get("requiredPoints").alias("requiredPoints")));
+                    selections.addAll(auditSelections(root, ""));
+                    return selections;
+                },
+                tuple -> withAudit(AchievementSummaryResponse.builder()
+                        .achievementId(tuple.get("achievementId", String.class))
+                        .name(tuple.get("name", String.class))
+                        .description(tuple.get("description", String.class))
+                        .iconUrl(tuple.get("iconUrl", String.class))
+                        .requiredPoints(tuple.get("requiredPoints", Integer.class))
+                        .build(), tuple, ""));
+    }
+}
@@ -1,10 +1,30 @@
 package com.bitorax.priziq.repository;
 
 import com.bitorax.priziq.domain.activity.Activity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ActivityRepository extends JpaRepository<Activity, String>, JpaSpecificationExecutor<Activity> {
+    // Quiz, matching pair answer and slide are mapped by the other side and would otherwise be selected one by one
+    @EntityGraph(attributePaths = {"quiz", "quiz.quizMatchingPairAnswer", "slide"})
+    Optional<Activity> findWithContentByActivityId(String activityId);
+
+    long countByCollectionCollectionId(String collectionId);
+
+    @Query("SELECT a.collection.collectionId FROM Activity a WHERE a.activityId = :activityId")
+    Optional<String> findCollectionIdByActivityId(@Param("activityId") String activityId);
+
+    // Keyset page of a collection's activity ids, afterActivityId is "" for the first page
+    @Query("SELECT a.activityId FROM Activity a WHERE a.collection.collectionId = :collectionId AND a.activityId > :afterActivityId " +
+            "ORDER BY a.activityId ASC")
+    List<String> findActivityIdsAfter(@Param("collectionId") String collectionId, @Param("afterActivityId") String afterActivityId, Pageable pageable);
 }
@@ -3,17 +3,33 @@ package com.bitorax.priziq.repository;
 import com.bitorax.priziq.domain.session.ActivitySubmission;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface ActivitySubmissionRepository extends JpaRepository<ActivitySubmission, String>, JpaSpecificationExecutor<ActivitySubmission> {
-    List<ActivitySubmission> findBySessionParticipant_Session_SessionIdAndActivity_ActivityIdAndIsCorrect(String sessionId, String activityId, Boolean isCorrect);
+    // Rows of [activityId, count]
+    @Query("SELECT s.activity.activityId, COUNT(s) FROM ActivitySubmission s " +
+            "WHERE s.sessionParticipant.session.sessionId = :sessionId AND s.isCorrect = true " +
+            "GROUP BY s.activity.activityId")
+    List<Object[]> countCorrectSubmissionsByActivity(@Param("sessionId") String sessionId);
+
+    // One row per participant with submissions: [sessionParticipantId, totalScore, correctCount, submissionCount]
+    @Query("SELECT s.sessionParticipant.sessionParticipantId, COALESCE(SUM(s.responseScore), 0), " +
+            "SUM(CASE WHEN s.isCorrect = true THEN 1 ELSE 0 END), COUNT(s) FROM ActivitySubmission s " +
+            "WHERE s.sessionParticipant.session.sessionId = :sessionId " +
+            "GROUP BY s.sessionParticipant.sessionParticipantId")
+    List<Object[]> summarizeSubmissionsByParticipant(@Param("sessionId") String sessionId);
+
+    @Query("SELECT s.activitySubmissionId FROM ActivitySubmission s WHERE s.activitySubmissionId IN :ids")
+    Set<String> findExistingIds(@Param("ids") Collection<String> ids);
 
     List<ActivitySubmission> findBySessionParticipant_SessionParticipantId(String participantId);
 
     void deleteByActivityActivityId(String activityId);
-
-    void deleteBySessionParticipantSessionParticipantId(String sessionParticipantId);
 }
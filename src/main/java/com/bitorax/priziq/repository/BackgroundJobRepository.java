@@ -0,0 +1,58 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.constant.BackgroundJobStatus;
+import com.bitorax.priziq.domain.BackgroundJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, String> {
+    @Query("SELECT j.jobId FROM BackgroundJob j WHERE j.status = :status AND j.nextAttemptAt <= :now ORDER BY j.nextAttemptAt ASC")
+    List<String> findDueJobIds(@Param("status") BackgroundJobStatus status, @Param("now") Instant now, Pageable pageable);
+
+    // Only one caller gets 1 back, the others leave the job to it
+    @Modifying
+    @Transactional
+    @Query("UPDATE BackgroundJob j SET j.status = :running, j.attempts = j.attempts + 1, j.startedAt = :now " +
+            "WHERE j.jobId = :jobId AND j.status = :pending")
+    int claim(@Param("jobId") String jobId, @Param("now") Instant now,
+              @Param("pending") BackgroundJobStatus pending, @Param("running") BackgroundJobStatus running);
+
+    // Jobs left running by an instance that stopped are handed out again
+    @Modifying
+    @Transactional
+    @Query("UPDATE BackgroundJob j SET j.status = :pending, j.nextAttemptAt = :now " +
+            "WHERE j.status = :running AND j.startedAt < :startedBefore")
+    int requeueAbandoned(@Param("startedBefore") Instant startedBefore, @Param("now") Instant now,
+                         @Param("pending") BackgroundJobStatus pending, @Param("running") BackgroundJobStatus running);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BackgroundJob j SET j.status = :status, j.nextAttemptAt = :nextAttemptAt, j.completedAt = :completedAt, j.lastError = :lastError " +
+            "WHERE j.jobId = :jobId")
+    void updateStatus(@Param("jobId") String jobId, @Param("status") BackgroundJobStatus status,
+                      @Param("nextAttemptAt") Instant nextAttemptAt, @Param("completedAt") Instant completedAt,
+                      @Param("lastError") String lastError);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BackgroundJob j SET j.checkpoint = :checkpoint, j.state = :state WHERE j.jobId = :jobId")
+    void saveCheckpoint(@Param("jobId") String jobId, @Param("checkpoint") String checkpoint, @Param("state") String state);
+
+    // Also renews the lease, a job reporting progress is not abandoned however long it runs
+    @Modifying
+    @Transactional
+    @Query("UPDATE BackgroundJob j SET j.checkpoint = :checkpoint, j.processedItems = :processedItems, j.totalItems = :totalItems, " +
+            "j.startedAt = :now WHERE j.jobId = :jobId")
+    void saveProgress(@Param("jobId") String jobId, @Param("checkpoint") String checkpoint,
+                      @Param("processedItems") Integer processedItems, @Param("totalItems") Integer totalItems,
+                      @Param("now") Instant now);
+}
@@ -1,16 +1,18 @@
 package com.bitorax.priziq.repository;
 
 import com.bitorax.priziq.domain.Collection;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface CollectionRepository extends JpaRepository<Collection, String>, JpaSpecificationExecutor<Collection> {
-    @Query("SELECT c.topic AS topic, c AS collection FROM Collection c " + "WHERE c.isPublished = true " + "ORDER BY c.createdAt DESC")
-    List<Object[]> findPublishedGroupedByTopic(Pageable pageable);;
+public interface CollectionRepository extends JpaRepository<Collection, String>, JpaSpecificationExecutor<Collection>, CollectionRepositoryCustom {
+    // The activities with their quiz, matching pair answer and slide, their lists are fetched by ActivityUtils.fetchActivityContents
+    @Query("SELECT DISTINCT c FROM Collection c LEFT JOIN FETCH c.creator LEFT JOIN FETCH c.activities a " +
+            "LEFT JOIN FETCH a.quiz q LEFT JOIN FETCH q.quizMatchingPairAnswer LEFT JOIN FETCH a.slide WHERE c.collectionId = :collectionId")
+    Optional<Collection> findWithActivitiesByCollectionId(@Param("collectionId") String collectionId);
 }
@@ -0,0 +1,25 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.domain.Collection;
+import com.bitorax.priziq.dto.response.collection.CollectionSummaryResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface CollectionRepositoryCustom {
+    // Summary columns only, totalActivities is counted by the database
+    Page<CollectionSummaryResponse> findSummaries(Specification<Collection> spec, Pageable pageable);
+
+    // Copies every activity of the source collection with its quiz or slide content into the target collection,
+    // one INSERT ... SELECT per table. Returns the number of activities copied
+    int copyActivities(String sourceCollectionId, String targetCollectionId, String copiedBy);
+
+    // Same copy limited to the given activities. Rows copied by an earlier attempt are skipped, so a chunk can be copied again
+    int copyActivities(String sourceCollectionId, String targetCollectionId, String copiedBy, List<String> activityIds);
+
+    // Deletes the collection with its activities, their content, its sessions, participants and submissions,
+    // one DELETE per table. Returns the number of collections deleted
+    int purgeCollection(String collectionId);
+}
@@ -0,0 +1,229 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.constant.CollectionTopicType;
+import com.bitorax.priziq.domain.Collection;
+import com.bitorax.priziq.domain.activity.Activity;
+import com.bitorax.priziq.dto.response.collection.CollectionSummaryResponse;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.bitorax.priziq.repository.SpecificationProjectionExecutor.auditSelections;
+import static com.bitorax.priziq.repository.SpecificationProjectionExecutor.withAudit;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CollectionRepositoryCustomImpl implements CollectionRepositoryCustom {
+    // The id of a copied row is derived from the source id and the target collection, so child rows find
+    // their copied parent, and connections their copied items, without an id mapping round trip
+    private static final String COPIED_ID = "md5(CAST(:targetCollectionId AS text) || %s)::uuid::text";
+
+    private static final String COPY_ACTIVITIES = """
+            INSERT INTO activities (activity_id, collection_id, activity_type, title, description, is_published, order_index,
+                                    background_color, background_image, created_at, updated_at, created_by, version)
+            SELECT %s, :targetCollectionId, a.activity_type, a.title, a.description, a.is_published, a.order_index,
+                   a.background_color, a.background_image, now(), now(), :copiedBy, 0
+            FROM activities a
+            WHERE a.collection_id = :sourceCollectionId
+            """.formatted(copiedId("a.activity_id"));
+
+    private static final String COPY_QUIZZES = """
+            INSERT INTO quizzes (activity_id, question_text, time_limit_seconds, point_type, created_at, updated_at, created_by, version)
+            SELECT %s, q.question_text, q.time_limit_seconds, q.point_type, now(), now(), :copiedBy, 0
+            FROM quizzes q JOIN activities a ON a.activity_id = q.activity_id
+            WHERE a.collection_id = :sourceCollectionId
+            """.formatted(copiedId("q.activity_id"));
+
+    private static final String COPY_QUIZ_ANSWERS = """
+            INSERT INTO quiz_answers (quiz_answer_id, quiz_id, answer_text, is_correct, explanation, order_index,
+                                      created_at, updated_at, created_by, version)
+            SELECT %s, %s, qa.answer_text, qa.is_correct, qa.explanation, qa.order_index, now(), now(), :copiedBy, 0
+            FROM quiz_answers qa JOIN activities a ON a.activity_id = qa.quiz_id
+            WHERE a.collection_id = :sourceCollectionId
+            """.formatted(copiedId("qa.quiz_answer_id"), copiedId("qa.quiz_id"));
+
+    private static final String COPY_QUIZ_LOCATION_ANSWERS = """
+            INSERT INTO quiz_location_answers (quiz_location_answer_id, quiz_id, longitude, latitude, radius)
+            SELECT %s, %s, ql.longitude, ql.latitude, ql.radius
+            FROM quiz_location_answers ql JOIN activities a ON a.activity_id = ql.quiz_id
+            WHERE a.collection_id = :sourceCollectionId
+            """.formatted(copiedId("ql.quiz_location_answer_id"), copiedId("ql.quiz_id"));
+
+    private static final String COPY_MATCHING_PAIR_ANSWERS = """
+            INSERT INTO quiz_matching_pair_answers (quiz_id, left_column_name, right_column_name)
+            SELECT %s, mp.left_column_name, mp.right_column_name
+            FROM quiz_matching_pair_answers mp JOIN activities a ON a.activity_id = mp.quiz_id
+            WHERE a.collection_id = :sourceCollectionId
+            """.formatted(copiedId("mp.quiz_id"));
+
+    private static final String COPY_MATCHING_PAIR_ITEMS = """
+            INSERT INTO quiz_matching_pair_items (quiz_matching_pair_item_id, quiz_matching_pair_answer_id, content, is_left_column, display_order)
+            SELECT %s, %s, i.content, i.is_left_column, i.display_order
+            FROM quiz_matching_pair_items i JOIN activities a ON a.activity_id = i.quiz_matching_pair_answer_id
+            WHERE a.collection_id = :sourceCollectionId
+            """.formatted(copiedId("i.quiz_matching_pair_item_id"), copiedId("i.quiz_matching_pair_answer_id"));
+
+    private static final String COPY_MATCHING_PAIR_CONNECTIONS = """
+            INSERT INTO quiz_matching_pair_connections (quiz_matching_pair_connection_id, quiz_matching_pair_answer_id, left_item_id, right_item_id)
+            SELECT %s, %s, %s, %s
+            FROM quiz_matching_pair_connections c JOIN activities a ON a.activity_id = c.quiz_matching_pair_answer_id
+            WHERE a.collection_id = :sourceCollectionId
+            """.formatted(copiedId("c.quiz_matching_pair_connection_id"), copiedId("c.quiz_matching_pair_answer_id"),
+            copiedId("c.left_item_id"), copiedId("c.right_item_id"));
+
+    private static final String COPY_SLIDES = """
+            INSERT INTO slides (activity_id, transition_effect, transition_duration, auto_advance_seconds,
+                                created_at, updated_at, created_by, version)
+            SELECT %s, s.transition_effect, s.transition_duration, s.auto_advance_seconds, now(), now(), :copiedBy, 0
+            FROM slides s JOIN activities a ON a.activity_id = s.activity_id
+            WHERE a.collection_id = :sourceCollectionId
+            """.formatted(copiedId("s.activity_id"));
+
+    private static final String COPY_SLIDE_ELEMENTS = """
+            INSERT INTO slide_elements (slide_element_id, slide_id, slide_element_type, position_x, position_y, width, height,
+                                        rotation, layer_order, content, source_url, display_order,
+                                        entry_animation, entry_animation_duration, entry_animation_delay,
+                                        exit_animation, exit_animation_duration, exit_animation_delay,
+                                        created_at, updated_at, created_by, version)
+            SELECT %s, %s, se.slide_element_type, se.position_x, se.position_y, se.width, se.height,
+                   se.rotation, se.layer_order, se.content, se.source_url, se.display_order,
+                   se.entry_animation, se.entry_animation_duration, se.entry_animation_delay,
+                   se.exit_animation, se.exit_animation_duration, se.exit_animation_delay,
+                   now(), now(), :copiedBy, 0
+            FROM slide_elements se JOIN activities a ON a.activity_id = se.slide_id
+            WHERE a.collection_id = :sourceCollectionId
+            """.formatted(copiedId("se.slide_element_id"), copiedId("se.slide_id"));
+
+    // Parents before children, so every foreign key points at a row inserted by an earlier statement
+    private static final List<String> COPY_CONTENT_STATEMENTS = List.of(
+            COPY_QUIZZES, COPY_QUIZ_ANSWERS, COPY_QUIZ_LOCATION_ANSWERS,
+            COPY_MATCHING_PAIR_ANSWERS, COPY_MATCHING_PAIR_ITEMS, COPY_MATCHING_PAIR_CONNECTIONS,
+            COPY_SLIDES, COPY_SLIDE_ELEMENTS);
+
+    private static final String COLLECTION_ACTIVITY_IDS = "SELECT activity_id FROM activities WHERE collection_id = :collectionId";
+
+    private static final String COLLECTION_SESSION_IDS = "SELECT session_id FROM sessions WHERE collection_id = :collectionId";
+
+    // Children before parents, so no statement is left with a row still referencing it
+    private static final List<String> PURGE_STATEMENTS = List.of(
+            "DELETE FROM activity_submissions WHERE activity_id IN (" + COLLECTION_ACTIVITY_IDS + ")",
+            "DELETE FROM activity_submissions WHERE session_participant_id IN " +
+                    "(SELECT session_participant_id FROM session_participants WHERE session_id IN (" + COLLECTION_SESSION_IDS + "))",
+            "DELETE FROM session_participants WHERE session_id IN (" + COLLECTION_SESSION_IDS + ")",
+            "DELETE FROM sessions WHERE collection_id = :collectionId",
+            "DELETE FROM slide_elements WHERE slide_id IN (" + COLLECTION_ACTIVITY_IDS + ")",
+            "DELETE FROM slides WHERE activity_id IN (" + COLLECTION_ACTIVITY_IDS + ")",
+            "DELETE FROM quiz_matching_pair_connections WHERE quiz_matching_pair_answer_id IN (" + COLLECTION_ACTIVITY_IDS + ")",
+            "DELETE FROM quiz_matching_pair_items WHERE quiz_matching_pair_answer_id IN (" + COLLECTION_ACTIVITY_IDS + ")",
+            "DELETE FROM quiz_matching_pair_answers WHERE quiz_id IN (" + COLLECTION_ACTIVITY_IDS + ")",
+            "DELETE FROM quiz_location_answers WHERE quiz_id IN (" + COLLECTION_ACTIVITY_IDS + ")",
+            "DELETE FROM quiz_answers WHERE quiz_id IN (" + COLLECTION_ACTIVITY_IDS + ")",
+            "DELETE FROM quizzes WHERE activity_id IN (" + COLLECTION_ACTIVITY_IDS + ")",
+            "DELETE FROM activities WHERE collection_id = :collectionId");
+
+    private static final String PURGE_COLLECTION = "DELETE FROM collections WHERE collection_id = :collectionId";
+
+    SpecificationProjectionExecutor specificationProjectionExecutor;
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public int copyActivities(String sourceCollectionId, String targetCollectionId, String copiedBy) {
+        return copy(copyParams(sourceCollectionId, targetCollectionId, copiedBy), "");
+    }
+
+    @Override
+    public int copyActivities(String sourceCollectionId, String targetCollectionId, String copiedBy, List<String> activityIds) {
+        if (activityIds.isEmpty()) {
+            return 0;
+        }
+        return copy(copyParams(sourceCollectionId, targetCollectionId, copiedBy).addValue("activityIds", activityIds),
+                "AND a.activity_id IN (:activityIds)");
+    }
+
+    // Copied ids are deterministic, so a row that already exists is one copied before and is left as it is
+    private int copy(MapSqlParameterSource params, String activityFilter) {
+        int copiedActivities = namedParameterJdbcTemplate.update(withFilter(COPY_ACTIVITIES, activityFilter), params);
+        COPY_CONTENT_STATEMENTS.forEach(statement -> namedParameterJdbcTemplate.update(withFilter(statement, activityFilter), params));
+        return copiedActivities;
+    }
+
+    @Override
+    public int purgeCollection(String collectionId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("collectionId", collectionId);
+        PURGE_STATEMENTS.forEach(statement -> namedParameterJdbcTemplate.update(statement, params));
+        return namedParameterJdbcTemplate.update(PURGE_COLLECTION, params);
+    }
+
+    private static MapSqlParameterSource copyParams(String sourceCollectionId, String targetCollectionId, String copiedBy) {
+        return new MapSqlParameterSource()
+                .addValue("sourceCollectionId", sourceCollectionId)
+                .addValue("targetCollectionId", targetCollectionId)
+                .addValue("copiedBy", copiedBy);
+    }
+
+    private static String withFilter(String statement, String activityFilter) {
+        return statement + activityFilter + " ON CONFLICT DO NOTHING";
+    }
+
+    private static String copiedId(String sourceIdColumn) {
+        return COPIED_ID.formatted(sourceIdColumn);
+    }
+
+    @Override
+    public Page<CollectionSummaryResponse> findSummaries(Specification<Collection> spec, Pageable pageable) {
+        return specificationProjectionExecutor.findPage(Collection.class, spec, pageable,
+                CollectionRepositoryCustomImpl::summarySelections, tuple -> {
+                    CollectionSummaryResponse response = toSummaryResponse(tuple, "");
+                    response.setTotalActivities(tuple.get("totalActivities", Long.class).intValue());
+                    return response;
+                });
+    }
+
+    private static List<Selection<?>> summarySelections(Root<Collection> root, CriteriaQuery<Tuple> query, CriteriaBuilder criteriaBuilder) {
+        Subquery<Long> totalActivities = query.subquery(Long.class);
+        Root<Activity> activity = totalActivities.from(Activity.class);
+        totalActivities.select(criteriaBuilder.count(activity)).where(criteriaBuilder.equal(activity.get("collection"), root));
+
+        List<Selection<?>> selections = new ArrayList<>(summaryColumns(root, ""));
+        selections.add(totalActivities.alias("totalActivities"));
+        return selections;
+    }
+
+    // Columns of CollectionSummaryResponse without totalActivities, reused where a collection is embedded in another response
+    public static List<Selection<?>> summaryColumns(Path<?> collection, String aliasPrefix) {
+        List<Selection<?>> selections = new ArrayList<>(List.of(
+                collection.get("collectionId").alias(aliasPrefix + "collectionId"),
+                collection.get("title").alias(aliasPrefix + "title"),
+                collection.get("description").alias(aliasPrefix + "description"),
+                collection.get("isPublished").alias(aliasPrefix + "isPublished"),
+                collection.get("coverImage").alias(aliasPrefix + "coverImage"),
+                collection.get("defaultBackgroundMusic").alias(aliasPrefix + "defaultBackgroundMusic"),
+                collection.get("topic").alias(aliasPrefix + "topic")));
+        selections.addAll(auditSelections(collection, aliasPrefix));
+        return selections;
+    }
+
+    public static CollectionSummaryResponse toSummaryResponse(Tuple tuple, String aliasPrefix) {
+        CollectionTopicType topic = tuple.get(aliasPrefix + "topic", CollectionTopicType.class);
+
+        return withAudit(CollectionSummaryResponse.builder()
+                .collectionId(tuple.get(aliasPrefix + "collectionId", String.class))
+                .title(tuple.get(aliasPrefix + "title", String.class))
+                .description(tuple.get(aliasPrefix + "description", String.class))
+                .isPublished(tuple.get(aliasPrefix + "isPublished", Boolean.class))
+                .coverImage(tuple.get(aliasPrefix + "coverImage", String.class))
+                .defaultBackgroundMusic(tuple.get(aliasPrefix + "defaultBackgroundMusic", String.class))
+                .topic(topic != null ? topic.name() : null)
+                .build(), tuple, aliasPrefix);
+    }
+}
@@ -1,10 +1,29 @@
 package com.bitorax.priziq.repository;
 
 import com.bitorax.priziq.domain.activity.quiz.Quiz;
+import com.bitorax.priziq.domain.activity.quiz.QuizMatchingPairAnswer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, String>, JpaSpecificationExecutor<Quiz> {
+    // One list per query, fetching several lists in one join would multiply the rows
+    @Query("SELECT DISTINCT q FROM Quiz q LEFT JOIN FETCH q.quizAnswers WHERE q.quizId IN :quizIds")
+    List<Quiz> fetchQuizAnswers(@Param("quizIds") Collection<String> quizIds);
+
+    @Query("SELECT DISTINCT q FROM Quiz q LEFT JOIN FETCH q.quizLocationAnswers WHERE q.quizId IN :quizIds")
+    List<Quiz> fetchQuizLocationAnswers(@Param("quizIds") Collection<String> quizIds);
+
+    @Query("SELECT DISTINCT m FROM QuizMatchingPairAnswer m LEFT JOIN FETCH m.items WHERE m.quizMatchingPairAnswerId IN :quizIds")
+    List<QuizMatchingPairAnswer> fetchMatchingPairItems(@Param("quizIds") Collection<String> quizIds);
+
+    @Query("SELECT DISTINCT m FROM QuizMatchingPairAnswer m LEFT JOIN FETCH m.connections c LEFT JOIN FETCH c.leftItem LEFT JOIN FETCH c.rightItem " +
+            "WHERE m.quizMatchingPairAnswerId IN :quizIds")
+    List<QuizMatchingPairAnswer> fetchMatchingPairConnections(@Param("quizIds") Collection<String> quizIds);
 }
@@ -3,8 +3,12 @@ package com.bitorax.priziq.repository;
 import com.bitorax.priziq.domain.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +16,8 @@ public interface RoleRepository extends JpaRepository<Role, String>, JpaSpecific
     Optional<Role> findByName(String name);
 
     boolean existsByName(String name);
+
+    // Rows of [userId, role] for the given users
+    @Query("SELECT u.userId, r FROM User u JOIN u.roles r WHERE u.userId IN :userIds")
+    List<Object[]> findRolesByUserIds(@Param("userIds") Collection<String> userIds);
 }
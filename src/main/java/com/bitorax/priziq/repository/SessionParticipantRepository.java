@@ -23,7 +23,5 @@ public interface SessionParticipantRepository extends JpaRepository<SessionParti
 
     void deleteBySession_SessionIdIn(List<String> sessionIds);
 
-    void deleteBySessionSessionId(String sessionId);
-
     List<SessionParticipant> findBySessionSessionId(String sessionId);
 }
\ No newline at end of file
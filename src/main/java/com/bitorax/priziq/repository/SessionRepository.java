@@ -13,15 +13,14 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SessionRepository extends JpaRepository<Session, String>, JpaSpecificationExecutor<Session> {
+public interface SessionRepository extends JpaRepository<Session, String>, JpaSpecificationExecutor<Session>, SessionRepositoryCustom {
     Optional<Session> findBySessionCode(String sessionCode);
 
     @Query("SELECT s.sessionCode FROM Session s WHERE s.sessionId = :sessionId")
     Optional<String> findSessionCodeBySessionId(@Param("sessionId") String sessionId);
 
-    List<Session> findBySessionStatusAndStartTimeBefore(SessionStatus sessionStatus, Instant minus);
-
-    void deleteByCollectionCollectionId(String collectionId);
+    @Query("SELECT s.sessionStatus FROM Session s WHERE s.sessionCode = :sessionCode")
+    Optional<SessionStatus> findSessionStatusBySessionCode(@Param("sessionCode") String sessionCode);
 
-    List<Session> findByCollectionCollectionId(String collectionId);
+    List<Session> findBySessionStatusAndStartTimeBefore(SessionStatus sessionStatus, Instant minus);
 }
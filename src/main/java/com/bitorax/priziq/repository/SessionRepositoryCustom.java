@@ -0,0 +1,12 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.domain.session.Session;
+import com.bitorax.priziq.dto.response.session.SessionDetailResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface SessionRepositoryCustom {
+    // Session, collection and host columns in one query, the host's roles are left to the caller
+    Page<SessionDetailResponse> findDetails(Specification<Session> spec, Pageable pageable);
+}
@@ -0,0 +1,68 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.constant.SessionStatus;
+import com.bitorax.priziq.domain.Collection;
+import com.bitorax.priziq.domain.User;
+import com.bitorax.priziq.domain.session.Session;
+import com.bitorax.priziq.dto.response.session.SessionDetailResponse;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Selection;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.bitorax.priziq.repository.SpecificationProjectionExecutor.auditSelections;
+import static com.bitorax.priziq.repository.SpecificationProjectionExecutor.withAudit;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SessionRepositoryCustomImpl implements SessionRepositoryCustom {
+    private static final String COLLECTION_PREFIX = "collection_";
+    private static final String HOST_PREFIX = "host_";
+
+    SpecificationProjectionExecutor specificationProjectionExecutor;
+
+    @Override
+    public Page<SessionDetailResponse> findDetails(Specification<Session> spec, Pageable pageable) {
+        return specificationProjectionExecutor.findPage(Session.class, spec, pageable,
+                (root, query, criteriaBuilder) -> {
+                    // Filters may join the participants, a session must still be listed once
+                    query.distinct(true);
+
+                    Join<Session, Collection> collection = root.join("collection");
+                    Join<Session, User> hostUser = root.join("hostUser");
+
+                    List<Selection<?>> selections = new ArrayList<>(List.of(
+                            root.get("sessionId").alias("sessionId"),
+                            root.get("sessionCode").alias("sessionCode"),
+                            root.get("joinSessionQrUrl").alias("joinSessionQrUrl"),
+                            root.get("sessionStatus").alias("sessionStatus"),
+                            root.get("startTime").alias("startTime"),
+                            root.get("endTime").alias("endTime")));
+                    selections.addAll(auditSelections(root, ""));
+                    selections.addAll(CollectionRepositoryCustomImpl.summaryColumns(collection, COLLECTION_PREFIX));
+                    selections.addAll(UserRepositoryCustomImpl.profileColumns(hostUser, HOST_PREFIX));
+                    return selections;
+                },
+                tuple -> {
+                    SessionStatus sessionStatus = tuple.get("sessionStatus", SessionStatus.class);
+                    return withAudit(SessionDetailResponse.builder()
+                            .sessionId(tuple.get("sessionId", String.class))
+                            .sessionCode(tuple.get("sessionCode", String.class))
+                            .joinSessionQrUrl(tuple.get("joinSessionQrUrl", String.class))
+                            .sessionStatus(sessionStatus != null ? sessionStatus.name() : null)
+                            .startTime(tuple.get("startTime", Instant.class))
+                            .endTime(tuple.get("endTime", Instant.class))
+                            .collection(CollectionRepositoryCustomImpl.toSummaryResponse(tuple, COLLECTION_PREFIX))
+                            .hostUser(UserRepositoryCustomImpl.toSecureResponse(tuple, HOST_PREFIX))
+                            .build(), tuple, "");
+                });
+    }
+}
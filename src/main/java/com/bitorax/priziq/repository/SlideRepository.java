@@ -3,8 +3,15 @@ package com.bitorax.priziq.repository;
 import com.bitorax.priziq.domain.activity.slide.Slide;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface SlideRepository extends JpaRepository<Slide, String>, JpaSpecificationExecutor<Slide> {
+    @Query("SELECT DISTINCT s FROM Slide s LEFT JOIN FETCH s.slideElements WHERE s.slideId IN :slideIds")
+    List<Slide> fetchSlideElements(@Param("slideIds") Collection<String> slideIds);
 }
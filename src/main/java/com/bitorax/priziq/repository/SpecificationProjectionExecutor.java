@@ -0,0 +1,92 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.dto.response.common.AuditResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+// Paginated list queries that select only the columns a list response needs, filtered by the same
+// Specification as findAll(spec, pageable). The page and the count run as two queries, like in findAll
+@Repository
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SpecificationProjectionExecutor {
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @FunctionalInterface
+    public interface Selector<T> {
+        List<Selection<?>> select(Root<T> root, CriteriaQuery<Tuple> query, CriteriaBuilder criteriaBuilder);
+    }
+
+    // The BaseEntity columns every response extending AuditResponse carries, aliased with the given prefix
+    public static List<Selection<?>> auditSelections(Path<?> path, String aliasPrefix) {
+        return List.of(
+                path.get("createdAt").alias(aliasPrefix + "createdAt"),
+                path.get("updatedAt").alias(aliasPrefix + "updatedAt"),
+                path.get("createdBy").alias(aliasPrefix + "createdBy"),
+                path.get("updatedBy").alias(aliasPrefix + "updatedBy"));
+    }
+
+    public static <R extends AuditResponse> R withAudit(R response, Tuple tuple, String aliasPrefix) {
+        response.setCreatedAt(tuple.get(aliasPrefix + "createdAt", Instant.class));
+        response.setUpdatedAt(tuple.get(aliasPrefix + "updatedAt", Instant.class));
+        response.setCreatedBy(tuple.get(aliasPrefix + "createdBy", String.class));
+        response.setUpdatedBy(tuple.get(aliasPrefix + "updatedBy", String.class));
+        return response;
+    }
+
+    public <T, R> Page<R> findPage(Class<T> domainClass, Specification<T> spec, Pageable pageable,
+                                   Selector<T> selector, Function<Tuple, R> mapper) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(selector.select(root, query, criteriaBuilder));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<R> content = typedQuery.getResultList().stream().map(mapper).toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(domainClass, spec));
+    }
+
+    // Distinct on the id so filters joining to-many associations do not count a row twice
+    private <T> long count(Class<T> domainClass, Specification<T> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(criteriaBuilder.countDistinct(root));
+        query.orderBy(List.of());
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
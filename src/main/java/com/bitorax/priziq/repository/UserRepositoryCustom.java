@@ -0,0 +1,17 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.domain.User;
+import com.bitorax.priziq.dto.response.user.UserResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+    // Adds points to the totalPoints of many users in one JDBC batch
+    void addTotalPoints(Map<String, Integer> pointsByUserId);
+
+    // Profile columns only, the roles are left to findRolesByUserIds
+    Page<UserResponse> findResponses(Specification<User> spec, Pageable pageable);
+}
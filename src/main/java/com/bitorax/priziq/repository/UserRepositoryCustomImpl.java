@@ -0,0 +1,99 @@
+package com.bitorax.priziq.repository;
+
+import com.bitorax.priziq.domain.User;
+import com.bitorax.priziq.dto.response.user.UserResponse;
+import com.bitorax.priziq.dto.response.user.UserSecureResponse;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Selection;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.bitorax.priziq.repository.SpecificationProjectionExecutor.auditSelections;
+import static com.bitorax.priziq.repository.SpecificationProjectionExecutor.withAudit;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final String ADD_TOTAL_POINTS = "UPDATE users SET total_points = total_points + ? WHERE user_id = ?";
+
+    JdbcTemplate jdbcTemplate;
+    SpecificationProjectionExecutor specificationProjectionExecutor;
+
+    @Override
+    public void addTotalPoints(Map<String, Integer> pointsByUserId) {
+        List<Object[]> rows = pointsByUserId.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_TOTAL_POINTS, rows);
+        }
+    }
+
+    @Override
+    public Page<UserResponse> findResponses(Specification<User> spec, Pageable pageable) {
+        return specificationProjectionExecutor.findPage(User.class, spec, pageable,
+                (root, query, criteriaBuilder) -> profileColumns(root, ""), tuple -> toResponse(tuple, ""));
+    }
+
+    // Columns of UserResponse without the roles, reused where a user is embedded in another response
+    public static List<Selection<?>> profileColumns(Path<?> user, String aliasPrefix) {
+        List<Selection<?>> selections = new ArrayList<>(List.of(
+                user.get("userId").alias(aliasPrefix + "userId"),
+                user.get("email").alias(aliasPrefix + "email"),
+                user.get("firstName").alias(aliasPrefix + "firstName"),
+                user.get("lastName").alias(aliasPrefix + "lastName"),
+                user.get("nickname").alias(aliasPrefix + "nickname"),
+                user.get("phoneNumber").alias(aliasPrefix + "phoneNumber"),
+                user.get("avatar").alias(aliasPrefix + "avatar"),
+                user.get("birthDate").alias(aliasPrefix + "birthDate"),
+                user.get("gender").alias(aliasPrefix + "gender"),
+                user.get("nationality").alias(aliasPrefix + "nationality"),
+                user.get("isVerified").alias(aliasPrefix + "isVerified")));
+        selections.addAll(auditSelections(user, aliasPrefix));
+        return selections;
+    }
+
+    public static UserResponse toResponse(Tuple tuple, String aliasPrefix) {
+        return withAudit(UserResponse.builder()
+                .userId(tuple.get(aliasPrefix + "userId", String.class))
+                .email(tuple.get(aliasPrefix + "email", String.class))
+                .firstName(tuple.get(aliasPrefix + "firstName", String.class))
+                .lastName(tuple.get(aliasPrefix + "lastName", String.class))
+                .nickname(tuple.get(aliasPrefix + "nickname", String.class))
+                .phoneNumber(tuple.get(aliasPrefix + "phoneNumber", String.class))
+                .avatar(tuple.get(aliasPrefix + "avatar", String.class))
+                .birthDate(tuple.get(aliasPrefix + "birthDate", Instant.class))
+                .gender(tuple.get(aliasPrefix + "gender", String.class))
+                .nationality(tuple.get(aliasPrefix + "nationality", String.class))
+                .isVerified(tuple.get(aliasPrefix + "isVerified", Boolean.class))
+                .build(), tuple, aliasPrefix);
+    }
+
+    // The same columns for the responses shown to other users, the roles are filled in by the caller
+    public static UserSecureResponse toSecureResponse(Tuple tuple, String aliasPrefix) {
+        return withAudit(UserSecureResponse.builder()
+                .userId(tuple.get(aliasPrefix + "userId", String.class))
+                .email(tuple.get(aliasPrefix + "email", String.class))
+                .firstName(tuple.get(aliasPrefix + "firstName", String.class))
+                .lastName(tuple.get(aliasPrefix + "lastName", String.class))
+                .nickname(tuple.get(aliasPrefix + "nickname", String.class))
+                .phoneNumber(tuple.get(aliasPrefix + "phoneNumber", String.class))
+                .avatar(tuple.get(aliasPrefix + "avatar", String.class))
+                .birthDate(tuple.get(aliasPrefix + "birthDate", Instant.class))
+                .gender(tuple.get(aliasPrefix + "gender", String.class))
+                .nationality(tuple.get(aliasPrefix + "nationality", String.class))
+                .build(), tuple, aliasPrefix);
+    }
+}
@@ -11,6 +11,9 @@ import com.bitorax.priziq.dto.response.common.PaginationResponse;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.List;
+import java.util.Map;
+
 public interface AchievementService {
     AchievementSummaryResponse createAchievement(CreateAchievementRequest createAchievementRequest);
 
@@ -25,4 +28,6 @@ public interface AchievementService {
     PaginationResponse getMyAchievements(Specification<Achievement> spec, Pageable pageable);
 
     AchievementUpdateResponse assignAchievementsToUser(AssignAchievementToUserRequest request);
+
+    List<AchievementUpdateResponse> assignAchievementsToUsers(Map<String, Integer> pointsToAddByUserId);
 }
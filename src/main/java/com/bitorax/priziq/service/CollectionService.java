@@ -1,9 +1,11 @@
 package com.bitorax.priziq.service;
 
 import com.bitorax.priziq.domain.Collection;
+import com.bitorax.priziq.dto.cache.CollectionFeedCacheDTO;
 import com.bitorax.priziq.dto.request.collection.ActivityReorderRequest;
 import com.bitorax.priziq.dto.request.collection.CreateCollectionRequest;
 import com.bitorax.priziq.dto.request.collection.UpdateCollectionRequest;
+import com.bitorax.priziq.dto.response.collection.CollectionCopyJobResponse;
 import com.bitorax.priziq.dto.response.collection.CollectionDetailResponse;
 import com.bitorax.priziq.dto.response.collection.CollectionSummaryResponse;
 import com.bitorax.priziq.dto.response.collection.ReorderedActivityResponse;
@@ -25,11 +27,19 @@ public interface CollectionService {
 
     CollectionSummaryResponse updateCollectionById(String collectionId, UpdateCollectionRequest updateCollectionRequest);
 
-    void deleteCollectionById(String collectionId);
+    String deleteCollectionById(String collectionId);
+
+    void purgeCollection(String collectionId);
 
     List<ReorderedActivityResponse> reorderActivities(String collectionId, ActivityReorderRequest activityReorderRequest);
 
     CollectionSummaryResponse copyCollection(String collectionId);
 
-    Map<String, List<CollectionSummaryResponse>> getCollectionsGroupedByTopic(Pageable pageable);
+    CollectionCopyJobResponse startCollectionCopy(String collectionId);
+
+    CollectionCopyJobResponse getCollectionCopyJob(String jobId);
+
+    int copyActivityChunk(String sourceCollectionId, String targetCollectionId, String copiedBy, List<String> activityIds);
+
+    CollectionFeedCacheDTO getCollectionsGroupedByTopic(Pageable pageable);
 }
@@ -16,7 +16,5 @@ public interface SessionParticipantService {
 
     List<SessionParticipantSummaryResponse> findParticipantsBySessionCode(GetParticipantsRequest request);
 
-    List<SessionParticipantSummaryResponse> updateRealtimeScoreAndRanking(String sessionCode, String websocketSessionId, int responseScore);
-
     List<Map.Entry<String, AchievementUpdateResponse>> getAchievementUpdateDetails(List<AchievementUpdateResponse> achievementUpdates, String sessionId);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.bitorax.priziq.dto.request.session.CreateSessionRequest;
 import com.bitorax.priziq.dto.request.session.EndSessionRequest;
 import com.bitorax.priziq.dto.request.session.NextActivityRequest;
 import com.bitorax.priziq.dto.request.session.StartSessionRequest;
+import com.bitorax.priziq.dto.response.achievement.AchievementUpdateResponse;
 import com.bitorax.priziq.dto.response.activity.ActivityDetailResponse;
 import com.bitorax.priziq.dto.response.common.PaginationResponse;
 import com.bitorax.priziq.dto.response.session.*;
@@ -15,6 +16,7 @@ import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface SessionService {
     SessionDetailResponse createSession(CreateSessionRequest createSessionRequest);
@@ -27,6 +29,10 @@ public interface SessionService {
 
     SessionEndResultResponse endSession(EndSessionRequest endSessionRequest);
 
+    void endStaleSession(String sessionId);
+
+    List<AchievementUpdateResponse> awardSessionPoints(String sessionId, Consumer<List<AchievementUpdateResponse>> onAwarded);
+
     List<SessionEndSummaryResponse> calculateSessionSummary(String sessionId);
 
     String findSessionCodeBySessionId(String sessionId);
@@ -0,0 +1,143 @@
+package com.bitorax.priziq.service.cache;
+
+import com.bitorax.priziq.dto.cache.CollectionFeedCacheDTO;
+import com.bitorax.priziq.dto.response.collection.CollectionSummaryResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// The public grouped-by-topic feed, built once per page and version and kept in memory and in Redis.
+// Invalidation bumps a version in Redis: entries of older versions are never read again and expire on their own.
+// Other instances notice the new version when their in-memory copy is older than the local TTL
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CollectionFeedCache {
+    static String FEED_KEY_PREFIX = "collections:feed:";
+    static String VERSION_KEY = FEED_KEY_PREFIX + "version";
+
+    StringRedisTemplate stringRedisTemplate;
+    ObjectMapper objectMapper;
+
+    Map<String, LocalEntry> localEntries = new ConcurrentHashMap<>();
+
+    @NonFinal
+    @Value("${priziq.collection-feed.ttl-seconds}")
+    Long ttlSeconds;
+
+    @NonFinal
+    @Value("${priziq.collection-feed.local-ttl-ms}")
+    Long localTtlMs;
+
+    private record LocalEntry(String version, CollectionFeedCacheDTO feed, long checkedAt) {}
+
+    public CollectionFeedCacheDTO getFeed(Pageable pageable, Supplier<Map<String, List<CollectionSummaryResponse>>> loader) {
+        String pageKey = pageable.getPageNumber() + ":" + pageable.getPageSize();
+
+        LocalEntry localEntry = localEntries.get(pageKey);
+        long now = System.currentTimeMillis();
+        if (localEntry != null && now - localEntry.checkedAt() < localTtlMs) {
+            return localEntry.feed();
+        }
+
+        String version = currentVersion();
+        if (localEntry != null && localEntry.version().equals(version)) {
+            localEntries.put(pageKey, new LocalEntry(version, localEntry.feed(), now));
+            return localEntry.feed();
+        }
+
+        String redisKey = FEED_KEY_PREFIX + version + ":" + pageKey;
+        CollectionFeedCacheDTO feed = readFromRedis(redisKey);
+        if (feed == null) {
+            feed = build(loader.get());
+            writeToRedis(redisKey, feed);
+        }
+
+        localEntries.put(pageKey, new LocalEntry(version, feed, now));
+        return feed;
+    }
+
+    // Applied once the caller's transaction has committed, so a rebuild never reads the data being replaced
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow();
+                }
+            });
+        } else {
+            invalidateNow();
+        }
+    }
+
+    private void invalidateNow() {
+        localEntries.clear();
+        try {
+            stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+        } catch (Exception e) {
+            log.warn("Failed to invalidate the collection feed in Redis: {}", e.getMessage());
+        }
+    }
+
+    // The feed is still served from memory and the database while Redis is unavailable
+    private String currentVersion() {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+            return version != null ? version : "0";
+        } catch (Exception e) {
+            log.warn("Failed to read the collection feed version from Redis: {}", e.getMessage());
+            return "local";
+        }
+    }
+
+    private CollectionFeedCacheDTO readFromRedis(String redisKey) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(redisKey);
+            return json != null ? objectMapper.readValue(json, CollectionFeedCacheDTO.class) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read the collection feed from Redis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToRedis(String redisKey, CollectionFeedCacheDTO feed) {
+        try {
+            stringRedisTemplate.opsForValue().set(redisKey, objectMapper.writeValueAsString(feed), Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("Failed to write the collection feed to Redis: {}", e.getMessage());
+        }
+    }
+
+    // The ETag is derived from the content, so every instance hands out the same one for the same feed
+    private CollectionFeedCacheDTO build(Map<String, List<CollectionSummaryResponse>> groups) {
+        try {
+            byte[] content = objectMapper.writeValueAsString(groups).getBytes(StandardCharsets.UTF_8);
+            return CollectionFeedCacheDTO.builder()
+                    .etag("\"" + DigestUtils.md5DigestAsHex(content) + "\"")
+                    .groups(groups)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the collection feed", e);
+        }
+    }
+}
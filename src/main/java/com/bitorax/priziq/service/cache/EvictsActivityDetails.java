@@ -0,0 +1,21 @@
+package com.bitorax.priziq.service.cache;
+
+import com.bitorax.priziq.constant.CacheNames;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// For methods changing an activity whose id is their first parameter (activity, quiz and slide share it).
+// Evicts the activity and the collection embedding it once the method returns
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Caching(evict = {
+        @CacheEvict(cacheNames = CacheNames.ACTIVITY_DETAILS, key = "#p0"),
+        @CacheEvict(cacheNames = CacheNames.COLLECTION_DETAILS, key = "@activityUtils.findCollectionIdByActivityId(#p0)")
+})
+public @interface EvictsActivityDetails {
+}
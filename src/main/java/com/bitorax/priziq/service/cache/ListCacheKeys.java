@@ -0,0 +1,35 @@
+package com.bitorax.priziq.service.cache;
+
+import com.turkraft.springfilter.converter.FilterSpecification;
+import com.turkraft.springfilter.converter.FilterStringConverter;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+// Cache keys of paginated list queries, used from cache annotations: the filter in its canonical form,
+// hashed to bound the key length, followed by the page, its size and its sort
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ListCacheKeys {
+    FilterStringConverter filterStringConverter;
+
+    // Only the filters parsed from a request query can be written back as text, other specifications are not cached
+    public boolean isCacheable(Specification<?> spec) {
+        return spec == null || spec instanceof FilterSpecification<?>;
+    }
+
+    public String of(Specification<?> spec, Pageable pageable) {
+        String filter = spec instanceof FilterSpecification<?> filterSpecification
+                ? filterStringConverter.convert(filterSpecification.getFilter())
+                : "";
+        return DigestUtils.md5DigestAsHex(filter.getBytes(StandardCharsets.UTF_8))
+                + ":" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+    }
+}
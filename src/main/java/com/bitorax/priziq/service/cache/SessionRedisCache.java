@@ -8,6 +8,9 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -46,12 +49,15 @@ public class SessionRedisCache {
         return cacheUtils.getCachedList(SESSION_CACHE_PREFIX + sessionId + ACTIVITIES_KEY_SUFFIX, ActivityCacheDTO.class);
     }
 
+    // Participants are stored as a hash keyed by participant id so one participant can change without rewriting the rest
     public void cacheParticipants(String sessionId, List<ParticipantCacheDTO> participants) {
-        cacheUtils.cacheList(SESSION_CACHE_PREFIX + sessionId + PARTICIPANTS_KEY_SUFFIX, participants, CACHE_TTL_HOURS);
+        Map<String, ParticipantCacheDTO> entries = participants.stream()
+                .collect(Collectors.toMap(ParticipantCacheDTO::getSessionParticipantId, Function.identity()));
+        cacheUtils.cacheHashEntries(SESSION_CACHE_PREFIX + sessionId + PARTICIPANTS_KEY_SUFFIX, entries, CACHE_TTL_HOURS);
     }
 
     public List<ParticipantCacheDTO> getCachedParticipants(String sessionId) {
-        return cacheUtils.getCachedList(SESSION_CACHE_PREFIX + sessionId + PARTICIPANTS_KEY_SUFFIX, ParticipantCacheDTO.class);
+        return cacheUtils.getCachedHashValues(SESSION_CACHE_PREFIX + sessionId + PARTICIPANTS_KEY_SUFFIX, ParticipantCacheDTO.class);
     }
 
     public void cacheSubmissions(String sessionId, List<SubmissionCacheDTO> submissions) {
@@ -62,16 +68,22 @@ public class SessionRedisCache {
         return cacheUtils.getCachedList(SESSION_CACHE_PREFIX + sessionId + SUBMISSIONS_KEY_SUFFIX, SubmissionCacheDTO.class);
     }
 
-    public void updateParticipantScoreAndRanking(String sessionId, String participantId, int score, int ranking) {
-        List<ParticipantCacheDTO> participants = getCachedParticipants(sessionId);
-        participants.stream()
-                .filter(p -> p.getSessionParticipantId().equals(participantId))
-                .findFirst()
-                .ifPresent(p -> {
-                    p.setRealtimeScore(score);
-                    p.setRealtimeRanking(ranking);
-                });
-        cacheUtils.cacheList(SESSION_CACHE_PREFIX + sessionId + PARTICIPANTS_KEY_SUFFIX, participants, CACHE_TTL_HOURS);
+    public void appendSubmissions(String sessionId, List<SubmissionCacheDTO> submissions) {
+        cacheUtils.appendToList(SESSION_CACHE_PREFIX + sessionId + SUBMISSIONS_KEY_SUFFIX, submissions, CACHE_TTL_HOURS);
+    }
+
+    // Reads up to count pending submissions from offset without removing them
+    public List<SubmissionCacheDTO> getSubmissions(String sessionId, long offset, long count) {
+        return cacheUtils.getListRange(SESSION_CACHE_PREFIX + sessionId + SUBMISSIONS_KEY_SUFFIX, offset, count, SubmissionCacheDTO.class);
+    }
+
+    // Removes the count oldest pending submissions once they are persisted
+    public void removeSubmissions(String sessionId, long count) {
+        cacheUtils.trimListHead(SESSION_CACHE_PREFIX + sessionId + SUBMISSIONS_KEY_SUFFIX, count);
+    }
+
+    public void updateParticipants(String sessionId, List<ParticipantCacheDTO> participants) {
+        cacheParticipants(sessionId, participants);
     }
 
     public void removeCachedSession(String sessionId) {
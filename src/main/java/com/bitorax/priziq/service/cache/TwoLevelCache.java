@@ -0,0 +1,206 @@
+package com.bitorax.priziq.service.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// L1 is a bounded Caffeine cache of this instance, L2 is Redis, shared by every instance.
+// Values are stored in Redis as JSON together with their class. Keys are the ids of the cached responses.
+// A failing Redis only costs the L2 hits, reads fall back to L1 and the database
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+    private static final String KEY_PREFIX = "cache:";
+    // Only response DTOs are read back from Redis
+    private static final String CACHEABLE_PACKAGE = "com.bitorax.priziq.dto.";
+
+    String name;
+    Cache<String, Object> localCache;
+    StringRedisTemplate stringRedisTemplate;
+    ObjectMapper objectMapper;
+    Duration remoteTtl;
+    // Tells the other instances to drop a key, or the whole cache when given null
+    Consumer<String> invalidationPublisher;
+
+    LongAdder localHits = new LongAdder();
+    LongAdder remoteHits = new LongAdder();
+    LongAdder misses = new LongAdder();
+    LongAdder puts = new LongAdder();
+
+    private record RemoteEntry(String type, JsonNode value) {}
+
+    public TwoLevelCache(String name, Cache<String, Object> localCache, StringRedisTemplate stringRedisTemplate,
+                         ObjectMapper objectMapper, Duration remoteTtl, Consumer<String> invalidationPublisher) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.remoteTtl = remoteTtl;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = String.valueOf(key);
+        Object value = localCache.getIfPresent(cacheKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+
+        value = readRemote(cacheKey);
+        if (value != null) {
+            remoteHits.increment();
+            localCache.put(cacheKey, value);
+            return value;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = String.valueOf(key);
+        Object storeValue = toStoreValue(value);
+        localCache.put(cacheKey, storeValue);
+        writeRemote(cacheKey, storeValue);
+        puts.increment();
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = String.valueOf(key);
+        localCache.invalidate(cacheKey);
+        try {
+            stringRedisTemplate.delete(remoteKey(cacheKey));
+        } catch (Exception e) {
+            log.warn("Failed to evict {} from cache {} in Redis: {}", cacheKey, name, e.getMessage());
+        }
+        invalidationPublisher.accept(cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        localCache.invalidateAll();
+        try (Cursor<String> keys = stringRedisTemplate.scan(ScanOptions.scanOptions().match(remoteKey("*")).count(500).build())) {
+            List<String> remoteKeys = new ArrayList<>();
+            keys.forEachRemaining(remoteKeys::add);
+            if (!remoteKeys.isEmpty()) {
+                stringRedisTemplate.delete(remoteKeys);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to clear cache {} in Redis: {}", name, e.getMessage());
+        }
+        invalidationPublisher.accept(null);
+    }
+
+    // Applied on invalidations received from another instance, Redis was already updated by the sender
+    public void evictLocal(String key) {
+        if (key != null) {
+            localCache.invalidate(key);
+        } else {
+            localCache.invalidateAll();
+        }
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    // Entries dropped from L1 by its size bound or TTL
+    public long getLocalEvictions() {
+        return localCache.stats().evictionCount();
+    }
+
+    public long getLocalSize() {
+        return localCache.estimatedSize();
+    }
+
+    private Object readRemote(String cacheKey) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(remoteKey(cacheKey));
+            if (json == null) {
+                return null;
+            }
+
+            RemoteEntry entry = objectMapper.readValue(json, RemoteEntry.class);
+            if (!entry.type().startsWith(CACHEABLE_PACKAGE)) {
+                log.warn("Ignoring cached value of unexpected type {} in cache {}", entry.type(), name);
+                return null;
+            }
+            return objectMapper.treeToValue(entry.value(), Class.forName(entry.type()));
+        } catch (Exception e) {
+            log.warn("Failed to read {} from cache {} in Redis: {}", cacheKey, name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(String cacheKey, Object value) {
+        try {
+            RemoteEntry entry = new RemoteEntry(value.getClass().getName(), objectMapper.valueToTree(value));
+            stringRedisTemplate.opsForValue().set(remoteKey(cacheKey), objectMapper.writeValueAsString(entry), remoteTtl);
+        } catch (Exception e) {
+            log.warn("Failed to write {} to cache {} in Redis: {}", cacheKey, name, e.getMessage());
+        }
+    }
+
+    private String remoteKey(String cacheKey) {
+        return KEY_PREFIX + name + ":" + cacheKey;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bitorax.priziq.service.cache;
+
+import com.bitorax.priziq.constant.CacheNames;
+import com.bitorax.priziq.dto.cache.CacheInvalidationCacheDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Creates the caches listed in CacheNames and keeps the L1 copies of all instances in step:
+// every eviction is published on the invalidation channel and applied by the other instances
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+    StringRedisTemplate stringRedisTemplate;
+    ObjectMapper objectMapper;
+    String invalidationChannel;
+    long localMaxSize;
+    Duration localTtl;
+    Duration remoteTtl;
+
+    String nodeId = UUID.randomUUID().toString();
+    Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    @Override
+    protected List<TwoLevelCache> loadCaches() {
+        return Arrays.stream(CacheNames.ALL).map(this::createCache).toList();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationCacheDTO invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationCacheDTO.class);
+            if (nodeId.equals(invalidation.getNodeId())) {
+                return;
+            }
+
+            TwoLevelCache cache = twoLevelCaches.get(invalidation.getCacheName());
+            if (cache != null) {
+                cache.evictLocal(invalidation.getKey());
+            }
+        } catch (Exception e) {
+            log.error("Failed to apply cache invalidation: {}", e.getMessage(), e);
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache<String, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+
+        TwoLevelCache cache = new TwoLevelCache(name, localCache, stringRedisTemplate, objectMapper, remoteTtl,
+                key -> publishInvalidation(name, key));
+        twoLevelCaches.put(name, cache);
+        return cache;
+    }
+
+    // Instances that miss the message still drop the entry when its L1 TTL runs out
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, objectMapper.writeValueAsString(CacheInvalidationCacheDTO.builder()
+                    .nodeId(nodeId)
+                    .cacheName(cacheName)
+                    .key(key)
+                    .build()));
+        } catch (Exception e) {
+            log.warn("Failed to publish invalidation of cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
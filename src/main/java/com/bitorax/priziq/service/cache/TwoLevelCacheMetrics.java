@@ -0,0 +1,63 @@
+package com.bitorax.priziq.service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+// Standard cache.gets/puts/evictions/size meters, plus the hits of each level
+public class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalSize() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalHits() + cache.getRemoteHits() : 0;
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getMisses() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalEvictions() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getPuts() : 0;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        if (cache == null) {
+            return;
+        }
+
+        FunctionCounter.builder("cache.level.hits", cache, TwoLevelCache::getLocalHits)
+                .tags(getTagsWithCacheName())
+                .tag("level", "local")
+                .description("The number of reads served by the in-process cache")
+                .register(registry);
+        FunctionCounter.builder("cache.level.hits", cache, TwoLevelCache::getRemoteHits)
+                .tags(getTagsWithCacheName())
+                .tag("level", "redis")
+                .description("The number of reads served by Redis after missing the in-process cache")
+                .register(registry);
+    }
+}
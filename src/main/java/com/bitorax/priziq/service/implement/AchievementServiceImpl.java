@@ -1,5 +1,6 @@
 package com.bitorax.priziq.service.implement;
 
+import com.bitorax.priziq.constant.CacheNames;
 import com.bitorax.priziq.domain.Achievement;
 import com.bitorax.priziq.domain.Collection;
 import com.bitorax.priziq.domain.User;
@@ -24,13 +25,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,6 +46,7 @@ public class AchievementServiceImpl implements AchievementService {
     AchievementMapper achievementMapper;
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.ACHIEVEMENT_LISTS, allEntries = true)
     public AchievementSummaryResponse createAchievement(CreateAchievementRequest createAchievementRequest) {
         // Validate and normalize name
         String normalizedName = validateAndNormalizeAchievementName(createAchievementRequest.getName(), null);
@@ -54,6 +58,10 @@ public class AchievementServiceImpl implements AchievementService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.ACHIEVEMENT_DETAILS, key = "#achievementId"),
+            @CacheEvict(cacheNames = CacheNames.ACHIEVEMENT_LISTS, allEntries = true)
+    })
     public AchievementSummaryResponse updateAchievementById(String achievementId, UpdateAchievementRequest updateAchievementRequest) {
         Achievement currentAchievement = achievementRepository.findById(achievementId)
                 .orElseThrow(() -> new ApplicationException(ErrorCode.ACHIEVEMENT_NOT_FOUND));
@@ -69,6 +77,7 @@ public class AchievementServiceImpl implements AchievementService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.ACHIEVEMENT_DETAILS, key = "#achievementId")
     public AchievementDetailResponse getAchievementById(String achievementId) {
         return achievementMapper.achievementToDetailResponse(achievementRepository
                 .findById(achievementId).orElseThrow(() -> new ApplicationException(ErrorCode.ACHIEVEMENT_NOT_FOUND)));
@@ -89,9 +98,13 @@ public class AchievementServiceImpl implements AchievementService {
         return getAllAchievementsWithQuery(finalSpec, pageable);
     }
 
+    // The public list. Achievements assigned to users do not change it, only the achievements themselves do.
+    // getMyAchievements calls it on this instance, so the per-user lists are never cached
     @Override
+    @Cacheable(cacheNames = CacheNames.ACHIEVEMENT_LISTS, key = "@listCacheKeys.of(#spec, #pageable)",
+            condition = "@listCacheKeys.isCacheable(#spec)")
     public PaginationResponse getAllAchievementsWithQuery(Specification<Achievement> spec, Pageable pageable) {
-        Page<Achievement> achievementPage = achievementRepository.findAll(spec, pageable);
+        Page<AchievementSummaryResponse> achievementPage = achievementRepository.findSummaries(spec, pageable);
         return PaginationResponse.builder()
                 .meta(PaginationMeta.builder()
                         .currentPage(pageable.getPageNumber() + 1)
@@ -101,11 +114,15 @@ public class AchievementServiceImpl implements AchievementService {
                         .hasNext(achievementPage.hasNext())
                         .hasPrevious(achievementPage.hasPrevious())
                         .build())
-                .content(achievementMapper.achievementsToSummaryResponseList(achievementPage.getContent()))
+                .content(achievementPage.getContent())
                 .build();
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.ACHIEVEMENT_DETAILS, key = "#achievementId"),
+            @CacheEvict(cacheNames = CacheNames.ACHIEVEMENT_LISTS, allEntries = true)
+    })
     public void deleteAchievementById(String achievementId) {
         Achievement currentAchievement = achievementRepository
                 .findById(achievementId).orElseThrow(() -> new ApplicationException(ErrorCode.ACHIEVEMENT_NOT_FOUND));
@@ -113,6 +130,7 @@ public class AchievementServiceImpl implements AchievementService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.ACHIEVEMENT_DETAILS, allEntries = true)
     public AchievementUpdateResponse assignAchievementsToUser(AssignAchievementToUserRequest request) {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ApplicationException(ErrorCode.USER_NOT_FOUND));
@@ -144,17 +162,92 @@ public class AchievementServiceImpl implements AchievementService {
                 .userId(user.getUserId())
                 .totalPoints(user.getTotalPoints())
                 .newAchievements(achievementsToAdd.stream()
-                        .map(achievement -> AchievementSummaryResponse.builder()
-                                .achievementId(achievement.getAchievementId())
-                                .name(achievement.getName())
-                                .description(achievement.getDescription())
-                                .iconUrl(achievement.getIconUrl())
-                                .requiredPoints(achievement.getRequiredPoints())
-                                .build())
+                        .map(this::toNewAchievementResponse)
                         .collect(Collectors.toList()))
                 .build();
     }
 
+    // Evaluates every user of an ended session together: the thresholds are loaded and sorted once and each new total
+    // is binary searched, then the points and the new achievement_users rows are written in one batch each
+    @Override
+    @CacheEvict(cacheNames = CacheNames.ACHIEVEMENT_DETAILS, allEntries = true)
+    public List<AchievementUpdateResponse> assignAchievementsToUsers(Map<String, Integer> pointsToAddByUserId) {
+        if (pointsToAddByUserId.isEmpty()) {
+            return List.of();
+        }
+
+        List<User> users = userRepository.findAllById(pointsToAddByUserId.keySet());
+        if (users.size() < pointsToAddByUserId.size()) {
+            log.warn("{} of {} users do not exist, skipping their achievement update", pointsToAddByUserId.size() - users.size(), pointsToAddByUserId.size());
+        }
+
+        List<Achievement> achievements = achievementRepository.findAllByOrderByRequiredPointsAsc().stream()
+                .filter(achievement -> achievement.getRequiredPoints() != null)
+                .toList();
+        int[] thresholds = achievements.stream().mapToInt(Achievement::getRequiredPoints).toArray();
+
+        Map<String, Set<String>> heldAchievementIdsByUserId = new HashMap<>();
+        for (Object[] row : achievementRepository.findAchievementIdsByUserIds(pointsToAddByUserId.keySet())) {
+            heldAchievementIdsByUserId.computeIfAbsent((String) row[0], userId -> new HashSet<>()).add((String) row[1]);
+        }
+
+        Map<String, Integer> pointsByUserId = new HashMap<>();
+        Map<String, Set<String>> newUserIdsByAchievementId = new HashMap<>();
+        List<AchievementUpdateResponse> updates = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            String userId = user.getUserId();
+            int pointsToAdd = pointsToAddByUserId.get(userId);
+            int totalPoints = (user.getTotalPoints() != null ? user.getTotalPoints() : 0) + pointsToAdd;
+            pointsByUserId.put(userId, pointsToAdd);
+
+            Set<String> heldAchievementIds = heldAchievementIdsByUserId.getOrDefault(userId, Set.of());
+            List<AchievementSummaryResponse> newAchievements = new ArrayList<>();
+            for (int i = 0, reached = countReachedThresholds(thresholds, totalPoints); i < reached; i++) {
+                Achievement achievement = achievements.get(i);
+                if (!heldAchievementIds.contains(achievement.getAchievementId())) {
+                    newUserIdsByAchievementId.computeIfAbsent(achievement.getAchievementId(), achievementId -> new HashSet<>()).add(userId);
+                    newAchievements.add(toNewAchievementResponse(achievement));
+                }
+            }
+
+            updates.add(AchievementUpdateResponse.builder()
+                    .userId(userId)
+                    .totalPoints(totalPoints)
+                    .newAchievements(newAchievements)
+                    .build());
+        }
+
+        userRepository.addTotalPoints(pointsByUserId);
+        achievementRepository.insertAchievementUsers(newUserIdsByAchievementId);
+        return updates;
+    }
+
+    private AchievementSummaryResponse toNewAchievementResponse(Achievement achievement) {
+        return AchievementSummaryResponse.builder()
+                .achievementId(achievement.getAchievementId())
+                .name(achievement.getName())
+                .description(achievement.getDescription())
+                .iconUrl(achievement.getIconUrl())
+                .requiredPoints(achievement.getRequiredPoints())
+                .build();
+    }
+
+    // Number of ascending thresholds less than or equal to totalPoints
+    private static int countReachedThresholds(int[] thresholds, int totalPoints) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= totalPoints) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     private String validateAndNormalizeAchievementName(String name, String excludeAchievementId) {
         if (name == null || name.trim().isEmpty()) {
             throw new ApplicationException(ErrorCode.ACHIEVEMENT_NAME_NOT_BLANK);
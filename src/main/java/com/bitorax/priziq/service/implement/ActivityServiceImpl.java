@@ -1,6 +1,7 @@
 package com.bitorax.priziq.service.implement;
 
 import com.bitorax.priziq.constant.ActivityType;
+import com.bitorax.priziq.constant.CacheNames;
 import com.bitorax.priziq.constant.PointType;
 import com.bitorax.priziq.constant.SlideElementType;
 import com.bitorax.priziq.domain.activity.Activity;
@@ -26,6 +27,8 @@ import com.bitorax.priziq.exception.ErrorCode;
 import com.bitorax.priziq.mapper.ActivityMapper;
 import com.bitorax.priziq.repository.*;
 import com.bitorax.priziq.service.ActivityService;
+import com.bitorax.priziq.service.cache.CollectionFeedCache;
+import com.bitorax.priziq.service.cache.EvictsActivityDetails;
 import com.bitorax.priziq.utils.ActivityUtils;
 import com.nimbusds.jose.util.Pair;
 import jakarta.transaction.Transactional;
@@ -36,6 +39,9 @@ import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -50,6 +56,8 @@ import java.util.Set;
 public class ActivityServiceImpl implements ActivityService {
     ActivityRepository activityRepository;
     CollectionRepository collectionRepository;
+    CollectionFeedCache collectionFeedCache;
+    CacheManager cacheManager;
     QuizRepository quizRepository;
     SlideRepository slideRepository;
     SlideElementRepository slideElementRepository;
@@ -75,6 +83,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.COLLECTION_DETAILS, key = "#createActivityRequest.collectionId")
     public ActivitySummaryResponse createActivity(CreateActivityRequest createActivityRequest) {
         Collection currentCollection = collectionRepository
                 .findById(createActivityRequest.getCollectionId())
@@ -96,6 +105,11 @@ public class ActivityServiceImpl implements ActivityService {
 
         Activity savedActivity = activityRepository.save(activity);
 
+        // The public feed shows the activity count of published collections
+        if (Boolean.TRUE.equals(currentCollection.getIsPublished())) {
+            collectionFeedCache.invalidate();
+        }
+
         if (savedActivity.getActivityType() == ActivityType.INFO_SLIDE) {
             Slide slide = Slide.builder()
                     .slideId(savedActivity.getActivityId())
@@ -125,6 +139,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public QuizResponse updateQuiz(String activityId, UpdateQuizRequest updateQuizRequest) {
         activityUtils.validateActivityOwnership(activityId);
 
@@ -208,15 +223,24 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.ACTIVITY_DETAILS, key = "#activityId")
     public void deleteActivity(String activityId) {
         activityUtils.validateActivityOwnership(activityId);
         Activity activity = activityRepository.findById(activityId).orElseThrow(() -> new ApplicationException(ErrorCode.ACTIVITY_NOT_FOUND));
         activitySubmissionRepository.deleteByActivityActivityId(activityId);
         activityRepository.delete(activity);
+
+        // Evicted here, the collection of the activity can no longer be looked up once the method returns.
+        // Inside the transaction the eviction is applied once it commits
+        Objects.requireNonNull(cacheManager.getCache(CacheNames.COLLECTION_DETAILS)).evict(activity.getCollection().getCollectionId());
+        if (Boolean.TRUE.equals(activity.getCollection().getIsPublished())) {
+            collectionFeedCache.invalidate();
+        }
     }
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public SlideResponse updateSlide(String slideId, UpdateSlideRequest updateSlideRequest) {
         activityUtils.validateActivityOwnership(slideId);
         Slide slide = activityUtils.getSlideById(slideId);
@@ -230,6 +254,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public SlideElementResponse addSlideElement(String slideId, CreateSlideElementRequest createSlideElementRequest) {
         activityUtils.validateActivityOwnership(slideId);
 
@@ -244,6 +269,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public SlideElementResponse updateSlideElement(String slideId, String elementId, UpdateSlideElementRequest updateSlideElementRequest) {
         SlideElement slideElement = activityUtils.validateAndGetSlideElement(slideId, elementId);
 
@@ -256,6 +282,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public void deleteSlideElement(String slideId, String elementId) {
         SlideElement slideElement = activityUtils.validateAndGetSlideElement(slideId, elementId);
         slideElementRepository.delete(slideElement);
@@ -263,6 +290,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public ActivitySummaryResponse updateActivity(String activityId, UpdateActivityRequest request) {
         activityUtils.validateActivityOwnership(activityId);
         Activity activity = activityRepository.findById(activityId).orElseThrow(() -> new ApplicationException(ErrorCode.ACTIVITY_NOT_FOUND));
@@ -305,14 +333,18 @@ public class ActivityServiceImpl implements ActivityService {
     }
 
     @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheNames.ACTIVITY_DETAILS, key = "#activityId")
     public ActivityDetailResponse getActivityById(String activityId){
-        Activity currentActivity = activityRepository.findById(activityId).orElseThrow(() -> new ApplicationException(ErrorCode.ACTIVITY_NOT_FOUND));
+        Activity currentActivity = activityRepository.findWithContentByActivityId(activityId).orElseThrow(() -> new ApplicationException(ErrorCode.ACTIVITY_NOT_FOUND));
+        activityUtils.fetchActivityContents(List.of(currentActivity));
         return activityMapper.activityToDetailResponse(currentActivity);
     }
 
     // Quiz matching pairs (logic item, connection)
     @Override
     @Transactional
+    @EvictsActivityDetails
     public QuizMatchingPairAnswerResponse addMatchingPairItem(String quizId) {
         Quiz quiz = activityUtils.validateMatchingPairQuiz(quizId);
 
@@ -356,6 +388,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public QuizMatchingPairAnswerResponse updateAndReorderMatchingPairItem(String quizId, String itemId, UpdateAndReorderMatchingPairItemRequest request) {
         // Check quiz matching pair item and get item
         Pair<Quiz, QuizMatchingPairItem> validated = validateQuizAndItem(quizId, itemId);
@@ -432,6 +465,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public void deleteMatchingPairItem(String quizId, String itemId) {
         Pair<Quiz, QuizMatchingPairItem> validated = validateQuizAndItem(quizId, itemId);
         QuizMatchingPairItem item = validated.getRight();
@@ -450,6 +484,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public QuizMatchingPairConnectionResponse addMatchingPairConnection(String quizId, CreateMatchingPairConnectionRequest request) {
         Quiz quiz = activityUtils.validateMatchingPairQuiz(quizId);
         QuizMatchingPairAnswer answer = quiz.getQuizMatchingPairAnswer();
@@ -488,6 +523,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     @Transactional
+    @EvictsActivityDetails
     public void deleteMatchingPairConnection(String quizId, String connectionId) {
         Quiz quiz = activityUtils.validateMatchingPairQuiz(quizId);
 
@@ -568,6 +604,7 @@ public class ActivityServiceImpl implements ActivityService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.COLLECTION_DETAILS, key = "#collectionId")
     public void createDefaultQuizButtonsActivity(String collectionId) {
         CreateActivityRequest request = CreateActivityRequest.builder()
                 .collectionId(collectionId)
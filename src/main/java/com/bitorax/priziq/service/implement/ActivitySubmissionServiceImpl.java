@@ -2,19 +2,18 @@ package com.bitorax.priziq.service.implement;
 
 import com.bitorax.priziq.constant.ActivityType;
 import com.bitorax.priziq.constant.PointType;
-import com.bitorax.priziq.domain.activity.Activity;
-import com.bitorax.priziq.domain.activity.quiz.*;
-import com.bitorax.priziq.domain.session.ActivitySubmission;
-import com.bitorax.priziq.domain.session.Session;
-import com.bitorax.priziq.domain.session.SessionParticipant;
+import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
+import com.bitorax.priziq.dto.cache.SubmissionCacheDTO;
 import com.bitorax.priziq.dto.request.session.activity_submission.CreateActivitySubmissionRequest;
 import com.bitorax.priziq.dto.response.session.ActivitySubmissionSummaryResponse;
 import com.bitorax.priziq.exception.ApplicationException;
 import com.bitorax.priziq.exception.ErrorCode;
-import com.bitorax.priziq.mapper.ActivitySubmissionMapper;
-import com.bitorax.priziq.repository.*;
+import com.bitorax.priziq.mapper.cache.SubmissionCacheMapper;
 import com.bitorax.priziq.service.ActivitySubmissionService;
-import jakarta.transaction.Transactional;
+import com.bitorax.priziq.service.live.CompiledAnswerKey;
+import com.bitorax.priziq.service.live.LiveSession;
+import com.bitorax.priziq.service.live.LiveSessionRegistry;
+import com.bitorax.priziq.service.live.LiveSubmissionPipeline;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -23,19 +22,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ActivitySubmissionServiceImpl implements ActivitySubmissionService {
-    ActivitySubmissionRepository activitySubmissionRepository;
-    ActivityRepository activityRepository;
-    SessionRepository sessionRepository;
-    SessionParticipantRepository sessionParticipantRepository;
-    ActivitySubmissionMapper activitySubmissionMapper;
+    SubmissionCacheMapper submissionCacheMapper;
+    LiveSessionRegistry liveSessionRegistry;
+    LiveSubmissionPipeline liveSubmissionPipeline;
 
     @NonFinal
     @Value("${priziq.submission.base-score}")
@@ -49,35 +46,31 @@ public class ActivitySubmissionServiceImpl implements ActivitySubmissionService
     private record QuizResult(boolean isCorrect, int responseScore) {}
 
     @Override
-    @Transactional
     public ActivitySubmissionSummaryResponse createActivitySubmission(CreateActivitySubmissionRequest request, String websocketSessionId) {
-        // Validate entities
-        Session session = sessionRepository.findBySessionCode(request.getSessionCode())
-                .orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_NOT_FOUND));
-        Activity activity = activityRepository.findById(request.getActivityId())
-                .orElseThrow(() -> new ApplicationException(ErrorCode.ACTIVITY_NOT_FOUND));
-        SessionParticipant sessionParticipant = sessionParticipantRepository
-                .findBySessionAndWebsocketSessionId(session, websocketSessionId)
+        // Validate entities, the session and its participants are served from the live session
+        LiveSession liveSession = liveSessionRegistry.getOrLoad(request.getSessionCode());
+        if (!liveSession.hasActivity(request.getActivityId())) {
+            throw new ApplicationException(ErrorCode.ACTIVITY_NOT_FOUND);
+        }
+        ParticipantCacheDTO sessionParticipant = liveSession.findByWebsocketSessionId(websocketSessionId)
                 .orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_PARTICIPANT_NOT_FOUND));
 
-        // Check if activity is a quiz
-        Quiz quiz = activity.getQuiz();
-        if (quiz == null) {
-            throw new ApplicationException(ErrorCode.ACTIVITY_NOT_QUIZ_TYPE);
-        }
+        // Check if activity is a quiz, its answer key was compiled when the session started
+        CompiledAnswerKey answerKey = liveSession.findAnswerKey(request.getActivityId())
+                .orElseThrow(() -> new ApplicationException(ErrorCode.ACTIVITY_NOT_QUIZ_TYPE));
 
         // Determine isCorrect and score based on activityType
         boolean isCorrect;
         int responseScore;
-        ActivityType activityType = activity.getActivityType();
+        ActivityType activityType = answerKey.getActivityType();
 
         QuizResult result = switch (activityType) {
-            case QUIZ_BUTTONS, QUIZ_TRUE_OR_FALSE -> processQuizButtonsOrTrueFalse(request, quiz);
-            case QUIZ_CHECKBOXES -> processQuizCheckboxes(request, quiz);
-            case QUIZ_TYPE_ANSWER -> processQuizTypeAnswer(request, quiz);
-            case QUIZ_REORDER -> processQuizReorder(request, quiz);
-            case QUIZ_LOCATION -> processQuizLocation(request, quiz);
-            case QUIZ_MATCHING_PAIRS -> processQuizMatchingPairs(request, quiz);
+            case QUIZ_BUTTONS, QUIZ_TRUE_OR_FALSE -> processQuizButtonsOrTrueFalse(request, answerKey);
+            case QUIZ_CHECKBOXES -> processQuizCheckboxes(request, answerKey);
+            case QUIZ_TYPE_ANSWER -> processQuizTypeAnswer(request, answerKey);
+            case QUIZ_REORDER -> processQuizReorder(request, answerKey);
+            case QUIZ_LOCATION -> processQuizLocation(request, answerKey);
+            case QUIZ_MATCHING_PAIRS -> processQuizMatchingPairs(request, answerKey);
             default -> throw new ApplicationException(ErrorCode.INVALID_ACTIVITY_TYPE);
         };
 
@@ -85,7 +78,7 @@ public class ActivitySubmissionServiceImpl implements ActivitySubmissionService
         responseScore = result.responseScore();
 
         // Adjust score based on PointType
-        PointType pointType = quiz.getPointType();
+        PointType pointType = answerKey.getPointType();
         switch (pointType) {
             case NO_POINTS:
                 responseScore = 0;
@@ -98,37 +91,41 @@ public class ActivitySubmissionServiceImpl implements ActivitySubmissionService
                 break;
         }
 
-        // Create and save ActivitySubmission to get createdAt
-        ActivitySubmission submission = ActivitySubmission.builder()
-                .sessionParticipant(sessionParticipant)
-                .activity(activity)
+        // Adjust the score based on response time if correct and not NO_POINTS
+        boolean ranked = isCorrect && pointType != PointType.NO_POINTS;
+        if (ranked) {
+            // Arrival order among correct answers to this activity, claimed atomically
+            int rank = liveSession.nextCorrectSubmissionRank(request.getActivityId());
+
+            // Fastest gets a full score, others get decremented
+            responseScore = Math.max(0, responseScore - (rank * timeDecrement));
+        }
+
+        // Applied to the leaderboard with the next micro-batch and written to the database at the next activity boundary
+        // The id is returned to the submitter now and becomes the id of the row written later
+        SubmissionCacheDTO submission = SubmissionCacheDTO.builder()
+                .activitySubmissionId(UUID.randomUUID().toString())
+                .sessionParticipantId(sessionParticipant.getSessionParticipantId())
+                .activityId(answerKey.getActivityId())
                 .answerContent(request.getAnswerContent())
                 .isCorrect(isCorrect)
                 .responseScore(responseScore)
+                .submittedAt(Instant.now())
                 .build();
-
-        ActivitySubmission savedSubmission = activitySubmissionRepository.save(submission);
-
-        // Adjust the score based on response time if correct and not NO_POINTS
-        if (isCorrect && pointType != PointType.NO_POINTS) {
-            List<ActivitySubmission> correctSubmissions = activitySubmissionRepository
-                    .findBySessionParticipant_Session_SessionIdAndActivity_ActivityIdAndIsCorrect(
-                            session.getSessionId(), request.getActivityId(), true);
-
-            // Sort by createdAt (earliest first) and find the index of the current submission
-            correctSubmissions.sort(Comparator.comparing(ActivitySubmission::getCreatedAt));
-            int rank = correctSubmissions.indexOf(savedSubmission);
-
-            // Fastest gets a full score, others get decremented and update submission with a new score
-            responseScore = Math.max(0, responseScore - (rank * timeDecrement));
-            savedSubmission.setResponseScore(responseScore);
-            savedSubmission = activitySubmissionRepository.save(savedSubmission);
+        try {
+            liveSubmissionPipeline.enqueue(liveSession, submission);
+        } catch (RuntimeException e) {
+            // A rejected answer gives its rank back, the correct answers after it keep their speed bonus
+            if (ranked) {
+                liveSession.releaseCorrectSubmissionRank(request.getActivityId());
+            }
+            throw e;
         }
 
-        return activitySubmissionMapper.activitySubmissionToSummaryResponse(savedSubmission);
+        return submissionCacheMapper.submissionCacheDTOToSummaryResponse(submission);
     }
 
-    private QuizResult processQuizMatchingPairs(CreateActivitySubmissionRequest request, Quiz quiz) {
+    private QuizResult processQuizMatchingPairs(CreateActivitySubmissionRequest request, CompiledAnswerKey answerKey) {
         // Validate answerContent
         if (request.getAnswerContent() == null || request.getAnswerContent().trim().isEmpty()) {
             return new QuizResult(false, 0);
@@ -140,17 +137,13 @@ public class ActivitySubmissionServiceImpl implements ActivitySubmissionService
         }
 
         // Validate item IDs
-        QuizMatchingPairAnswer matchingPairAnswer = quiz.getQuizMatchingPairAnswer();
-        if (matchingPairAnswer == null) {
+        if (!answerKey.isMatchingPairAnswerPresent()) {
             throw new ApplicationException(ErrorCode.QUIZ_MATCHING_PAIR_ANSWER_NOT_FOUND);
         }
 
-        List<QuizMatchingPairItem> items = matchingPairAnswer.getItems();
-        Set<String> validItemIds = items.stream().map(QuizMatchingPairItem::getQuizMatchingPairItemId).collect(Collectors.toSet());
         Set<String> uniqueItemIds = new HashSet<>();
-
         for (String itemId : itemIds) {
-            if (!validItemIds.contains(itemId)) {
+            if (!answerKey.isMatchingPairItem(itemId)) {
                 throw new ApplicationException(ErrorCode.QUIZ_MATCHING_PAIR_ITEM_NOT_FOUND);
             }
             if (!uniqueItemIds.add(itemId)) {
@@ -159,106 +152,85 @@ public class ActivitySubmissionServiceImpl implements ActivitySubmissionService
         }
 
         // Validate pairs (left-right)
-        List<QuizMatchingPairItem> leftItems = items.stream().filter(QuizMatchingPairItem::getIsLeftColumn).toList();
-        List<QuizMatchingPairItem> rightItems = items.stream().filter(item -> !item.getIsLeftColumn()).toList();
-        Set<String> leftItemIds = leftItems.stream().map(QuizMatchingPairItem::getQuizMatchingPairItemId).collect(Collectors.toSet());
-        Set<String> rightItemIds = rightItems.stream().map(QuizMatchingPairItem::getQuizMatchingPairItemId).collect(Collectors.toSet());
-
         List<String[]> userPairs = new ArrayList<>();
         for (int i = 0; i < itemIds.length; i += 2) {
             String leftId = itemIds[i];
             String rightId = itemIds[i + 1];
-            if (!leftItemIds.contains(leftId) || !rightItemIds.contains(rightId)) {
+            if (!answerKey.getLeftItemIds().contains(leftId) || !answerKey.getRightItemIds().contains(rightId)) {
                 throw new ApplicationException(ErrorCode.INVALID_MATCHING_PAIR_COLUMN);
             }
             userPairs.add(new String[]{leftId, rightId});
         }
 
         // Compare with correct connections
-        List<QuizMatchingPairConnection> correctConnections = matchingPairAnswer.getConnections();
-        if (correctConnections.isEmpty()) {
+        int connectionCount = answerKey.getConnectionCount();
+        if (connectionCount == 0) {
             throw new ApplicationException(ErrorCode.NO_CORRECT_MATCHING_PAIR_CONNECTIONS);
         }
 
         int correctCount = 0;
         for (String[] userPair : userPairs) {
-            String userLeftId = userPair[0];
-            String userRightId = userPair[1];
-            boolean isPairCorrect = correctConnections.stream().anyMatch(conn ->
-                    conn.getLeftItem().getQuizMatchingPairItemId().equals(userLeftId) &&
-                            conn.getRightItem().getQuizMatchingPairItemId().equals(userRightId));
-            if (isPairCorrect) {
+            if (answerKey.isCorrectMatchingPair(userPair[0], userPair[1])) {
                 correctCount++;
             }
         }
 
         // Calculate score
-        boolean isCorrect = correctCount == correctConnections.size();
-        double proportionCorrect = (double) correctCount / correctConnections.size();
+        boolean isCorrect = correctCount == connectionCount;
+        double proportionCorrect = (double) correctCount / connectionCount;
         int responseScore = (int) Math.floor(baseScore * proportionCorrect);
 
         return new QuizResult(isCorrect, responseScore);
     }
 
-    private QuizResult processQuizButtonsOrTrueFalse(CreateActivitySubmissionRequest request, Quiz quiz) {
+    private QuizResult processQuizButtonsOrTrueFalse(CreateActivitySubmissionRequest request, CompiledAnswerKey answerKey) {
         // Expect answerContent to be a single quizAnswerId
-        QuizAnswer selectedAnswer = quiz.getQuizAnswers().stream()
-                .filter(a -> a.getQuizAnswerId().equals(request.getAnswerContent()))
-                .findFirst()
-                .orElseThrow(() -> new ApplicationException(ErrorCode.QUIZ_ANSWER_NOT_FOUND));
-        boolean isCorrect = selectedAnswer.getIsCorrect();
+        if (!answerKey.getAnswerIds().contains(request.getAnswerContent())) {
+            throw new ApplicationException(ErrorCode.QUIZ_ANSWER_NOT_FOUND);
+        }
+        boolean isCorrect = answerKey.getCorrectAnswerIds().contains(request.getAnswerContent());
         int responseScore = isCorrect ? baseScore : 0; // Use baseScore from an environment
         return new QuizResult(isCorrect, responseScore);
     }
 
-    private QuizResult processQuizCheckboxes(CreateActivitySubmissionRequest request, Quiz quiz) {
+    private QuizResult processQuizCheckboxes(CreateActivitySubmissionRequest request, CompiledAnswerKey answerKey) {
         // Expect answerContent to be comma-separated quizAnswerIds
         String[] selectedIds = request.getAnswerContent().split(",");
-        List<QuizAnswer> correctAnswers = quiz.getQuizAnswers().stream()
-                .filter(QuizAnswer::getIsCorrect)
-                .toList();
+        Set<String> correctAnswerIds = answerKey.getCorrectAnswerIds();
 
         // Count correct matches
         int correctCount = 0;
         for (String selectedId : selectedIds) {
-            if (correctAnswers.stream().anyMatch(a -> a.getQuizAnswerId().equals(selectedId))) {
+            if (correctAnswerIds.contains(selectedId)) {
                 correctCount++;
             }
         }
 
         // Calculate score based on the proportion of correct answers
-        boolean isCorrect = correctCount == correctAnswers.size();
-        double proportionCorrect = (double) correctCount / correctAnswers.size();
+        boolean isCorrect = correctCount == correctAnswerIds.size();
+        double proportionCorrect = (double) correctCount / correctAnswerIds.size();
         int responseScore = (int) Math.floor(baseScore * proportionCorrect); // Round down
         return new QuizResult(isCorrect, responseScore);
     }
 
-    private QuizResult processQuizTypeAnswer(CreateActivitySubmissionRequest request, Quiz quiz) {
+    private QuizResult processQuizTypeAnswer(CreateActivitySubmissionRequest request, CompiledAnswerKey answerKey) {
         // Compare answerContent with correct answerText (case-insensitive)
-        boolean isCorrect = quiz.getQuizAnswers().stream()
-                .filter(QuizAnswer::getIsCorrect)
-                .anyMatch(a -> a.getAnswerText().equalsIgnoreCase(request.getAnswerContent()));
+        String normalizedAnswer = CompiledAnswerKey.normalize(request.getAnswerContent());
+        boolean isCorrect = normalizedAnswer != null && answerKey.getNormalizedCorrectTexts().contains(normalizedAnswer);
         int responseScore = isCorrect ? baseScore : 0; // Use baseScore from an environment
         return new QuizResult(isCorrect, responseScore);
     }
 
-    private QuizResult processQuizReorder(CreateActivitySubmissionRequest request, Quiz quiz) {
+    private QuizResult processQuizReorder(CreateActivitySubmissionRequest request, CompiledAnswerKey answerKey) {
         // Expect answerContent to be comma-separated quizAnswerIds in user-defined order
         List<String> userOrderIds = Arrays.asList(request.getAnswerContent().split(","));
-        List<QuizAnswer> sortedAnswers = quiz.getQuizAnswers().stream()
-                .sorted(Comparator.comparingInt(QuizAnswer::getOrderIndex))
-                .toList();
         // Check if user order matches the correct order
-        boolean isCorrect = userOrderIds.size() == sortedAnswers.size() &&
-                userOrderIds.stream()
-                        .map(id -> sortedAnswers.get(userOrderIds.indexOf(id)).getQuizAnswerId())
-                        .toList()
-                        .equals(userOrderIds);
+        boolean isCorrect = userOrderIds.equals(answerKey.getCorrectOrder());
         int responseScore = isCorrect ? baseScore : 0; // Use baseScore from an environment
         return new QuizResult(isCorrect, responseScore);
     }
 
-    private QuizResult processQuizLocation(CreateActivitySubmissionRequest request, Quiz quiz) {
+    private QuizResult processQuizLocation(CreateActivitySubmissionRequest request, CompiledAnswerKey answerKey) {
         // Handle empty answerContent (no answers submitted)
         if (request.getAnswerContent() == null || request.getAnswerContent().trim().isEmpty()) {
             return new QuizResult(false, 0);
@@ -271,7 +243,7 @@ public class ActivitySubmissionServiceImpl implements ActivitySubmissionService
         }
 
         // Check if number of coordinates exceeds correct locations
-        List<QuizLocationAnswer> correctLocations = quiz.getQuizLocationAnswers();
+        List<CompiledAnswerKey.LocationAnswer> correctLocations = answerKey.getLocationAnswers();
         if (coordinates.length / 2 > correctLocations.size()) {
             throw new ApplicationException(ErrorCode.TOO_MANY_COORDINATE_PAIRS);
         }
@@ -319,22 +291,20 @@ public class ActivitySubmissionServiceImpl implements ActivitySubmissionService
                 double userLat = userCoord[1];
                 boolean isWithinRadius = false;
 
-                for (QuizLocationAnswer location : correctLocations) {
+                for (CompiledAnswerKey.LocationAnswer location : correctLocations) {
                     // Skip if this location was already matched
-                    if (matchedLocationIds.contains(location.getQuizLocationAnswerId())) {
+                    if (matchedLocationIds.contains(location.quizLocationAnswerId())) {
                         continue;
                     }
 
                     double distance = calculateHaversineDistance(
                             userLat, userLong,
-                            location.getLatitude(), location.getLongitude()
+                            location.latitude(), location.longitude()
                     );
 
-                    double radiusInMeters = location.getRadius() * 1000; // convert km to meters
-
-                    if (distance <= radiusInMeters) {
+                    if (distance <= location.radiusInMeters()) {
                         isWithinRadius = true;
-                        matchedLocationIds.add(location.getQuizLocationAnswerId()); // Mark as matched
+                        matchedLocationIds.add(location.quizLocationAnswerId()); // Mark as matched
                         break; // Stop checking once a valid location is found
                     }
                 }
@@ -1,19 +1,18 @@
 package com.bitorax.priziq.service.implement;
 
+import com.bitorax.priziq.constant.BackgroundJobStatus;
+import com.bitorax.priziq.constant.BackgroundJobType;
+import com.bitorax.priziq.constant.CacheNames;
 import com.bitorax.priziq.constant.CollectionTopicType;
+import com.bitorax.priziq.domain.BackgroundJob;
+import com.bitorax.priziq.dto.cache.CollectionFeedCacheDTO;
 import com.bitorax.priziq.domain.Collection;
 import com.bitorax.priziq.domain.User;
 import com.bitorax.priziq.domain.activity.Activity;
-import com.bitorax.priziq.domain.activity.quiz.*;
-import com.bitorax.priziq.domain.activity.slide.Slide;
-import com.bitorax.priziq.domain.activity.slide.SlideElement;
-import com.bitorax.priziq.domain.session.Session;
-import com.bitorax.priziq.domain.session.SessionParticipant;
-import com.bitorax.priziq.dto.request.activity.CreateActivityRequest;
 import com.bitorax.priziq.dto.request.collection.ActivityReorderRequest;
 import com.bitorax.priziq.dto.request.collection.CreateCollectionRequest;
 import com.bitorax.priziq.dto.request.collection.UpdateCollectionRequest;
-import com.bitorax.priziq.dto.response.activity.ActivitySummaryResponse;
+import com.bitorax.priziq.dto.response.collection.CollectionCopyJobResponse;
 import com.bitorax.priziq.dto.response.collection.CollectionDetailResponse;
 import com.bitorax.priziq.dto.response.collection.CollectionSummaryResponse;
 import com.bitorax.priziq.dto.response.collection.ReorderedActivityResponse;
@@ -25,17 +24,26 @@ import com.bitorax.priziq.mapper.CollectionMapper;
 import com.bitorax.priziq.repository.*;
 import com.bitorax.priziq.service.ActivityService;
 import com.bitorax.priziq.service.CollectionService;
+import com.bitorax.priziq.service.cache.CollectionFeedCache;
+import com.bitorax.priziq.service.job.BackgroundJobRunner;
+import com.bitorax.priziq.utils.ActivityUtils;
 import com.bitorax.priziq.utils.SecurityUtils;
 import jakarta.transaction.Transactional;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -48,12 +56,13 @@ public class CollectionServiceImpl implements CollectionService {
     CollectionRepository collectionRepository;
     ActivityRepository activityRepository;
     UserRepository userRepository;
-    SessionRepository sessionRepository;
-    ActivitySubmissionRepository activitySubmissionRepository;
-    SessionParticipantRepository sessionParticipantRepository;
     ActivityService activityService;
     CollectionMapper collectionMapper;
     SecurityUtils securityUtils;
+    ActivityUtils activityUtils;
+    BackgroundJobRepository backgroundJobRepository;
+    BackgroundJobRunner backgroundJobRunner;
+    CollectionFeedCache collectionFeedCache;
 
     @Override
     @Transactional
@@ -70,12 +79,22 @@ public class CollectionServiceImpl implements CollectionService {
         // Create default QUIZ_BUTTONS activity
         activityService.createDefaultQuizButtonsActivity(savedCollection.getCollectionId());
 
+        if (Boolean.TRUE.equals(savedCollection.getIsPublished())) {
+            collectionFeedCache.invalidate();
+        }
+
         return collectionMapper.collectionToSummaryResponse(savedCollection);
     }
 
     @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheNames.COLLECTION_DETAILS, key = "#collectionId")
     public CollectionDetailResponse getCollectionById(String collectionId){
-        return collectionMapper.collectionToDetailResponse(collectionRepository.findById(collectionId).orElseThrow(() -> new ApplicationException(ErrorCode.COLLECTION_NOT_FOUND)));
+        // The whole editor tree in a fixed number of queries, however many activities the collection has
+        Collection collection = collectionRepository.findWithActivitiesByCollectionId(collectionId)
+                .orElseThrow(() -> new ApplicationException(ErrorCode.COLLECTION_NOT_FOUND));
+        activityUtils.fetchActivityContents(collection.getActivities());
+        return collectionMapper.collectionToDetailResponse(collection);
     }
 
     @Override
@@ -94,12 +113,8 @@ public class CollectionServiceImpl implements CollectionService {
 
     @Override
     public PaginationResponse getAllCollectionWithQuery(Specification<Collection> spec, Pageable pageable) {
-        Page<Collection> collectionPage = this.collectionRepository.findAll(spec, pageable);
-
-        // Calculate total activities in collections
-        List<CollectionSummaryResponse> responses = collectionPage.getContent().stream()
-                .map(this::mapToSummaryResponseWithTotalActivities)
-                .toList();
+        // Summary columns only, the activities are counted by the database instead of being loaded
+        Page<CollectionSummaryResponse> collectionPage = this.collectionRepository.findSummaries(spec, pageable);
 
         return PaginationResponse.builder()
                 .meta(PaginationMeta.builder()
@@ -110,11 +125,12 @@ public class CollectionServiceImpl implements CollectionService {
                         .hasNext(collectionPage.hasNext())
                         .hasPrevious(collectionPage.hasPrevious())
                         .build())
-                .content(responses)
+                .content(collectionPage.getContent())
                 .build();
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.COLLECTION_DETAILS, key = "#collectionId")
     public CollectionSummaryResponse updateCollectionById(String collectionId, UpdateCollectionRequest updateCollectionRequest){
         // Check owner or admin to access and get the current collection
         validateCollectionOwnership(collectionId);
@@ -125,40 +141,46 @@ public class CollectionServiceImpl implements CollectionService {
             CollectionTopicType.validateCollectionTopicType(collectionTopic);
         }
 
+        // Publishing, unpublishing and changes to a published collection all show in the public feed
+        boolean wasPublished = Boolean.TRUE.equals(currentCollection.getIsPublished());
         this.collectionMapper.updateCollectionRequestToCollection(currentCollection, updateCollectionRequest);
+        if (wasPublished || Boolean.TRUE.equals(currentCollection.getIsPublished())) {
+            collectionFeedCache.invalidate();
+        }
+
         return this.collectionMapper.collectionToSummaryResponse(collectionRepository.save(currentCollection));
     }
 
     @Override
     @Transactional
-    public void deleteCollectionById(String collectionId) {
+    @CacheEvict(cacheNames = CacheNames.COLLECTION_DETAILS, key = "#collectionId")
+    public String deleteCollectionById(String collectionId) {
         // Check owner or admin to access and get the current collection
         validateCollectionOwnership(collectionId);
         Collection currentCollection = collectionRepository.findById(collectionId)
                 .orElseThrow(() -> new ApplicationException(ErrorCode.COLLECTION_NOT_FOUND));
 
-        // Delete ActivitySubmissions related to Activities in the Collection
-        List<Activity> activities = currentCollection.getActivities();
-        for (Activity activity : activities) {
-            activitySubmissionRepository.deleteByActivityActivityId(activity.getActivityId());
-        }
-
-        // Delete SessionParticipants and their ActivitySubmissions
-        List<Session> sessions = sessionRepository.findByCollectionCollectionId(collectionId);
-        for (Session session : sessions) {
-            List<SessionParticipant> participants = sessionParticipantRepository.findBySessionSessionId(session.getSessionId());
-            for (SessionParticipant participant : participants) {
-                activitySubmissionRepository.deleteBySessionParticipantSessionParticipantId(participant.getSessionParticipantId());
-            }
-            sessionParticipantRepository.deleteBySessionSessionId(session.getSessionId());
+        // Hidden right away, its activities, sessions, participants and submissions are deleted by a background job
+        currentCollection.setDeletedAt(Instant.now());
+        if (Boolean.TRUE.equals(currentCollection.getIsPublished())) {
+            collectionFeedCache.invalidate();
         }
+        return backgroundJobRunner.enqueue(BackgroundJobType.COLLECTION_PURGE, collectionId);
+    }
 
-        sessionRepository.deleteByCollectionCollectionId(collectionId);
-        collectionRepository.delete(currentCollection);
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.ACTIVITY_DETAILS, allEntries = true)
+    public void purgeCollection(String collectionId) {
+        collectionRepository.purgeCollection(collectionId);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.COLLECTION_DETAILS, key = "#collectionId"),
+            @CacheEvict(cacheNames = CacheNames.ACTIVITY_DETAILS, allEntries = true)
+    })
     public List<ReorderedActivityResponse> reorderActivities(String collectionId, ActivityReorderRequest activityReorderRequest) {
         // Check owner or admin to access and get the current collection
         validateCollectionOwnership(collectionId);
@@ -240,62 +262,85 @@ public class CollectionServiceImpl implements CollectionService {
     }
 
     @Override
-    public Map<String, List<CollectionSummaryResponse>> getCollectionsGroupedByTopic(Pageable pageable) {
-        List<Object[]> results = collectionRepository.findPublishedGroupedByTopic(pageable);
+    public CollectionFeedCacheDTO getCollectionsGroupedByTopic(Pageable pageable) {
+        return collectionFeedCache.getFeed(pageable, () -> buildCollectionsGroupedByTopic(pageable));
+    }
+
+    @Override
+    @Transactional
+    public CollectionSummaryResponse copyCollection(String collectionId) {
+        // Get the current user
+        User currentUser = userRepository.findByEmail(SecurityUtils.getCurrentUserEmailFromJwt())
+                .orElseThrow(() -> new ApplicationException(ErrorCode.USER_NOT_FOUND));
 
-        // Use LinkedHashMap to maintain order (PUBLISH comes first)
-        Map<String, List<CollectionSummaryResponse>> resultMap = new LinkedHashMap<>();
+        Collection sourceCollection = findCopySource(collectionId, currentUser);
 
-        // Group data
-        Map<String, List<CollectionSummaryResponse>> grouped = results.stream()
-                .map(result -> {
-                    Collection collection = (Collection) result[1];
-                    // Group all isPublished = true into a PUBLISH and base topic
-                    String groupKey = CollectionTopicType.PUBLISH.name(); // Always add to PUBLISH
-                    CollectionSummaryResponse summary = mapToSummaryResponseWithTotalActivities(collection);
-                    return new AbstractMap.SimpleEntry<>(groupKey, summary);
-                })
-                .collect(Collectors.groupingBy(
-                        Map.Entry::getKey,
-                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())
-                ));
-
-        // Add other topic groups (isPublished = true) from results
-        Map<String, List<CollectionSummaryResponse>> topicGroups = results.stream()
-                .map(result -> {
-                    Collection collection = (Collection) result[1];
-                    String groupKey = ((CollectionTopicType) result[0]).name(); // Group by base topic
-                    CollectionSummaryResponse summary = mapToSummaryResponseWithTotalActivities(collection);
-                    return new AbstractMap.SimpleEntry<>(groupKey, summary);
-                })
-                .collect(Collectors.groupingBy(
-                        Map.Entry::getKey,
-                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())
-                ));
-
-        // Put PUBLISH at the beginning
-        if (grouped.containsKey(CollectionTopicType.PUBLISH.name())) {
-            resultMap.put(CollectionTopicType.PUBLISH.name(), grouped.get(CollectionTopicType.PUBLISH.name()));
-        }
+        // Flushed so the activity rows inserted below can reference it
+        Collection savedCollection = collectionRepository.saveAndFlush(newCopyOf(sourceCollection, currentUser));
 
-        // Add other topics (do not sort keys, keep natural order)
-        topicGroups.forEach((key, value) -> {
-            if (!key.equals(CollectionTopicType.PUBLISH.name())) {
-                resultMap.put(key, value);
-            }
-        });
+        // Copy activities and their quiz or slide content in a fixed number of statements
+        int totalActivities = collectionRepository.copyActivities(
+                sourceCollection.getCollectionId(), savedCollection.getCollectionId(), currentUser.getEmail());
 
-        return resultMap;
+        CollectionSummaryResponse response = collectionMapper.collectionToSummaryResponse(savedCollection);
+        response.setTotalActivities(totalActivities);
+        return response;
     }
 
     @Override
     @Transactional
-    public CollectionSummaryResponse copyCollection(String collectionId) {
-        // Get the current user
+    public CollectionCopyJobResponse startCollectionCopy(String collectionId) {
         User currentUser = userRepository.findByEmail(SecurityUtils.getCurrentUserEmailFromJwt())
                 .orElseThrow(() -> new ApplicationException(ErrorCode.USER_NOT_FOUND));
 
-        // Find the collection to be copied
+        Collection sourceCollection = findCopySource(collectionId, currentUser);
+        Collection savedCollection = collectionRepository.save(newCopyOf(sourceCollection, currentUser));
+
+        // The activities are copied by the job, the new collection is returned right away
+        int totalActivities = (int) activityRepository.countByCollectionCollectionId(sourceCollection.getCollectionId());
+        String jobId = backgroundJobRunner.enqueue(BackgroundJobType.COLLECTION_COPY,
+                savedCollection.getCollectionId(), sourceCollection.getCollectionId());
+
+        return CollectionCopyJobResponse.builder()
+                .jobId(jobId)
+                .sourceCollectionId(sourceCollection.getCollectionId())
+                .collectionId(savedCollection.getCollectionId())
+                .status(BackgroundJobStatus.PENDING.name())
+                .processedActivities(0)
+                .totalActivities(totalActivities)
+                .collectionComplete(totalActivities == 0)
+                .build();
+    }
+
+    @Override
+    public CollectionCopyJobResponse getCollectionCopyJob(String jobId) {
+        // Only the user who started the copy can follow it
+        BackgroundJob job = backgroundJobRepository.findById(jobId)
+                .filter(candidate -> candidate.getJobType() == BackgroundJobType.COLLECTION_COPY)
+                .filter(candidate -> Objects.equals(candidate.getCreatedBy(), SecurityUtils.getCurrentUserEmailFromJwt()))
+                .orElseThrow(() -> new ApplicationException(ErrorCode.COLLECTION_COPY_JOB_NOT_FOUND));
+
+        return CollectionCopyJobResponse.builder()
+                .jobId(job.getJobId())
+                .sourceCollectionId(job.getState())
+                .collectionId(job.getReferenceId())
+                .status(job.getStatus().name())
+                .processedActivities(job.getProcessedItems() != null ? job.getProcessedItems() : 0)
+                .totalActivities(job.getTotalItems())
+                .collectionComplete(job.getStatus() == BackgroundJobStatus.COMPLETED)
+                .lastError(job.getLastError())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.COLLECTION_DETAILS, key = "#targetCollectionId")
+    public int copyActivityChunk(String sourceCollectionId, String targetCollectionId, String copiedBy, List<String> activityIds) {
+        return collectionRepository.copyActivities(sourceCollectionId, targetCollectionId, copiedBy, activityIds);
+    }
+
+    private Collection findCopySource(String collectionId, User currentUser) {
         Collection sourceCollection = collectionRepository.findById(collectionId)
                 .orElseThrow(() -> new ApplicationException(ErrorCode.COLLECTION_NOT_FOUND));
 
@@ -304,9 +349,11 @@ public class CollectionServiceImpl implements CollectionService {
                 && !sourceCollection.getIsPublished()) {
             throw new ApplicationException(ErrorCode.COLLECTION_NOT_PUBLISHED);
         }
+        return sourceCollection;
+    }
 
-        // Create a copy of the collection
-        Collection newCollection = Collection.builder()
+    private Collection newCopyOf(Collection sourceCollection, User currentUser) {
+        return Collection.builder()
                 .title(sourceCollection.getTitle())
                 .description(sourceCollection.getDescription())
                 .isPublished(false) // The copied collection is not published by default
@@ -316,201 +363,6 @@ public class CollectionServiceImpl implements CollectionService {
                 .creator(currentUser)
                 .activities(new ArrayList<>())
                 .build();
-
-        Collection savedCollection = collectionRepository.save(newCollection);
-
-        // Copy activities
-        List<Activity> sourceActivities = sourceCollection.getActivities();
-        for (Activity sourceActivity : sourceActivities) {
-            // Create a new activity
-            CreateActivityRequest activityRequest = CreateActivityRequest.builder()
-                    .collectionId(savedCollection.getCollectionId())
-                    .activityType(sourceActivity.getActivityType().name())
-                    .title(sourceActivity.getTitle())
-                    .description(sourceActivity.getDescription())
-                    .isPublished(sourceActivity.getIsPublished())
-                    .build();
-
-            ActivitySummaryResponse activityResponse = activityService.createActivity(activityRequest);
-            Activity newActivity = activityRepository.findById(activityResponse.getActivityId())
-                    .orElseThrow(() -> new ApplicationException(ErrorCode.ACTIVITY_NOT_FOUND));
-
-            // Copy quiz if present, reuse existing Quiz if available
-            if (sourceActivity.getQuiz() != null) {
-                Quiz sourceQuiz = sourceActivity.getQuiz();
-                Quiz newQuiz = newActivity.getQuiz(); // Check for existing Quiz
-                if (newQuiz == null) {
-                    // If no Quiz exists, create a new one with initialized lists
-                    newQuiz = Quiz.builder()
-                            .quizId(newActivity.getActivityId())
-                            .activity(newActivity)
-                            .quizAnswers(new ArrayList<>())
-                            .quizLocationAnswers(new ArrayList<>())
-                            .build();
-                    newActivity.setQuiz(newQuiz);
-                }
-                // Update Quiz properties
-                newQuiz.setQuestionText(sourceQuiz.getQuestionText());
-                newQuiz.setTimeLimitSeconds(sourceQuiz.getTimeLimitSeconds());
-                newQuiz.setPointType(sourceQuiz.getPointType());
-
-                // Initialize quizAnswers if null before clearing
-                if (newQuiz.getQuizAnswers() == null) {
-                    newQuiz.setQuizAnswers(new ArrayList<>());
-                }
-                newQuiz.getQuizAnswers().clear();
-                for (QuizAnswer sourceAnswer : sourceQuiz.getQuizAnswers()) {
-                    QuizAnswer newAnswer = QuizAnswer.builder()
-                            .quiz(newQuiz)
-                            .answerText(sourceAnswer.getAnswerText())
-                            .isCorrect(sourceAnswer.getIsCorrect())
-                            .explanation(sourceAnswer.getExplanation())
-                            .orderIndex(sourceAnswer.getOrderIndex())
-                            .build();
-                    newQuiz.getQuizAnswers().add(newAnswer);
-                }
-
-                // Initialize quizLocationAnswers if null before clearing
-                if (newQuiz.getQuizLocationAnswers() == null) {
-                    newQuiz.setQuizLocationAnswers(new ArrayList<>());
-                }
-                newQuiz.getQuizLocationAnswers().clear();
-                for (QuizLocationAnswer sourceLocationAnswer : sourceQuiz.getQuizLocationAnswers()) {
-                    QuizLocationAnswer newLocationAnswer = QuizLocationAnswer.builder()
-                            .quiz(newQuiz)
-                            .longitude(sourceLocationAnswer.getLongitude())
-                            .latitude(sourceLocationAnswer.getLatitude())
-                            .radius(sourceLocationAnswer.getRadius())
-                            .build();
-                    newQuiz.getQuizLocationAnswers().add(newLocationAnswer);
-                }
-
-                // Copy quiz matching pair answer if present, reuse existing if available
-                if (sourceQuiz.getQuizMatchingPairAnswer() != null) {
-                    QuizMatchingPairAnswer sourceMatchingPairAnswer = sourceQuiz.getQuizMatchingPairAnswer();
-                    QuizMatchingPairAnswer newMatchingPairAnswer = newQuiz.getQuizMatchingPairAnswer();
-                    if (newMatchingPairAnswer == null) {
-                        newMatchingPairAnswer = QuizMatchingPairAnswer.builder()
-                                .quiz(newQuiz)
-                                .quizMatchingPairAnswerId(newQuiz.getQuizId()) // Ensure ID matches Quiz
-                                .items(new ArrayList<>())
-                                .connections(new ArrayList<>())
-                                .build();
-                        newQuiz.setQuizMatchingPairAnswer(newMatchingPairAnswer);
-                    }
-                    // Update properties
-                    newMatchingPairAnswer.setLeftColumnName(sourceMatchingPairAnswer.getLeftColumnName());
-                    newMatchingPairAnswer.setRightColumnName(sourceMatchingPairAnswer.getRightColumnName());
-
-                    // Initialize items and connections if null before clearing
-                    if (newMatchingPairAnswer.getItems() == null) {
-                        newMatchingPairAnswer.setItems(new ArrayList<>());
-                    }
-                    if (newMatchingPairAnswer.getConnections() == null) {
-                        newMatchingPairAnswer.setConnections(new ArrayList<>());
-                    }
-                    newMatchingPairAnswer.getItems().clear();
-                    newMatchingPairAnswer.getConnections().clear();
-
-                    // Copy items and create an item map for connections
-                    Map<String, QuizMatchingPairItem> itemMap = new HashMap<>();
-                    for (QuizMatchingPairItem sourceItem : sourceMatchingPairAnswer.getItems()) {
-                        QuizMatchingPairItem newItem = QuizMatchingPairItem.builder()
-                                .quizMatchingPairAnswer(newMatchingPairAnswer)
-                                .content(sourceItem.getContent())
-                                .isLeftColumn(sourceItem.getIsLeftColumn())
-                                .displayOrder(sourceItem.getDisplayOrder())
-                                .build();
-                        newMatchingPairAnswer.getItems().add(newItem);
-                        itemMap.put(sourceItem.getQuizMatchingPairItemId(), newItem);
-                    }
-
-                    // Copy connections
-                    for (QuizMatchingPairConnection sourceConnection : sourceMatchingPairAnswer.getConnections()) {
-                        QuizMatchingPairItem newLeftItem = itemMap.get(sourceConnection.getLeftItem().getQuizMatchingPairItemId());
-                        QuizMatchingPairItem newRightItem = itemMap.get(sourceConnection.getRightItem().getQuizMatchingPairItemId());
-                        if (newLeftItem != null && newRightItem != null) {
-                            QuizMatchingPairConnection newConnection = QuizMatchingPairConnection.builder()
-                                    .quizMatchingPairAnswer(newMatchingPairAnswer)
-                                    .leftItem(newLeftItem)
-                                    .rightItem(newRightItem)
-                                    .build();
-                            newMatchingPairAnswer.getConnections().add(newConnection);
-                        }
-                    }
-                } else {
-                    // Remove QuizMatchingPairAnswer if a source doesn't have it
-                    if (newQuiz.getQuizMatchingPairAnswer() != null) {
-                        newQuiz.setQuizMatchingPairAnswer(null);
-                    }
-                }
-            } else {
-                // Remove Quiz if a source doesn't have it
-                if (newActivity.getQuiz() != null) {
-                    newActivity.setQuiz(null);
-                }
-            }
-
-            // Copy slide if present, reuse existing Slide if available
-            if (sourceActivity.getSlide() != null) {
-                Slide sourceSlide = sourceActivity.getSlide();
-                Slide newSlide = newActivity.getSlide(); // Check for existing Slide
-                if (newSlide == null) {
-                    newSlide = Slide.builder()
-                            .slideId(newActivity.getActivityId())
-                            .activity(newActivity)
-                            .slideElements(new ArrayList<>())
-                            .build();
-                    newActivity.setSlide(newSlide);
-                }
-                // Update Slide properties
-                newSlide.setTransitionEffect(sourceSlide.getTransitionEffect());
-                newSlide.setTransitionDuration(sourceSlide.getTransitionDuration());
-                newSlide.setAutoAdvanceSeconds(sourceSlide.getAutoAdvanceSeconds());
-
-                // Initialize slideElements if null before clearing
-                if (newSlide.getSlideElements() == null) {
-                    newSlide.setSlideElements(new ArrayList<>());
-                }
-                newSlide.getSlideElements().clear();
-                for (SlideElement sourceElement : sourceSlide.getSlideElements()) {
-                    SlideElement newElement = SlideElement.builder()
-                            .slide(newSlide)
-                            .slideElementType(sourceElement.getSlideElementType())
-                            .positionX(sourceElement.getPositionX())
-                            .positionY(sourceElement.getPositionY())
-                            .width(sourceElement.getWidth())
-                            .height(sourceElement.getHeight())
-                            .rotation(sourceElement.getRotation())
-                            .layerOrder(sourceElement.getLayerOrder())
-                            .content(sourceElement.getContent())
-                            .sourceUrl(sourceElement.getSourceUrl())
-                            .entryAnimation(sourceElement.getEntryAnimation())
-                            .entryAnimationDuration(sourceElement.getEntryAnimationDuration())
-                            .entryAnimationDelay(sourceElement.getEntryAnimationDelay())
-                            .exitAnimation(sourceElement.getExitAnimation())
-                            .exitAnimationDuration(sourceElement.getExitAnimationDuration())
-                            .exitAnimationDelay(sourceElement.getExitAnimationDelay())
-                            .build();
-                    newSlide.getSlideElements().add(newElement);
-                }
-            } else {
-                // Remove Slide if a source doesn't have it
-                if (newActivity.getSlide() != null) {
-                    newActivity.setSlide(null);
-                }
-            }
-
-            // Set orderIndex and other activity properties
-            newActivity.setOrderIndex(sourceActivity.getOrderIndex());
-            newActivity.setBackgroundColor(sourceActivity.getBackgroundColor());
-            newActivity.setBackgroundImage(sourceActivity.getBackgroundImage());
-
-            // Save the activity once to persist all changes via cascading
-            activityRepository.save(newActivity);
-        }
-
-        return collectionMapper.collectionToSummaryResponse(savedCollection);
     }
 
     private void validateCollectionOwnership(String collectionId) {
@@ -534,9 +386,22 @@ public class CollectionServiceImpl implements CollectionService {
                 .collect(Collectors.toSet());
     }
 
-    private CollectionSummaryResponse mapToSummaryResponseWithTotalActivities(Collection collection) {
-        CollectionSummaryResponse dto = collectionMapper.collectionToSummaryResponse(collection);
-        dto.setTotalActivities(collection.getActivities().size());
-        return dto;
+    // One summary query with database-side activity counts, newest published collections first
+    private Map<String, List<CollectionSummaryResponse>> buildCollectionsGroupedByTopic(Pageable pageable) {
+        Specification<Collection> published = (root, query, criteriaBuilder) -> criteriaBuilder.isTrue(root.get("isPublished"));
+        List<CollectionSummaryResponse> summaries = collectionRepository.findSummaries(published,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdAt"))).getContent();
+
+        // Use LinkedHashMap to maintain order (PUBLISH comes first, then topics by their newest collection)
+        Map<String, List<CollectionSummaryResponse>> resultMap = new LinkedHashMap<>();
+        if (!summaries.isEmpty()) {
+            resultMap.put(CollectionTopicType.PUBLISH.name(), summaries);
+        }
+        summaries.forEach(summary -> {
+            if (!CollectionTopicType.PUBLISH.name().equals(summary.getTopic())) {
+                resultMap.computeIfAbsent(summary.getTopic(), topic -> new ArrayList<>()).add(summary);
+            }
+        });
+        return resultMap;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.bitorax.priziq.service.implement;
 
+import com.bitorax.priziq.constant.CacheNames;
 import com.bitorax.priziq.constant.RoleType;
 import com.bitorax.priziq.domain.Permission;
 import com.bitorax.priziq.domain.Role;
@@ -19,6 +20,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -79,7 +81,9 @@ public class RoleServiceImpl implements RoleService {
                 .build();
     }
 
+    // The roles are part of every cached user detail
     @Override
+    @CacheEvict(cacheNames = CacheNames.USER_DETAILS, allEntries = true)
     public RoleResponse updateRoleById(String roleId, UpdateRoleRequest updateRoleRequest) {
         Role currentRole = this.roleRepository.findById(roleId)
                 .orElseThrow(() -> new ApplicationException(ErrorCode.ROLE_NOT_FOUND));
@@ -140,6 +144,7 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USER_DETAILS, allEntries = true)
     public void deleteRoleById(String roleId) {
         Role currentRole = this.roleRepository.findById(roleId)
                 .orElseThrow(() -> new ApplicationException(ErrorCode.ROLE_NOT_FOUND));
@@ -5,6 +5,7 @@ import com.bitorax.priziq.domain.User;
 import com.bitorax.priziq.domain.session.ActivitySubmission;
 import com.bitorax.priziq.domain.session.Session;
 import com.bitorax.priziq.domain.session.SessionParticipant;
+import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
 import com.bitorax.priziq.dto.request.session.session_participant.GetParticipantsRequest;
 import com.bitorax.priziq.dto.request.session.session_participant.JoinSessionRequest;
 import com.bitorax.priziq.dto.request.session.session_participant.LeaveSessionRequest;
@@ -13,11 +14,15 @@ import com.bitorax.priziq.dto.response.session.SessionParticipantSummaryResponse
 import com.bitorax.priziq.exception.ApplicationException;
 import com.bitorax.priziq.exception.ErrorCode;
 import com.bitorax.priziq.mapper.SessionParticipantMapper;
+import com.bitorax.priziq.mapper.cache.ParticipantCacheMapper;
 import com.bitorax.priziq.repository.ActivitySubmissionRepository;
 import com.bitorax.priziq.repository.SessionParticipantRepository;
 import com.bitorax.priziq.repository.SessionRepository;
 import com.bitorax.priziq.repository.UserRepository;
 import com.bitorax.priziq.service.SessionParticipantService;
+import com.bitorax.priziq.service.live.LiveSession;
+import com.bitorax.priziq.service.live.LiveSessionRegistry;
+import com.bitorax.priziq.service.live.LiveSessionStore;
 import jakarta.transaction.Transactional;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -26,7 +31,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -38,6 +42,9 @@ public class SessionParticipantServiceImpl implements SessionParticipantService
     UserRepository userRepository;
     ActivitySubmissionRepository activitySubmissionRepository;
     SessionParticipantMapper sessionParticipantMapper;
+    ParticipantCacheMapper participantCacheMapper;
+    LiveSessionRegistry liveSessionRegistry;
+    LiveSessionStore liveSessionStore;
 
     @Override
     @Transactional
@@ -95,6 +102,12 @@ public class SessionParticipantServiceImpl implements SessionParticipantService
     @Override
     @Transactional
     public List<SessionParticipantSummaryResponse> leaveSession(LeaveSessionRequest request, String websocketSessionId) {
+        // Participants of a started session are served from the live session
+        Optional<LiveSession> liveSession = liveSessionRegistry.find(request.getSessionCode());
+        if (liveSession.isPresent()) {
+            return leaveLiveSession(liveSession.get(), websocketSessionId);
+        }
+
         Session session = sessionRepository.findBySessionCode(request.getSessionCode())
                 .orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_NOT_FOUND));
         SessionStatus sessionStatus = session.getSessionStatus();
@@ -119,60 +132,31 @@ public class SessionParticipantServiceImpl implements SessionParticipantService
                     .sessionCode(session.getSessionCode())
                     .build());
         } else if (sessionStatus == SessionStatus.STARTED) {
-            // Mark participant as inactive instead of deleting
-            participant.setIsConnected(false);
-            sessionParticipantRepository.save(participant);
-
-            // Return list of active participants
-            return sessionParticipantRepository
-                    .findBySession_SessionCodeAndIsConnectedTrue(session.getSessionCode())
-                    .stream()
-                    .map(sessionParticipantMapper::sessionParticipantToSummaryResponse)
-                    .collect(Collectors.toList());
+            return leaveLiveSession(liveSessionRegistry.getOrLoad(session.getSessionCode()), websocketSessionId);
         } else {
             throw new ApplicationException(ErrorCode.INVALID_SESSION_STATUS);
         }
     }
 
-    @Override
-    public List<SessionParticipantSummaryResponse> findParticipantsBySessionCode(GetParticipantsRequest request){
-        return sessionParticipantMapper.sessionParticipantsToSummaryResponseList(sessionParticipantRepository.findBySession_SessionCode(request.getSessionCode()));
-    }
-
-    @Override
-    @Transactional
-    public List<SessionParticipantSummaryResponse> updateRealtimeScoreAndRanking(String sessionCode, String websocketSessionId, int responseScore) {
-        Session session = sessionRepository.findBySessionCode(sessionCode)
-                .orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_NOT_FOUND));
-
-        // Find SessionParticipant by sessionId and websocketSessionId
-        SessionParticipant participant = sessionParticipantRepository
-                .findBySessionAndWebsocketSessionId(session, websocketSessionId)
+    private List<SessionParticipantSummaryResponse> leaveLiveSession(LiveSession liveSession, String websocketSessionId) {
+        // Mark participant as inactive instead of deleting, the database is written at activity boundaries
+        ParticipantCacheDTO participant = liveSession.markDisconnected(websocketSessionId)
                 .orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_PARTICIPANT_NOT_FOUND));
+        liveSessionStore.recordParticipants(liveSession, List.of(participant));
 
-        // Update realtimeScore
-        participant.setRealtimeScore(participant.getRealtimeScore() + responseScore);
-
-        // Save the updated participant
-        sessionParticipantRepository.save(participant);
-
-        // Get all participants in the session and update rankings
-        List<SessionParticipant> participants = sessionParticipantRepository.findBySession_SessionCode(sessionCode);
-        // Sort by realtimeScore (descending) and assign rankings
-        List<SessionParticipant> sortedParticipants = participants.stream()
-                .sorted(Comparator.comparingInt(SessionParticipant::getRealtimeScore).reversed())
-                .collect(Collectors.toList());
+        // Return list of active participants
+        return participantCacheMapper.participantCacheDTOsToSummaryResponseList(liveSession.getConnectedParticipants());
+    }
 
-        // Update realtimeRanking
-        for (int i = 0; i < sortedParticipants.size(); i++) {
-            sortedParticipants.get(i).setRealtimeRanking(i + 1);
+    @Override
+    public List<SessionParticipantSummaryResponse> findParticipantsBySessionCode(GetParticipantsRequest request){
+        // Scores and rankings of a started session are only written to the database at activity boundaries
+        Optional<LiveSession> liveSession = liveSessionRegistry.find(request.getSessionCode());
+        if (liveSession.isPresent()) {
+            return participantCacheMapper.participantCacheDTOsToSummaryResponseList(liveSession.get().getRankedParticipants());
         }
 
-        // Save all participants with updated rankings
-        sessionParticipantRepository.saveAll(sortedParticipants);
-
-        // Return updated participant list
-        return sessionParticipantMapper.sessionParticipantsToSummaryResponseList(participants);
+        return sessionParticipantMapper.sessionParticipantsToSummaryResponseList(sessionParticipantRepository.findBySession_SessionCode(request.getSessionCode()));
     }
 
     @Override
@@ -183,11 +167,11 @@ public class SessionParticipantServiceImpl implements SessionParticipantService
             return updateDetails;
         }
 
+        // Updates are only produced for users that exist, no need to check them again
         Map<String, AchievementUpdateResponse> userIdToUpdateMap = new HashMap<>();
         for (AchievementUpdateResponse update : achievementUpdates) {
-            String userId = update.getUserId();
-            if (userId != null && userRepository.existsById(userId)) {
-                userIdToUpdateMap.put(userId, update);
+            if (update.getUserId() != null) {
+                userIdToUpdateMap.put(update.getUserId(), update);
             }
         }
 
@@ -1,13 +1,14 @@
 package com.bitorax.priziq.service.implement;
 
+import com.bitorax.priziq.constant.BackgroundJobType;
 import com.bitorax.priziq.constant.SessionStatus;
 import com.bitorax.priziq.domain.Collection;
+import com.bitorax.priziq.domain.Role;
 import com.bitorax.priziq.domain.User;
 import com.bitorax.priziq.domain.activity.Activity;
 import com.bitorax.priziq.domain.session.ActivitySubmission;
 import com.bitorax.priziq.domain.session.Session;
 import com.bitorax.priziq.domain.session.SessionParticipant;
-import com.bitorax.priziq.dto.request.achievement.AssignAchievementToUserRequest;
 import com.bitorax.priziq.dto.request.session.CreateSessionRequest;
 import com.bitorax.priziq.dto.request.session.EndSessionRequest;
 import com.bitorax.priziq.dto.request.session.NextActivityRequest;
@@ -21,11 +22,16 @@ import com.bitorax.priziq.exception.ApplicationException;
 import com.bitorax.priziq.exception.ErrorCode;
 import com.bitorax.priziq.mapper.ActivityMapper;
 import com.bitorax.priziq.mapper.ActivitySubmissionMapper;
+import com.bitorax.priziq.mapper.RoleMapper;
 import com.bitorax.priziq.mapper.SessionMapper;
 import com.bitorax.priziq.repository.*;
 import com.bitorax.priziq.service.AchievementService;
 import com.bitorax.priziq.service.SessionService;
+import com.bitorax.priziq.service.job.BackgroundJobRunner;
+import com.bitorax.priziq.service.live.LiveSessionRegistry;
+import com.bitorax.priziq.utils.ActivityUtils;
 import com.bitorax.priziq.utils.QRCodeUtils;
+import com.bitorax.priziq.utils.RoleUtils;
 import com.bitorax.priziq.utils.SecurityUtils;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
@@ -44,6 +50,9 @@ import org.springframework.stereotype.Service;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -61,6 +70,11 @@ public class SessionServiceImpl implements SessionService {
     ActivitySubmissionMapper activitySubmissionMapper;
     SecurityUtils securityUtils;
     QRCodeUtils qrCodeUtils;
+    ActivityUtils activityUtils;
+    RoleUtils roleUtils;
+    RoleMapper roleMapper;
+    LiveSessionRegistry liveSessionRegistry;
+    BackgroundJobRunner backgroundJobRunner;
 
     @NonFinal
     @Value("${session.code.characters}")
@@ -117,6 +131,9 @@ public class SessionServiceImpl implements SessionService {
         session.setSessionStatus(SessionStatus.STARTED);
         sessionRepository.save(session);
 
+        // Keep scores and rankings in memory for the rest of the session
+        liveSessionRegistry.getOrLoad(session.getSessionCode());
+
         return sessionMapper.sessionToSummaryResponse(session);
     }
 
@@ -129,8 +146,13 @@ public class SessionServiceImpl implements SessionService {
             throw new ApplicationException(ErrorCode.SESSION_NOT_STARTED);
         }
 
-        // Find the next activity
-        List<Activity> activities = session.getCollection().getActivities().stream()
+        // Persist scores and rankings of the finished activity
+        liveSessionRegistry.flush(session.getSessionCode());
+
+        // Find the next activity, the activities come with their quiz and slide in one query
+        List<Activity> activities = collectionRepository.findWithActivitiesByCollectionId(session.getCollection().getCollectionId())
+                .orElseThrow(() -> new ApplicationException(ErrorCode.COLLECTION_NOT_FOUND))
+                .getActivities().stream()
                 .filter(Activity::getIsPublished)
                 .sorted(Comparator.comparingInt(Activity::getOrderIndex))
                 .toList();
@@ -140,18 +162,23 @@ public class SessionServiceImpl implements SessionService {
         }
 
         if (request.getActivityId() == null) {
-            return activityMapper.activityToDetailResponse(activities.getFirst());
+            return toActivityDetailResponse(activities.getFirst());
         }
 
         for (int i = 0; i < activities.size() - 1; i++) {
             if (activities.get(i).getActivityId().equals(request.getActivityId())) {
-                return activityMapper.activityToDetailResponse(activities.get(i + 1));
+                return toActivityDetailResponse(activities.get(i + 1));
             }
         }
 
         return null; // No next activity
     }
 
+    private ActivityDetailResponse toActivityDetailResponse(Activity activity) {
+        activityUtils.fetchActivityContents(List.of(activity));
+        return activityMapper.activityToDetailResponse(activity);
+    }
+
     @Override
     @Transactional
     public SessionEndResultResponse endSession(EndSessionRequest endSessionRequest) {
@@ -162,58 +189,77 @@ public class SessionServiceImpl implements SessionService {
             throw new ApplicationException(ErrorCode.SESSION_ALREADY_ENDED);
         }
 
+        // Persist the final in-memory scores and rankings before they are read back by the finalization job.
+        // Loading first recovers answers still buffered in Redis when the session is not in memory on this node,
+        // it must happen while the session is still STARTED
+        if (currentSession.getSessionStatus() == SessionStatus.STARTED) {
+            liveSessionRegistry.getOrLoad(currentSession.getSessionCode());
+            liveSessionRegistry.flush(currentSession.getSessionCode());
+            liveSessionRegistry.evict(currentSession.getSessionCode());
+        }
+
         // Update session status and end time
         currentSession.setEndTime(Instant.now());
         currentSession.setSessionStatus(SessionStatus.ENDED);
         sessionRepository.save(currentSession);
 
-        // Update totalPoints for each participant and collect achievement updates
-        List<AchievementUpdateResponse> achievementUpdates = new ArrayList<>();
-        List<SessionParticipant> participants = sessionParticipantRepository.findBySession_SessionId(endSessionRequest.getSessionId());
+        // Points, achievements and summaries are handled in the background once the end has been announced
+        String finalizationJobId = backgroundJobRunner.enqueue(BackgroundJobType.SESSION_FINALIZATION, currentSession.getSessionId());
+
+        return SessionEndResultResponse.builder()
+                .sessionSummary(sessionMapper.sessionToSummaryResponse(currentSession))
+                .finalizationJobId(finalizationJobId)
+                .build();
+    }
+
+    // Ends a session its host left running, in its own transaction so one failure does not undo the others of a cleanup run
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void endStaleSession(String sessionId) {
+        Session session = getSessionById(sessionId);
+        if (session.getSessionStatus() != SessionStatus.STARTED) {
+            return;
+        }
+
+        // Loading first recovers answers still buffered in Redis by a previous run
+        liveSessionRegistry.getOrLoad(session.getSessionCode());
+        liveSessionRegistry.flush(session.getSessionCode());
+        liveSessionRegistry.evict(session.getSessionCode());
+
+        session.setSessionStatus(SessionStatus.ENDED);
+        session.setEndTime(Instant.now());
+        sessionRepository.save(session);
+    }
+
+    // onAwarded runs in the same transaction, a job records its checkpoint there so points are never awarded twice
+    @Override
+    @Transactional
+    public List<AchievementUpdateResponse> awardSessionPoints(String sessionId, Consumer<List<AchievementUpdateResponse>> onAwarded) {
+        Session session = getSessionById(sessionId);
+        String hostUserid = session.getHostUser().getUserId();
+
+        // Sum the scores of each registered user, the host neither gains points nor receives achievements
+        List<SessionParticipant> participants = sessionParticipantRepository.findBySession_SessionId(sessionId);
         Map<String, Integer> userScoreMap = new HashMap<>();
-        Set<String> processedUserIds = new HashSet<>();
 
-        log.info("Processing {} participants for sessionId: {}", participants.size(), endSessionRequest.getSessionId());
+        log.info("Processing {} participants for sessionId: {}", participants.size(), sessionId);
 
         for (SessionParticipant participant : participants) {
             User user = participant.getUser();
             if (user != null) { // Only update for registered users
-                String userId = user.getUserId();
-                if (!userRepository.existsById(userId)) {
-                    log.warn("User with userId {} does not exist, skipping achievement update", userId);
-                    continue;
-                }
-                userScoreMap.merge(userId, participant.getRealtimeScore(), Integer::sum);
-
-                if (processedUserIds.add(userId)) {
-                    int scoreToAdd = userScoreMap.get(userId);
-
-                    if (!user.getUserId().equals(hostUserid)) {
-                        user.setTotalPoints(user.getTotalPoints() + scoreToAdd);
-                        userRepository.save(user);
-
-                        try {
-                            AchievementUpdateResponse updateResponse = achievementService.assignAchievementsToUser(
-                                    AssignAchievementToUserRequest.builder()
-                                            .userId(userId)
-                                            .totalPoints(user.getTotalPoints())
-                                            .build()
-                            );
-                            achievementUpdates.add(updateResponse);
-                        } catch (Exception e) {
-                            log.error("Failed to assign achievements for userId {}: {}", userId, e.getMessage(), e);
-                        }
-                    } else {
-                        log.info("Host user {} has realtimeScore {} but will not update totalPoints or receive achievements", userId, scoreToAdd);
-                    }
-                }
+                userScoreMap.merge(user.getUserId(), participant.getRealtimeScore(), Integer::sum);
             }
         }
 
-        return SessionEndResultResponse.builder()
-                .sessionSummary(sessionMapper.sessionToSummaryResponse(currentSession))
-                .achievementUpdates(achievementUpdates)
-                .build();
+        Integer hostScore = userScoreMap.remove(hostUserid);
+        if (hostScore != null) {
+            log.info("Host user {} has realtimeScore {} but will not update totalPoints or receive achievements", hostUserid, hostScore);
+        }
+
+        // Points and achievements of every user are evaluated and written together
+        List<AchievementUpdateResponse> achievementUpdates = achievementService.assignAchievementsToUsers(userScoreMap);
+        onAwarded.accept(achievementUpdates);
+        return achievementUpdates;
     }
 
     @Override
@@ -233,7 +279,15 @@ public class SessionServiceImpl implements SessionService {
 
         // Merge with client-provided specification if present and query
         Specification<Session> finalSpec = spec != null ? Specification.where(spec).and(userSpec) : userSpec;
-        Page<Session> sessionPage = this.sessionRepository.findAll(finalSpec, pageable);
+        Page<SessionDetailResponse> sessionPage = this.sessionRepository.findDetails(finalSpec, pageable);
+        Map<String, List<Role>> rolesByHostUserId = roleUtils.getRolesByUserIds(sessionPage.getContent().stream()
+                .map(session -> session.getHostUser().getUserId())
+                .collect(Collectors.toSet()));
+        sessionPage.getContent().forEach(session -> session.getHostUser().setRolesSecured(
+                rolesByHostUserId.getOrDefault(session.getHostUser().getUserId(), List.of()).stream()
+                        .map(roleMapper::roleToSecureResponse)
+                        .toList()));
+
         return PaginationResponse.builder()
                 .meta(PaginationMeta.builder()
                         .currentPage(pageable.getPageNumber() + 1) // base-index = 0
@@ -243,28 +297,27 @@ public class SessionServiceImpl implements SessionService {
                         .hasNext(sessionPage.hasNext())
                         .hasPrevious(sessionPage.hasPrevious())
                         .build())
-                .content(this.sessionMapper.sessionsToDetailResponseList(sessionPage.getContent()))
+                .content(sessionPage.getContent())
                 .build();
     }
 
     @Override
     public List<SessionEndSummaryResponse> calculateSessionSummary(String sessionId) {
         sessionRepository.findById(sessionId).orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_NOT_FOUND));
+        return calculateSessionSummary(sessionId, sessionParticipantRepository.findBySession_SessionId(sessionId));
+    }
 
-        List<SessionParticipant> participants = sessionParticipantRepository.findBySession_SessionId(sessionId);
-        List<SessionEndSummaryResponse> summaries = new ArrayList<>();
+    // Scores and counts of every participant come from one grouped query instead of one query per participant
+    private List<SessionEndSummaryResponse> calculateSessionSummary(String sessionId, List<SessionParticipant> participants) {
+        Map<String, Object[]> totalsByParticipantId = activitySubmissionRepository.summarizeSubmissionsByParticipant(sessionId).stream()
+                .collect(Collectors.toMap(row -> (String) row[0], Function.identity()));
+        List<SessionEndSummaryResponse> summaries = new ArrayList<>(participants.size());
 
         for (SessionParticipant participant : participants) {
-            List<ActivitySubmission> submissions = activitySubmissionRepository
-                    .findBySessionParticipant_SessionParticipantId(participant.getSessionParticipantId());
-
-            int finalScore = submissions.stream()
-                    .mapToInt(submission -> submission.getResponseScore() != null ? submission.getResponseScore() : 0)
-                    .sum();
-            int finalCorrectCount = (int) submissions.stream()
-                    .filter(submission -> Boolean.TRUE.equals(submission.getIsCorrect()))
-                    .count();
-            int finalIncorrectCount = submissions.size() - finalCorrectCount;
+            Object[] totals = totalsByParticipantId.get(participant.getSessionParticipantId());
+            int finalScore = totals != null ? ((Number) totals[1]).intValue() : 0;
+            int finalCorrectCount = totals != null ? ((Number) totals[2]).intValue() : 0;
+            int finalIncorrectCount = totals != null ? ((Number) totals[3]).intValue() - finalCorrectCount : 0;
 
             SessionEndSummaryResponse summary = SessionEndSummaryResponse.builder()
                     .sessionParticipantId(participant.getSessionParticipantId())
@@ -292,9 +345,11 @@ public class SessionServiceImpl implements SessionService {
         Session session = sessionRepository.findById(sessionId).orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_NOT_FOUND));
         User hostUser = session.getHostUser();
 
-        List<SessionEndSummaryResponse> summaries = calculateSessionSummary(sessionId);
         List<SessionParticipant> participants = sessionParticipantRepository.findBySession_SessionId(sessionId);
-        List<Map.Entry<String, Object>> summaryDetails = new ArrayList<>();
+        List<SessionEndSummaryResponse> summaries = calculateSessionSummary(sessionId, participants);
+        Map<String, SessionEndSummaryResponse> summariesByParticipantId = summaries.stream()
+                .collect(Collectors.toMap(SessionEndSummaryResponse::getSessionParticipantId, Function.identity()));
+        List<Map.Entry<String, Object>> summaryDetails = new ArrayList<>(participants.size());
 
         // Handle each participant
         for (SessionParticipant participant : participants) {
@@ -304,10 +359,10 @@ public class SessionServiceImpl implements SessionService {
             }
 
             // Find the corresponding SessionEndSummaryResponse
-            SessionEndSummaryResponse participantSummary = summaries.stream()
-                    .filter(summary -> summary.getSessionParticipantId().equals(participant.getSessionParticipantId()))
-                    .findFirst()
-                    .orElseThrow(() -> new ApplicationException(ErrorCode.SUMMARY_NOT_FOUND_FOR_PARTICIPANT));
+            SessionEndSummaryResponse participantSummary = summariesByParticipantId.get(participant.getSessionParticipantId());
+            if (participantSummary == null) {
+                throw new ApplicationException(ErrorCode.SUMMARY_NOT_FOUND_FOR_PARTICIPANT);
+            }
 
             // If host user, add the entire list of summaries
             if (participant.getUser() != null && hostUser != null && participant.getUser().getUserId().equals(hostUser.getUserId())) {
@@ -347,14 +402,15 @@ public class SessionServiceImpl implements SessionService {
         Page<SessionParticipant> participantPage = sessionParticipantRepository.findAll(finalSpec, pageable);
 
         // Calculate summary for session and convert to SessionParticipantHistoryResponse
-        List<SessionEndSummaryResponse> summaries = calculateSessionSummary(sessionId);
+        Map<String, SessionEndSummaryResponse> summariesByParticipantId = calculateSessionSummary(sessionId).stream()
+                .collect(Collectors.toMap(SessionEndSummaryResponse::getSessionParticipantId, Function.identity()));
         List<SessionParticipantHistoryResponse> participantHistories = participantPage.getContent().stream()
                 .map(participant -> {
                     // Find summary corresponding to participant
-                    SessionEndSummaryResponse summary = summaries.stream()
-                            .filter(s -> s.getSessionParticipantId().equals(participant.getSessionParticipantId()))
-                            .findFirst()
-                            .orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_PARTICIPANT_NOT_FOUND));
+                    SessionEndSummaryResponse summary = summariesByParticipantId.get(participant.getSessionParticipantId());
+                    if (summary == null) {
+                        throw new ApplicationException(ErrorCode.SESSION_PARTICIPANT_NOT_FOUND);
+                    }
 
                     return SessionParticipantHistoryResponse.builder()
                             .sessionParticipantId(summary.getSessionParticipantId())
@@ -1,5 +1,6 @@
 package com.bitorax.priziq.service.implement;
 
+import com.bitorax.priziq.constant.CacheNames;
 import com.bitorax.priziq.constant.RegionType;
 import com.bitorax.priziq.domain.Role;
 import com.bitorax.priziq.dto.request.auth.VerifyEmailRequest;
@@ -11,6 +12,7 @@ import com.bitorax.priziq.dto.response.user.UserSecureResponse;
 import com.bitorax.priziq.domain.User;
 import com.bitorax.priziq.exception.ApplicationException;
 import com.bitorax.priziq.exception.ErrorCode;
+import com.bitorax.priziq.mapper.RoleMapper;
 import com.bitorax.priziq.mapper.UserMapper;
 import com.bitorax.priziq.repository.UserRepository;
 import com.bitorax.priziq.service.EmailService;
@@ -25,6 +27,8 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -34,6 +38,7 @@ import org.springframework.stereotype.Service;
 import java.text.ParseException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -46,12 +51,14 @@ public class UserServiceImpl implements UserService {
     EmailService emailService;
     S3FileStorageService s3FileStorageService;
     UserMapper userMapper;
+    RoleMapper roleMapper;
     PasswordEncoder passwordEncoder;
     SecurityUtils securityUtils;
     PhoneNumberUtils phoneNumberUtils;
     RoleUtils roleUtils;
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USER_DETAILS, key = "#result.userId")
     public UserSecureResponse updateUserProfile(UpdateUserProfileRequest updateUserProfileRequest) {
         User userAuthenticated = securityUtils.getAuthenticatedUser();
         userMapper.updateUserProfileRequestToUser(userAuthenticated, updateUserProfileRequest);
@@ -59,6 +66,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USER_DETAILS, key = "#result.userId")
     public UserSecureResponse updateUserPassword(UpdateUserPasswordRequest updateUserPasswordRequest) {
         User userAuthenticated = this.securityUtils.getAuthenticatedUser();
 
@@ -91,6 +99,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USER_DETAILS, key = "#result.userId")
     public UserSecureResponse verifyEmailAndChangeNewEmail(VerifyEmailRequest verifyEmailRequest) throws ParseException, JOSEException {
         SignedJWT verifiedToken = this.securityUtils.verifyAccessToken(verifyEmailRequest.getToken());
         User userAuthenticated = this.securityUtils.getAuthenticatedUser();
@@ -103,8 +112,9 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public PaginationResponse getAllUserWithQuery(Specification<User> spec, Pageable pageable) {
-        Page<User> userPage = userRepository.findAll(spec, pageable);
+        Page<UserResponse> userPage = userRepository.findResponses(spec, pageable);
         User userAuthenticated = this.securityUtils.getAuthenticatedUser();
+        Map<String, List<Role>> rolesByUserId = roleUtils.getRolesByUserIds(userPage.getContent().stream().map(UserResponse::getUserId).toList());
 
         return PaginationResponse.builder()
                 .meta(PaginationMeta.builder()
@@ -116,18 +126,33 @@ public class UserServiceImpl implements UserService {
                         .hasPrevious(userPage.hasPrevious())
                         .build())
                 .content(this.securityUtils.isAdmin(userAuthenticated)
-                        ? this.userMapper.usersToUserResponseList(userPage.getContent())
-                        : this.userMapper.usersToUserSecureResponseList(userPage.getContent()))
+                        ? userPage.getContent().stream()
+                                .map(user -> {
+                                    user.setRoles(roleMapper.rolesToRoleResponseList(rolesByUserId.getOrDefault(user.getUserId(), List.of())));
+                                    return user;
+                                })
+                                .toList()
+                        : userPage.getContent().stream()
+                                .map(user -> {
+                                    UserSecureResponse secureResponse = userMapper.userResponseToSecureResponse(user);
+                                    secureResponse.setRolesSecured(rolesByUserId.getOrDefault(user.getUserId(), List.of()).stream()
+                                            .map(roleMapper::roleToSecureResponse)
+                                            .toList());
+                                    return secureResponse;
+                                })
+                                .toList())
                 .build();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.USER_DETAILS, key = "#userId")
     public UserSecureResponse getUserById(String userId) {
         User user = this.userRepository.findById(userId).orElseThrow(() -> new ApplicationException(ErrorCode.USER_NOT_FOUND));
         return this.userMapper.userToSecureResponse(user);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USER_DETAILS, key = "#userId")
     public UserResponse updateUserForAdmin(String userId, UpdateUserForAdminRequest updateUserForAdminRequest) {
         User currentUser = userRepository.findById(userId).orElseThrow(() -> new ApplicationException(ErrorCode.USER_NOT_FOUND));
         securityUtils.enforceProtectedEmailPolicy(currentUser.getEmail()); // can't change system email
@@ -171,6 +196,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USER_DETAILS, key = "#userId")
     public void deleteUserById(String userId) {
         User currentUser = userRepository.findById(userId)
                 .orElseThrow(() -> new ApplicationException(ErrorCode.USER_NOT_FOUND));
@@ -182,6 +208,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USER_DETAILS, key = "#userId")
     public void deleteRoleFromUser(String userId, DeleteRoleFromUserRequest deleteRoleFromUserRequest) {
         User currentUser = userRepository.findById(userId)
                 .orElseThrow(() -> new ApplicationException(ErrorCode.USER_NOT_FOUND));
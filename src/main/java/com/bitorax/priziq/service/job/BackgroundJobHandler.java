@@ -0,0 +1,11 @@
+package com.bitorax.priziq.service.job;
+
+import com.bitorax.priziq.constant.BackgroundJobType;
+import com.bitorax.priziq.domain.BackgroundJob;
+
+public interface BackgroundJobHandler {
+    BackgroundJobType getJobType();
+
+    // Called again after a failure or a restart, steps already done are skipped using the job's checkpoint
+    void handle(BackgroundJob job);
+}
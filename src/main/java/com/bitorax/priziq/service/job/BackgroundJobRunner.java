@@ -0,0 +1,118 @@
+package com.bitorax.priziq.service.job;
+
+import com.bitorax.priziq.constant.BackgroundJobStatus;
+import com.bitorax.priziq.constant.BackgroundJobType;
+import com.bitorax.priziq.domain.BackgroundJob;
+import com.bitorax.priziq.repository.BackgroundJobRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+// Runs persisted jobs on the async executor. A job is dispatched right away by whoever enqueued it,
+// the poller only picks up jobs nobody dispatched, jobs waiting for a retry and jobs of a stopped instance
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BackgroundJobRunner {
+    BackgroundJobRepository backgroundJobRepository;
+    // Looked up lazily, handlers depend on the services that enqueue their jobs
+    ObjectProvider<BackgroundJobHandler> backgroundJobHandlers;
+    Executor asyncTaskExecutor;
+
+    @NonFinal
+    @Value("${priziq.jobs.max-attempts}")
+    Integer maxAttempts;
+
+    @NonFinal
+    @Value("${priziq.jobs.retry-backoff-ms}")
+    Long retryBackoffMs;
+
+    @NonFinal
+    @Value("${priziq.jobs.dispatch-grace-ms}")
+    Long dispatchGraceMs;
+
+    @NonFinal
+    @Value("${priziq.jobs.lease-ms}")
+    Long leaseMs;
+
+    @NonFinal
+    @Value("${priziq.jobs.poll-batch-size}")
+    Integer pollBatchSize;
+
+    // Saved in the caller's transaction, so the job exists exactly when the change that needs it is committed
+    public String enqueue(BackgroundJobType jobType, String referenceId) {
+        return enqueue(jobType, referenceId, null);
+    }
+
+    public String enqueue(BackgroundJobType jobType, String referenceId, String state) {
+        BackgroundJob job = backgroundJobRepository.save(BackgroundJob.builder()
+                .jobType(jobType)
+                .referenceId(referenceId)
+                .state(state)
+                .nextAttemptAt(Instant.now().plusMillis(dispatchGraceMs))
+                .build());
+        return job.getJobId();
+    }
+
+    // Starts a job after the transaction that enqueued it has committed
+    public void dispatch(String jobId) {
+        asyncTaskExecutor.execute(() -> run(jobId));
+    }
+
+    public void runDueJobs() {
+        Instant now = Instant.now();
+        int requeued = backgroundJobRepository.requeueAbandoned(now.minusMillis(leaseMs), now,
+                BackgroundJobStatus.PENDING, BackgroundJobStatus.RUNNING);
+        if (requeued > 0) {
+            log.warn("Requeued {} background jobs abandoned while running", requeued);
+        }
+
+        List<String> jobIds = backgroundJobRepository.findDueJobIds(BackgroundJobStatus.PENDING, now, PageRequest.of(0, pollBatchSize));
+        jobIds.forEach(this::dispatch);
+    }
+
+    private void run(String jobId) {
+        if (backgroundJobRepository.claim(jobId, Instant.now(), BackgroundJobStatus.PENDING, BackgroundJobStatus.RUNNING) == 0) {
+            return;
+        }
+
+        BackgroundJob job = backgroundJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        try {
+            BackgroundJobHandler handler = backgroundJobHandlers.stream()
+                    .filter(candidate -> candidate.getJobType() == job.getJobType())
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No handler for background job type " + job.getJobType()));
+            handler.handle(job);
+
+            Instant now = Instant.now();
+            backgroundJobRepository.updateStatus(jobId, BackgroundJobStatus.COMPLETED, now, now, null);
+            log.info("Completed {} job {} for {}", job.getJobType(), jobId, job.getReferenceId());
+        } catch (Exception e) {
+            if (job.getAttempts() >= maxAttempts) {
+                backgroundJobRepository.updateStatus(jobId, BackgroundJobStatus.FAILED, Instant.now(), null, e.getMessage());
+                log.error("{} job {} for {} failed after {} attempts: {}", job.getJobType(), jobId, job.getReferenceId(), job.getAttempts(), e.getMessage(), e);
+                return;
+            }
+
+            // Exponential backoff: 1, 2, 4... times the base delay
+            long delayMs = retryBackoffMs << Math.min(job.getAttempts() - 1, 16);
+            backgroundJobRepository.updateStatus(jobId, BackgroundJobStatus.PENDING, Instant.now().plusMillis(delayMs), null, e.getMessage());
+            log.warn("{} job {} for {} failed on attempt {}, retrying in {} ms: {}", job.getJobType(), jobId, job.getReferenceId(), job.getAttempts(), delayMs, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bitorax.priziq.service.job;
+
+import com.bitorax.priziq.constant.BackgroundJobType;
+import com.bitorax.priziq.domain.BackgroundJob;
+import com.bitorax.priziq.repository.ActivityRepository;
+import com.bitorax.priziq.repository.BackgroundJobRepository;
+import com.bitorax.priziq.service.CollectionService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+// Copies the activities of a collection into the collection created for the copy, one chunk per transaction.
+// Only activity ids are held in memory, the rows are copied by the database. The checkpoint is the last
+// activity id copied, a retry resumes after it, and a chunk copied again by a retry is skipped by the engine
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CollectionCopyJobHandler implements BackgroundJobHandler {
+    CollectionService collectionService;
+    ActivityRepository activityRepository;
+    BackgroundJobRepository backgroundJobRepository;
+
+    @NonFinal
+    @Value("${priziq.jobs.collection-copy.chunk-size}")
+    Integer chunkSize;
+
+    @Override
+    public BackgroundJobType getJobType() {
+        return BackgroundJobType.COLLECTION_COPY;
+    }
+
+    @Override
+    public void handle(BackgroundJob job) {
+        String sourceCollectionId = job.getState();
+        String targetCollectionId = job.getReferenceId();
+
+        String lastActivityId = job.getCheckpoint() != null ? job.getCheckpoint() : "";
+        int processedActivities = job.getProcessedItems() != null ? job.getProcessedItems() : 0;
+        int totalActivities = (int) activityRepository.countByCollectionCollectionId(sourceCollectionId);
+        backgroundJobRepository.saveProgress(job.getJobId(), job.getCheckpoint(), processedActivities, totalActivities, Instant.now());
+
+        List<String> activityIds;
+        while (!(activityIds = activityRepository.findActivityIdsAfter(sourceCollectionId, lastActivityId, PageRequest.of(0, chunkSize))).isEmpty()) {
+            // Copied by the user who started the copy, there is no authenticated user on this thread
+            collectionService.copyActivityChunk(sourceCollectionId, targetCollectionId, job.getCreatedBy(), activityIds);
+
+            lastActivityId = activityIds.getLast();
+            processedActivities += activityIds.size();
+            backgroundJobRepository.saveProgress(job.getJobId(), lastActivityId, processedActivities,
+                    Math.max(totalActivities, processedActivities), Instant.now());
+        }
+
+        log.debug("Copied {} activities from collection {} into collection {}", processedActivities, sourceCollectionId, targetCollectionId);
+    }
+}
@@ -0,0 +1,27 @@
+package com.bitorax.priziq.service.job;
+
+import com.bitorax.priziq.constant.BackgroundJobType;
+import com.bitorax.priziq.domain.BackgroundJob;
+import com.bitorax.priziq.service.CollectionService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+// Deletes the rows of a collection marked as deleted. The purge runs in one transaction, so a retry starts over
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CollectionPurgeJobHandler implements BackgroundJobHandler {
+    CollectionService collectionService;
+
+    @Override
+    public BackgroundJobType getJobType() {
+        return BackgroundJobType.COLLECTION_PURGE;
+    }
+
+    @Override
+    public void handle(BackgroundJob job) {
+        collectionService.purgeCollection(job.getReferenceId());
+    }
+}
@@ -0,0 +1,109 @@
+package com.bitorax.priziq.service.job;
+
+import com.bitorax.priziq.constant.BackgroundJobType;
+import com.bitorax.priziq.domain.BackgroundJob;
+import com.bitorax.priziq.dto.response.achievement.AchievementUpdateResponse;
+import com.bitorax.priziq.dto.response.common.ApiResponse;
+import com.bitorax.priziq.dto.response.session.SessionEndSummaryResponse;
+import com.bitorax.priziq.repository.BackgroundJobRepository;
+import com.bitorax.priziq.service.SessionParticipantService;
+import com.bitorax.priziq.service.SessionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.bitorax.priziq.utils.MetaUtils.buildWebSocketMetaInfo;
+
+// Everything an ended session still owes its participants: total points, achievements and the private summaries.
+// Points are awarded once, the messages may be sent again when a retry follows a failed delivery
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SessionFinalizationJobHandler implements BackgroundJobHandler {
+    private static final String POINTS_AWARDED = "POINTS_AWARDED";
+
+    SessionService sessionService;
+    SessionParticipantService sessionParticipantService;
+    BackgroundJobRepository backgroundJobRepository;
+    SimpMessagingTemplate messagingTemplate;
+    ObjectMapper objectMapper;
+
+    @Override
+    public BackgroundJobType getJobType() {
+        return BackgroundJobType.SESSION_FINALIZATION;
+    }
+
+    @Override
+    public void handle(BackgroundJob job) {
+        String sessionId = job.getReferenceId();
+        String sessionCode = sessionService.findSessionCodeBySessionId(sessionId);
+
+        List<AchievementUpdateResponse> achievementUpdates = POINTS_AWARDED.equals(job.getCheckpoint())
+                ? readAchievementUpdates(job.getState())
+                : sessionService.awardSessionPoints(sessionId,
+                        updates -> backgroundJobRepository.saveCheckpoint(job.getJobId(), POINTS_AWARDED, writeAchievementUpdates(updates)));
+
+        sendSummaries(sessionId, sessionCode);
+        sendAchievementUpdates(sessionId, sessionCode, achievementUpdates);
+    }
+
+    private void sendSummaries(String sessionId, String sessionCode) {
+        List<Map.Entry<String, Object>> summaryDetails = sessionService.getSessionSummaryDetails(sessionId);
+        for (Map.Entry<String, Object> entry : summaryDetails) {
+            String stompClientId = entry.getKey();
+            Object summaryData = entry.getValue();
+
+            if (summaryData instanceof List) {
+                // Host get the full list
+                @SuppressWarnings("unchecked")
+                List<SessionEndSummaryResponse> summaries = (List<SessionEndSummaryResponse>) summaryData;
+                sendToUser(stompClientId, "/private/summary", "Final summary for all participants in session with code: %s", summaries, sessionCode);
+            } else if (summaryData instanceof SessionEndSummaryResponse individualSummary) {
+                // Other users or guests receive personal summaries
+                sendToUser(stompClientId, "/private/summary", "Your final summary for session with code: %s", individualSummary, sessionCode);
+            } else {
+                log.error("Invalid summary data type for stompClientId: {}", stompClientId);
+            }
+        }
+    }
+
+    private void sendAchievementUpdates(String sessionId, String sessionCode, List<AchievementUpdateResponse> achievementUpdates) {
+        sessionParticipantService.getAchievementUpdateDetails(achievementUpdates, sessionId)
+                .forEach(entry -> sendToUser(entry.getKey(), "/private/achievement",
+                        "Achievement updates for user in session with code: %s", entry.getValue(), sessionCode));
+    }
+
+    private <T> void sendToUser(String stompClientId, String destination, String message, T data, String sessionCode) {
+        messagingTemplate.convertAndSendToUser(stompClientId, destination, ApiResponse.<T>builder()
+                .message(String.format(message, sessionCode))
+                .data(data)
+                .meta(buildWebSocketMetaInfo(destination))
+                .build());
+    }
+
+    private String writeAchievementUpdates(List<AchievementUpdateResponse> achievementUpdates) {
+        try {
+            return objectMapper.writeValueAsString(achievementUpdates);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize achievement updates", e);
+        }
+    }
+
+    private List<AchievementUpdateResponse> readAchievementUpdates(String state) {
+        try {
+            return objectMapper.readValue(state, new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read achievement updates", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.constant.ActivityType;
+import com.bitorax.priziq.constant.PointType;
+import com.bitorax.priziq.domain.activity.Activity;
+import com.bitorax.priziq.domain.activity.quiz.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Immutable scoring view of one quiz activity, compiled once when the session starts
+// so answers are checked with hash lookups instead of walking lazy Hibernate collections
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CompiledAnswerKey {
+
+    public record LocationAnswer(String quizLocationAnswerId, double longitude, double latitude, double radiusInMeters) {}
+
+    String activityId;
+    ActivityType activityType;
+    PointType pointType;
+
+    // Quiz buttons, checkboxes, true/false, reorder, type answer
+    Set<String> answerIds;
+    Set<String> correctAnswerIds;
+    List<String> correctOrder;
+    Set<String> normalizedCorrectTexts;
+
+    // Quiz locations
+    List<LocationAnswer> locationAnswers;
+
+    // Quiz matching pairs
+    boolean matchingPairAnswerPresent;
+    Set<String> leftItemIds;
+    Set<String> rightItemIds;
+    Map<String, Set<String>> correctRightItemIdsByLeftItemId;
+    int connectionCount;
+
+    private CompiledAnswerKey(Activity activity, Quiz quiz) {
+        this.activityId = activity.getActivityId();
+        this.activityType = activity.getActivityType();
+        this.pointType = quiz.getPointType();
+
+        List<QuizAnswer> answers = Optional.ofNullable(quiz.getQuizAnswers()).orElse(List.of());
+        this.answerIds = answers.stream().map(QuizAnswer::getQuizAnswerId).collect(Collectors.toUnmodifiableSet());
+        this.correctAnswerIds = answers.stream()
+                .filter(QuizAnswer::getIsCorrect)
+                .map(QuizAnswer::getQuizAnswerId)
+                .collect(Collectors.toUnmodifiableSet());
+        this.correctOrder = answers.stream()
+                .sorted(Comparator.comparingInt(QuizAnswer::getOrderIndex))
+                .map(QuizAnswer::getQuizAnswerId)
+                .toList();
+        this.normalizedCorrectTexts = answers.stream()
+                .filter(QuizAnswer::getIsCorrect)
+                .map(answer -> normalize(answer.getAnswerText()))
+                .collect(Collectors.toUnmodifiableSet());
+
+        this.locationAnswers = Optional.ofNullable(quiz.getQuizLocationAnswers()).orElse(List.of()).stream()
+                .map(location -> new LocationAnswer(
+                        location.getQuizLocationAnswerId(),
+                        location.getLongitude(),
+                        location.getLatitude(),
+                        location.getRadius() * 1000)) // convert km to meters
+                .toList();
+
+        QuizMatchingPairAnswer matchingPairAnswer = quiz.getQuizMatchingPairAnswer();
+        this.matchingPairAnswerPresent = matchingPairAnswer != null;
+        if (matchingPairAnswer != null) {
+            this.leftItemIds = matchingPairAnswer.getItems().stream()
+                    .filter(QuizMatchingPairItem::getIsLeftColumn)
+                    .map(QuizMatchingPairItem::getQuizMatchingPairItemId)
+                    .collect(Collectors.toUnmodifiableSet());
+            this.rightItemIds = matchingPairAnswer.getItems().stream()
+                    .filter(item -> !item.getIsLeftColumn())
+                    .map(QuizMatchingPairItem::getQuizMatchingPairItemId)
+                    .collect(Collectors.toUnmodifiableSet());
+            this.correctRightItemIdsByLeftItemId = matchingPairAnswer.getConnections().stream()
+                    .collect(Collectors.groupingBy(
+                            connection -> connection.getLeftItem().getQuizMatchingPairItemId(),
+                            Collectors.mapping(connection -> connection.getRightItem().getQuizMatchingPairItemId(),
+                                    Collectors.toUnmodifiableSet())));
+            this.connectionCount = matchingPairAnswer.getConnections().size();
+        } else {
+            this.leftItemIds = Set.of();
+            this.rightItemIds = Set.of();
+            this.correctRightItemIdsByLeftItemId = Map.of();
+            this.connectionCount = 0;
+        }
+    }
+
+    // Empty for activities that are not quizzes
+    public static Optional<CompiledAnswerKey> compile(Activity activity) {
+        Quiz quiz = activity.getQuiz();
+        return quiz != null ? Optional.of(new CompiledAnswerKey(activity, quiz)) : Optional.empty();
+    }
+
+    public boolean isMatchingPairItem(String itemId) {
+        return leftItemIds.contains(itemId) || rightItemIds.contains(itemId);
+    }
+
+    public boolean isCorrectMatchingPair(String leftItemId, String rightItemId) {
+        return correctRightItemIdsByLeftItemId.getOrDefault(leftItemId, Set.of()).contains(rightItemId);
+    }
+
+    public static String normalize(String text) {
+        return text != null ? text.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,271 @@
+package com.bitorax.priziq.service.live;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Order-statistic treap ordered by score (descending), then join order (ascending).
+// Every operation is O(log N), so a single score change never re-sorts the whole room.
+// Not thread-safe, callers must guard access (LiveSession does).
+public class LiveLeaderboard {
+
+    public record RankShift(int oldRank, int newRank) {
+        public int fromRank() {
+            return Math.min(oldRank, newRank);
+        }
+
+        public int toRank() {
+            return Math.max(oldRank, newRank);
+        }
+    }
+
+    private static final class Node {
+        final String participantId;
+        final int score;
+        final long joinOrder;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(String participantId, int score, long joinOrder) {
+            this.participantId = participantId;
+            this.score = score;
+            this.joinOrder = joinOrder;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final Map<String, Node> nodes = new HashMap<>();
+    private Node root;
+    private long joinSequence;
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public boolean contains(String participantId) {
+        return nodes.containsKey(participantId);
+    }
+
+    public int scoreOf(String participantId) {
+        Node node = nodes.get(participantId);
+        return node != null ? node.score : 0;
+    }
+
+    // Returns the rank assigned to the new entry
+    public int add(String participantId, int score) {
+        if (nodes.containsKey(participantId)) {
+            return rankOf(participantId);
+        }
+        Node node = new Node(participantId, score, joinSequence++);
+        nodes.put(participantId, node);
+        root = insert(root, node);
+        return rankOf(participantId);
+    }
+
+    public void remove(String participantId) {
+        Node node = nodes.remove(participantId);
+        if (node != null) {
+            root = erase(root, node);
+        }
+    }
+
+    // 1-based rank, 0 if the participant is not on the board
+    public int rankOf(String participantId) {
+        Node target = nodes.get(participantId);
+        if (target == null) {
+            return 0;
+        }
+
+        int rank = 0;
+        Node current = root;
+        while (current != null) {
+            int cmp = compare(target, current);
+            if (cmp < 0) {
+                current = current.left;
+            } else if (cmp > 0) {
+                rank += size(current.left) + 1;
+                current = current.right;
+            } else {
+                rank += size(current.left);
+                break;
+            }
+        }
+        return rank + 1;
+    }
+
+    // Re-positions a participant, every rank inside the returned shift range may have changed
+    public RankShift updateScore(String participantId, int newScore) {
+        Node oldNode = nodes.get(participantId);
+        if (oldNode == null) {
+            int rank = add(participantId, newScore);
+            return new RankShift(rank, rank);
+        }
+
+        int oldRank = rankOf(participantId);
+        if (oldNode.score == newScore) {
+            return new RankShift(oldRank, oldRank);
+        }
+
+        root = erase(root, oldNode);
+        Node newNode = new Node(participantId, newScore, oldNode.joinOrder);
+        nodes.put(participantId, newNode);
+        root = insert(root, newNode);
+
+        return new RankShift(oldRank, rankOf(participantId));
+    }
+
+    // Participant id at a 1-based rank
+    public String participantAt(int rank) {
+        if (rank < 1 || rank > size()) {
+            return null;
+        }
+
+        int remaining = rank;
+        Node current = root;
+        while (current != null) {
+            int leftSize = size(current.left);
+            if (remaining <= leftSize) {
+                current = current.left;
+            } else if (remaining == leftSize + 1) {
+                return current.participantId;
+            } else {
+                remaining -= leftSize + 1;
+                current = current.right;
+            }
+        }
+        return null;
+    }
+
+    // Participant ids from fromRank to toRank inclusive, in rank order, in one O(log N + K) walk
+    public List<String> participantsBetween(int fromRank, int toRank) {
+        int from = Math.max(1, fromRank);
+        int to = Math.min(size(), toRank);
+        List<String> result = new ArrayList<>(Math.max(0, to - from + 1));
+        if (from <= to) {
+            collectRange(root, 0, from, to, result);
+        }
+        return result;
+    }
+
+    public List<String> rankedParticipants() {
+        List<String> result = new ArrayList<>(size());
+        collectInOrder(root, result);
+        return result;
+    }
+
+    private void collectInOrder(Node node, List<String> result) {
+        if (node == null) {
+            return;
+        }
+        collectInOrder(node.left, result);
+        result.add(node.participantId);
+        collectInOrder(node.right, result);
+    }
+
+    // In-order walk that skips subtrees outside [from, to]. ranksBefore is the number of nodes ordered before the subtree
+    private void collectRange(Node node, int ranksBefore, int from, int to, List<String> result) {
+        if (node == null) {
+            return;
+        }
+        int rank = ranksBefore + size(node.left) + 1;
+        if (from < rank) {
+            collectRange(node.left, ranksBefore, from, to, result);
+        }
+        if (from <= rank && rank <= to) {
+            result.add(node.participantId);
+        }
+        if (to > rank) {
+            collectRange(node.right, rank, from, to, result);
+        }
+    }
+
+    private Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            Node[] parts = split(tree, node);
+            node.left = parts[0];
+            node.right = parts[1];
+            update(node);
+            return node;
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    private Node erase(Node tree, Node node) {
+        if (tree == null) {
+            return null;
+        }
+        int cmp = compare(node, tree);
+        if (cmp == 0) {
+            return merge(tree.left, tree.right);
+        }
+        if (cmp < 0) {
+            tree.left = erase(tree.left, node);
+        } else {
+            tree.right = erase(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    // Splits into nodes ordered before the pivot and nodes ordered after it
+    private Node[] split(Node tree, Node pivot) {
+        if (tree == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(tree, pivot) < 0) {
+            Node[] parts = split(tree.right, pivot);
+            tree.right = parts[0];
+            update(tree);
+            return new Node[]{tree, parts[1]};
+        }
+        Node[] parts = split(tree.left, pivot);
+        tree.left = parts[1];
+        update(tree);
+        return new Node[]{parts[0], tree};
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static int compare(Node a, Node b) {
+        if (a.score != b.score) {
+            return Integer.compare(b.score, a.score);
+        }
+        return Long.compare(a.joinOrder, b.joinOrder);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+}
@@ -0,0 +1,280 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
+import com.bitorax.priziq.dto.cache.SubmissionCacheDTO;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-memory state of one started session, the source of truth for scores and rankings until flushed
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LiveSession {
+
+    public record LeaderboardDelta(long sequence, boolean keyframe, List<ParticipantCacheDTO> participants) {}
+
+    String sessionId;
+    String sessionCode;
+    String hostUserId;
+
+    @Getter(AccessLevel.NONE)
+    Set<String> activityIds;
+
+    @Getter(AccessLevel.NONE)
+    Map<String, CompiledAnswerKey> answerKeysByActivityId;
+
+    @Getter(AccessLevel.NONE)
+    Map<String, ParticipantCacheDTO> participantsById = new HashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    Map<String, String> participantIdsByWebsocketSessionId = new HashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    LiveLeaderboard leaderboard = new LiveLeaderboard();
+
+    @Getter(AccessLevel.NONE)
+    Set<String> dirtyParticipantIds = new HashSet<>();
+
+    // Participants changed since the last leaderboard delta was sent
+    @Getter(AccessLevel.NONE)
+    Set<String> deltaParticipantIds = new LinkedHashSet<>();
+
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    long deltaSequence;
+
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    long lastKeyframeAt;
+
+    // Set when a client asks to resynchronize, the next delta message is then a keyframe
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    boolean keyframeRequested;
+
+    // Participants whose personal rank message is out of date
+    @Getter(AccessLevel.NONE)
+    Set<String> rankChangedParticipantIds = new LinkedHashSet<>();
+
+    // Correct answers received per activity, their arrival order drives the speed bonus
+    @Getter(AccessLevel.NONE)
+    Map<String, AtomicInteger> correctSubmissionCounts = new ConcurrentHashMap<>();
+
+    // Submissions not yet written to the database, used when the Redis live cache is disabled or cannot be written
+    @Getter(AccessLevel.NONE)
+    List<SubmissionCacheDTO> pendingSubmissions = new ArrayList<>();
+
+    public LiveSession(String sessionId, String sessionCode, String hostUserId,
+                       Set<String> activityIds, Map<String, CompiledAnswerKey> answerKeysByActivityId) {
+        this.sessionId = sessionId;
+        this.sessionCode = sessionCode;
+        this.hostUserId = hostUserId;
+        this.activityIds = Set.copyOf(activityIds);
+        this.answerKeysByActivityId = Map.copyOf(answerKeysByActivityId);
+    }
+
+    public boolean hasActivity(String activityId) {
+        return activityIds.contains(activityId);
+    }
+
+    // Empty for activities that are not quizzes
+    public Optional<CompiledAnswerKey> findAnswerKey(String activityId) {
+        return Optional.ofNullable(answerKeysByActivityId.get(activityId));
+    }
+
+    // 0 for the first correct answer of an activity, 1 for the second, and so on
+    public int nextCorrectSubmissionRank(String activityId) {
+        return correctSubmissionCounts.computeIfAbsent(activityId, id -> new AtomicInteger()).getAndIncrement();
+    }
+
+    // Undoes nextCorrectSubmissionRank for an answer that was not accepted
+    public void releaseCorrectSubmissionRank(String activityId) {
+        correctSubmissionCounts.computeIfAbsent(activityId, id -> new AtomicInteger()).decrementAndGet();
+    }
+
+    public void addCorrectSubmissions(String activityId, int count) {
+        correctSubmissionCounts.computeIfAbsent(activityId, id -> new AtomicInteger()).addAndGet(count);
+    }
+
+    public synchronized void addParticipant(ParticipantCacheDTO participant) {
+        String participantId = participant.getSessionParticipantId();
+        int score = participant.getRealtimeScore() != null ? participant.getRealtimeScore() : 0;
+
+        participant.setRealtimeScore(score);
+        participantsById.put(participantId, participant);
+        if (participant.getWebsocketSessionId() != null) {
+            participantIdsByWebsocketSessionId.put(participant.getWebsocketSessionId(), participantId);
+        }
+
+        // Everyone ranked below the new entry moves down by one
+        int rank = leaderboard.add(participantId, score);
+        applyRanks(rank, leaderboard.size());
+    }
+
+    public synchronized Optional<ParticipantCacheDTO> findParticipant(String participantId) {
+        return Optional.ofNullable(participantsById.get(participantId)).map(LiveSession::copyOf);
+    }
+
+    public synchronized Optional<ParticipantCacheDTO> findByWebsocketSessionId(String websocketSessionId) {
+        String participantId = participantIdsByWebsocketSessionId.get(websocketSessionId);
+        return Optional.ofNullable(participantId != null ? participantsById.get(participantId) : null);
+    }
+
+    // Adds responseScore to a participant and returns only the participants whose score or rank changed
+    public synchronized List<ParticipantCacheDTO> applyScore(String participantId, int responseScore) {
+        ParticipantCacheDTO participant = participantsById.get(participantId);
+        if (participant == null) {
+            return List.of();
+        }
+
+        int newScore = participant.getRealtimeScore() + responseScore;
+        participant.setRealtimeScore(newScore);
+        dirtyParticipantIds.add(participantId);
+
+        LiveLeaderboard.RankShift shift = leaderboard.updateScore(participantId, newScore);
+        List<ParticipantCacheDTO> changed = applyRanks(shift.fromRank(), shift.toRank());
+        if (!changed.contains(participant)) {
+            changed.addFirst(participant);
+        }
+        changed.forEach(changedParticipant -> {
+            deltaParticipantIds.add(changedParticipant.getSessionParticipantId());
+            rankChangedParticipantIds.add(changedParticipant.getSessionParticipantId());
+        });
+        return changed.stream().map(LiveSession::copyOf).toList();
+    }
+
+    public synchronized Optional<ParticipantCacheDTO> markDisconnected(String websocketSessionId) {
+        return findByWebsocketSessionId(websocketSessionId).map(participant -> {
+            participant.setIsConnected(false);
+            dirtyParticipantIds.add(participant.getSessionParticipantId());
+            deltaParticipantIds.add(participant.getSessionParticipantId());
+            return copyOf(participant);
+        });
+    }
+
+    public synchronized List<String> getWebsocketSessionIds() {
+        return List.copyOf(participantIdsByWebsocketSessionId.keySet());
+    }
+
+    // Participants ordered by rank
+    public synchronized List<ParticipantCacheDTO> getRankedParticipants() {
+        return leaderboard.rankedParticipants().stream()
+                .map(participantsById::get)
+                .map(LiveSession::copyOf)
+                .toList();
+    }
+
+    // The leading participants only, O(size log N) regardless of the audience
+    public synchronized List<ParticipantCacheDTO> getTopParticipants(int size) {
+        return leaderboard.participantsBetween(1, size).stream()
+                .map(participantsById::get)
+                .map(LiveSession::copyOf)
+                .toList();
+    }
+
+    public synchronized int getParticipantCount() {
+        return leaderboard.size();
+    }
+
+    // Participants whose score or ranking changed since their last personal rank message
+    public synchronized List<ParticipantCacheDTO> drainRankChanges() {
+        List<ParticipantCacheDTO> changed = rankChangedParticipantIds.stream()
+                .map(participantsById::get)
+                .map(LiveSession::copyOf)
+                .toList();
+        rankChangedParticipantIds.clear();
+        return changed;
+    }
+
+    // Participants whose score or ranking changed since the last drain
+    public synchronized List<ParticipantCacheDTO> drainDirtyParticipants() {
+        List<ParticipantCacheDTO> dirty = dirtyParticipantIds.stream()
+                .map(participantsById::get)
+                .filter(Objects::nonNull)
+                .map(LiveSession::copyOf)
+                .toList();
+        dirtyParticipantIds.clear();
+        return dirty;
+    }
+
+    public synchronized List<ParticipantCacheDTO> getConnectedParticipants() {
+        return participantsById.values().stream()
+                .filter(participant -> Boolean.TRUE.equals(participant.getIsConnected()))
+                .map(LiveSession::copyOf)
+                .toList();
+    }
+
+    // The first message, every keyframeInterval-th one, the first one keyframeMaxAgeMs after the last keyframe
+    // and the one following a request carry the whole leaderboard
+    public synchronized LeaderboardDelta drainLeaderboardDelta(int keyframeInterval, long keyframeMaxAgeMs) {
+        long sequence = ++deltaSequence;
+        long now = System.currentTimeMillis();
+        boolean keyframe = sequence == 1 || sequence % keyframeInterval == 0 || keyframeRequested
+                || now - lastKeyframeAt >= keyframeMaxAgeMs;
+        if (keyframe) {
+            lastKeyframeAt = now;
+            keyframeRequested = false;
+        }
+        List<ParticipantCacheDTO> participants = keyframe
+                ? getRankedParticipants()
+                : deltaParticipantIds.stream().map(participantsById::get).map(LiveSession::copyOf).toList();
+        deltaParticipantIds.clear();
+        return new LeaderboardDelta(sequence, keyframe, participants);
+    }
+
+    public synchronized void requestKeyframe() {
+        keyframeRequested = true;
+    }
+
+    public synchronized void bufferSubmissions(List<SubmissionCacheDTO> submissions) {
+        pendingSubmissions.addAll(submissions);
+    }
+
+    public synchronized List<SubmissionCacheDTO> getPendingSubmissions() {
+        return List.copyOf(pendingSubmissions);
+    }
+
+    // Drops the count oldest buffered submissions once they are persisted, later ones were appended after them
+    public synchronized void removePendingSubmissions(int count) {
+        pendingSubmissions.subList(0, Math.min(count, pendingSubmissions.size())).clear();
+    }
+
+    public synchronized void markDirty(List<ParticipantCacheDTO> participants) {
+        participants.forEach(participant -> dirtyParticipantIds.add(participant.getSessionParticipantId()));
+    }
+
+    private List<ParticipantCacheDTO> applyRanks(int fromRank, int toRank) {
+        List<ParticipantCacheDTO> changed = new ArrayList<>();
+        int rank = fromRank;
+        for (String participantId : leaderboard.participantsBetween(fromRank, toRank)) {
+            ParticipantCacheDTO participant = participantsById.get(participantId);
+            if (!Objects.equals(participant.getRealtimeRanking(), rank)) {
+                participant.setRealtimeRanking(rank);
+                dirtyParticipantIds.add(participantId);
+                changed.add(participant);
+            }
+            rank++;
+        }
+        return changed;
+    }
+
+    private static ParticipantCacheDTO copyOf(ParticipantCacheDTO participant) {
+        return ParticipantCacheDTO.builder()
+                .sessionParticipantId(participant.getSessionParticipantId())
+                .sessionId(participant.getSessionId())
+                .userId(participant.getUserId())
+                .displayName(participant.getDisplayName())
+                .displayAvatar(participant.getDisplayAvatar())
+                .websocketSessionId(participant.getWebsocketSessionId())
+                .stompClientId(participant.getStompClientId())
+                .realtimeScore(participant.getRealtimeScore())
+                .realtimeRanking(participant.getRealtimeRanking())
+                .isConnected(participant.getIsConnected())
+                .build();
+    }
+}
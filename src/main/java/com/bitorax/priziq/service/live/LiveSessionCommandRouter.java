@@ -0,0 +1,173 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.dto.cache.ForwardedCommandCacheDTO;
+import com.bitorax.priziq.repository.SessionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Routes /server/session/* commands to the node owning the session. A command received by another node
+// is published on the owner's Redis channel and re-sent on its client inbound channel, so it goes through the
+// same interceptors as a frame of a locally connected client; replies reach the client through the broker, which must run in redis mode when ownership is enabled
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LiveSessionCommandRouter implements ChannelInterceptor, MessageListener {
+    private static final String SESSION_COMMAND_PREFIX = "/server/session/";
+    private static final String NODE_CHANNEL_PREFIX = "priziq:live:node:";
+    private static final String SEND = "SEND";
+    private static final String DISCONNECT = "DISCONNECT";
+    private static final String CLIENT_INBOUND_CHANNEL = "clientInboundChannel";
+
+    private record ForwardedUser(String name) implements Principal {
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    LiveSessionOwnership liveSessionOwnership;
+    SessionRepository sessionRepository;
+    RedisTemplate<String, Object> redisTemplate;
+    ObjectMapper objectMapper;
+    ApplicationEventPublisher eventPublisher;
+    // Looked up by name when a command arrives, the channel is built from the configuration using this interceptor
+    ApplicationContext applicationContext;
+
+    // Session ids never change their code, so the lookup is done once per session
+    Map<String, String> sessionCodesBySessionId = new ConcurrentHashMap<>();
+
+    public String getNodeChannel() {
+        return NODE_CHANNEL_PREFIX + liveSessionOwnership.getNodeId();
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!liveSessionOwnership.isEnabled()) {
+            return message;
+        }
+
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.SEND.equals(accessor.getCommand())
+                || accessor.getDestination() == null || !accessor.getDestination().startsWith(SESSION_COMMAND_PREFIX)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        Optional<String> owner = resolveSessionCode(payload).flatMap(liveSessionOwnership::findRemoteOwner);
+        if (owner.isEmpty()) {
+            return message;
+        }
+
+        MimeType contentType = accessor.getContentType();
+        forward(owner.get(), ForwardedCommandCacheDTO.builder()
+                .command(SEND)
+                .destination(accessor.getDestination())
+                .contentType(contentType != null ? contentType.toString() : null)
+                .payload(payload)
+                .websocketSessionId(accessor.getSessionId())
+                .stompClientId(accessor.getUser() != null ? accessor.getUser().getName() : null)
+                .build());
+        // Dropped here, the owner handles it
+        return null;
+    }
+
+    // True when the session is owned by another node, which then handles the disconnect
+    public boolean forwardDisconnect(String sessionCode, String websocketSessionId, Principal user) {
+        Optional<String> owner = liveSessionOwnership.findRemoteOwner(sessionCode);
+        owner.ifPresent(nodeId -> forward(nodeId, ForwardedCommandCacheDTO.builder()
+                .command(DISCONNECT)
+                .websocketSessionId(websocketSessionId)
+                .stompClientId(user != null ? user.getName() : null)
+                .build()));
+        return owner.isPresent();
+    }
+
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message redisMessage, byte[] pattern) {
+        try {
+            ForwardedCommandCacheDTO command = (ForwardedCommandCacheDTO) redisTemplate.getValueSerializer().deserialize(redisMessage.getBody());
+            if (command == null) {
+                return;
+            }
+
+            Principal user = command.getStompClientId() != null ? new ForwardedUser(command.getStompClientId()) : null;
+            if (DISCONNECT.equals(command.getCommand())) {
+                StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+                accessor.setSessionId(command.getWebsocketSessionId());
+                accessor.setUser(user);
+                Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+                eventPublisher.publishEvent(new SessionDisconnectEvent(this, message, command.getWebsocketSessionId(), CloseStatus.NORMAL, user));
+                return;
+            }
+
+            applicationContext.getBean(CLIENT_INBOUND_CHANNEL, MessageChannel.class).send(toLocalMessage(command, user));
+        } catch (Exception e) {
+            log.error("Failed to handle forwarded session command: {}", e.getMessage(), e);
+        }
+    }
+
+    private Message<byte[]> toLocalMessage(ForwardedCommandCacheDTO command, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination(command.getDestination());
+        accessor.setSessionId(command.getWebsocketSessionId());
+        accessor.setUser(user);
+        if (command.getContentType() != null) {
+            accessor.setContentType(MimeType.valueOf(command.getContentType()));
+        }
+
+        Map<String, Object> sessionAttributes = new HashMap<>();
+        sessionAttributes.put("websocketSessionId", command.getWebsocketSessionId());
+        sessionAttributes.put("stompClientId", command.getStompClientId());
+        accessor.setSessionAttributes(sessionAttributes);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(command.getPayload(), accessor.getMessageHeaders());
+    }
+
+    private void forward(String nodeId, ForwardedCommandCacheDTO command) {
+        redisTemplate.convertAndSend(NODE_CHANNEL_PREFIX + nodeId, command);
+    }
+
+    // Commands identify their session by code (join, leave, submit...) or by id (start, next, complete)
+    private Optional<String> resolveSessionCode(byte[] payload) {
+        try {
+            JsonNode body = objectMapper.readTree(payload);
+            if (body.hasNonNull("sessionCode")) {
+                return Optional.of(body.get("sessionCode").asText());
+            }
+            if (body.hasNonNull("sessionId")) {
+                String sessionId = body.get("sessionId").asText();
+                return Optional.ofNullable(sessionCodesBySessionId.computeIfAbsent(sessionId,
+                        id -> sessionRepository.findSessionCodeBySessionId(id).orElse(null)));
+            }
+        } catch (Exception e) {
+            log.debug("Could not read the session of a command, handling it locally: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,83 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.constant.SessionStatus;
+import com.bitorax.priziq.domain.activity.Activity;
+import com.bitorax.priziq.domain.session.Session;
+import com.bitorax.priziq.domain.session.SessionParticipant;
+import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
+import com.bitorax.priziq.exception.ApplicationException;
+import com.bitorax.priziq.exception.ErrorCode;
+import com.bitorax.priziq.mapper.cache.ParticipantCacheMapper;
+import com.bitorax.priziq.repository.ActivitySubmissionRepository;
+import com.bitorax.priziq.repository.SessionParticipantRepository;
+import com.bitorax.priziq.repository.SessionRepository;
+import jakarta.transaction.Transactional;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Builds the in-memory state of a started session, in its own transaction so lazy collections can be walked
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LiveSessionLoader {
+    SessionRepository sessionRepository;
+    SessionParticipantRepository sessionParticipantRepository;
+    ActivitySubmissionRepository activitySubmissionRepository;
+    ParticipantCacheMapper participantCacheMapper;
+    LiveSessionStore liveSessionStore;
+
+    @Transactional
+    public LiveSession load(String sessionCode) {
+        Session session = sessionRepository.findBySessionCode(sessionCode)
+                .orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_NOT_FOUND));
+
+        if (session.getSessionStatus() != SessionStatus.STARTED) {
+            throw new ApplicationException(ErrorCode.SESSION_NOT_STARTED);
+        }
+
+        // Answer keys are compiled from the collection as it is when the session starts
+        Map<String, CompiledAnswerKey> answerKeys = new HashMap<>();
+        Set<String> activityIds = new HashSet<>();
+        for (Activity activity : session.getCollection().getActivities()) {
+            activityIds.add(activity.getActivityId());
+            CompiledAnswerKey.compile(activity).ifPresent(answerKey -> answerKeys.put(activity.getActivityId(), answerKey));
+        }
+
+        LiveSession liveSession = new LiveSession(session.getSessionId(), sessionCode, session.getHostUser().getUserId(),
+                activityIds, answerKeys);
+
+        // Participants still in Redis carry scores that may not have been flushed yet
+        List<ParticipantCacheDTO> participants = liveSessionStore.findCachedParticipants(session.getSessionId()).stream()
+                .sorted(Comparator.comparing(ParticipantCacheDTO::getRealtimeRanking, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        boolean restored = !participants.isEmpty();
+        if (!restored) {
+            participants = sessionParticipantRepository.findBySession_SessionCode(sessionCode).stream()
+                    .sorted(Comparator.comparing(SessionParticipant::getCreatedAt))
+                    .map(participantCacheMapper::sessionParticipantToCacheDTO)
+                    .toList();
+        }
+
+        participants.forEach(liveSession::addParticipant);
+
+        // Resume speed bonus ranks after correct answers already received, when the session is reloaded
+        for (Object[] row : activitySubmissionRepository.countCorrectSubmissionsByActivity(session.getSessionId())) {
+            liveSession.addCorrectSubmissions((String) row[0], ((Long) row[1]).intValue());
+        }
+        liveSessionStore.findCachedSubmissions(session.getSessionId()).stream()
+                .filter(submission -> Boolean.TRUE.equals(submission.getIsCorrect()))
+                .forEach(submission -> liveSession.addCorrectSubmissions(submission.getActivityId(), 1));
+        if (!restored) {
+            liveSessionStore.preload(session, liveSession.getRankedParticipants());
+        }
+
+        log.info("Loaded live session with code: {}", sessionCode);
+        return liveSession;
+    }
+}
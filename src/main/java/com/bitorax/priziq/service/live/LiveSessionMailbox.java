@@ -0,0 +1,93 @@
+package com.bitorax.priziq.service.live;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Serial executor per session code: the commands of one session run one at a time in arrival order,
+// so they never race on the same rows, while different sessions run in parallel on the mailbox executor
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LiveSessionMailbox {
+    // Commands run per turn before the worker is handed back, so a busy session cannot hold a thread forever
+    private static final int MAX_COMMANDS_PER_TURN = 64;
+    private static final long RETRY_DELAY_MS = 100;
+
+    Executor liveSessionMailboxExecutor;
+    ThreadPoolTaskScheduler liveSessionScheduler;
+
+    Map<String, Mailbox> mailboxesBySessionCode = new ConcurrentHashMap<>();
+
+    private static final class Mailbox {
+        final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean running = new AtomicBoolean();
+    }
+
+    public void submit(String sessionCode, Runnable command) {
+        Mailbox mailbox = mailboxesBySessionCode.computeIfAbsent(sessionCode, code -> new Mailbox());
+        mailbox.commands.add(command);
+        schedule(sessionCode, mailbox);
+    }
+
+    public void discard(String sessionCode) {
+        mailboxesBySessionCode.remove(sessionCode);
+    }
+
+    private void schedule(String sessionCode, Mailbox mailbox) {
+        if (mailbox.commands.isEmpty() || !mailbox.running.compareAndSet(false, true)) {
+            return;
+        }
+
+        dispatch(sessionCode, mailbox);
+    }
+
+    // A mailbox with queued commands always has a runner pending: a rejected runner is retried after a delay,
+    // keeping the mailbox marked as running so submits do not race the retry
+    private void dispatch(String sessionCode, Mailbox mailbox) {
+        try {
+            liveSessionMailboxExecutor.execute(() -> run(sessionCode, mailbox));
+        } catch (RejectedExecutionException e) {
+            log.warn("Failed to schedule commands for session with code {}, retrying in {} ms: {}",
+                    sessionCode, RETRY_DELAY_MS, e.getMessage());
+            try {
+                liveSessionScheduler.schedule(() -> dispatch(sessionCode, mailbox), Instant.now().plusMillis(RETRY_DELAY_MS));
+            } catch (RejectedExecutionException shutdown) {
+                // Only happens while the application shuts down
+                mailbox.running.set(false);
+                log.error("Dropped {} commands for session with code {}: {}",
+                        mailbox.commands.size(), sessionCode, shutdown.getMessage());
+            }
+        }
+    }
+
+    private void run(String sessionCode, Mailbox mailbox) {
+        try {
+            Runnable command;
+            int processed = 0;
+            while (processed++ < MAX_COMMANDS_PER_TURN && (command = mailbox.commands.poll()) != null) {
+                try {
+                    command.run();
+                } catch (Exception e) {
+                    log.error("Failed to run command for session with code {}: {}", sessionCode, e.getMessage(), e);
+                }
+            }
+        } finally {
+            mailbox.running.set(false);
+            schedule(sessionCode, mailbox);
+        }
+    }
+}
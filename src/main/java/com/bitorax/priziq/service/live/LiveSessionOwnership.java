@@ -0,0 +1,116 @@
+package com.bitorax.priziq.service.live;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Single-writer ownership of live sessions across instances: the first node to claim a session code holds
+// a Redis lease on it and keeps renewing it. Sessions are claimed only when a node loads them, so commands for
+// sessions that are not running take no lease. When the owner dies the lease expires and the next command is
+// handled by the node receiving it, which claims the session and reloads its state from the Redis live cache
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LiveSessionOwnership {
+    private static final String OWNER_KEY_PREFIX = "session:owner:";
+
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    StringRedisTemplate stringRedisTemplate;
+
+    @Getter
+    String nodeId = UUID.randomUUID().toString();
+
+    Set<String> ownedSessionCodes = ConcurrentHashMap.newKeySet();
+
+    @NonFinal
+    @Value("${priziq.session.ownership.enabled}")
+    Boolean enabled;
+
+    @NonFinal
+    @Value("${priziq.session.ownership.lease-ms}")
+    Long leaseMs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The node holding the lease of a session, empty when this node holds it or nobody does. Never claims it
+    public Optional<String> findRemoteOwner(String sessionCode) {
+        if (!enabled || ownedSessionCodes.contains(sessionCode)) {
+            return Optional.empty();
+        }
+
+        String owner = stringRedisTemplate.opsForValue().get(OWNER_KEY_PREFIX + sessionCode);
+        return owner == null || nodeId.equals(owner) ? Optional.empty() : Optional.of(owner);
+    }
+
+    // True when this node owns the session, claiming it if nobody does
+    public boolean claim(String sessionCode) {
+        if (!enabled || ownedSessionCodes.contains(sessionCode)) {
+            return true;
+        }
+
+        String key = OWNER_KEY_PREFIX + sessionCode;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, nodeId, Duration.ofMillis(leaseMs)))) {
+                ownedSessionCodes.add(sessionCode);
+                log.info("Node {} claimed live session with code: {}", nodeId, sessionCode);
+                return true;
+            }
+
+            String owner = stringRedisTemplate.opsForValue().get(key);
+            if (nodeId.equals(owner)) {
+                ownedSessionCodes.add(sessionCode);
+                return true;
+            }
+            if (owner != null) {
+                return false;
+            }
+            // The lease expired between both calls, try to claim it again
+        }
+        throw new IllegalStateException("Could not resolve the owner of live session " + sessionCode);
+    }
+
+    // Extends the leases of every owned session and returns the codes whose lease was lost meanwhile
+    public List<String> renewAll() {
+        List<String> lostSessionCodes = new ArrayList<>();
+        for (String sessionCode : ownedSessionCodes) {
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(OWNER_KEY_PREFIX + sessionCode), nodeId, String.valueOf(leaseMs));
+            if (renewed == null || renewed == 0) {
+                ownedSessionCodes.remove(sessionCode);
+                lostSessionCodes.add(sessionCode);
+                log.warn("Node {} lost the lease of live session with code: {}", nodeId, sessionCode);
+            }
+        }
+        return lostSessionCodes;
+    }
+
+    public void release(String sessionCode) {
+        if (enabled && ownedSessionCodes.remove(sessionCode)) {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(OWNER_KEY_PREFIX + sessionCode), nodeId);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.constant.SessionStatus;
+import com.bitorax.priziq.exception.ApplicationException;
+import com.bitorax.priziq.exception.ErrorCode;
+import com.bitorax.priziq.repository.SessionRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LiveSessionRegistry {
+    LiveSessionLoader liveSessionLoader;
+    LiveSessionStore liveSessionStore;
+    LiveSubmissionPipeline liveSubmissionPipeline;
+    ParticipantBroadcastScheduler participantBroadcastScheduler;
+    LiveSessionOwnership liveSessionOwnership;
+    LiveSessionMailbox liveSessionMailbox;
+    SessionRepository sessionRepository;
+
+    Map<String, LiveSession> liveSessions = new ConcurrentHashMap<>();
+    Map<String, String> sessionCodesByWebsocketSessionId = new ConcurrentHashMap<>();
+    Map<String, CompletableFuture<LiveSession>> loadsInFlight = new ConcurrentHashMap<>();
+
+    // Loads the session into memory once, subsequent calls are served without touching the database.
+    // Concurrent callers share a single load, which runs outside the map so a slow load blocks no other session
+    public LiveSession getOrLoad(String sessionCode) {
+        LiveSession liveSession = liveSessions.get(sessionCode);
+        if (liveSession != null) {
+            return liveSession;
+        }
+
+        CompletableFuture<LiveSession> load = new CompletableFuture<>();
+        CompletableFuture<LiveSession> inFlight = loadsInFlight.putIfAbsent(sessionCode, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            // Another caller may have finished loading it since the first lookup
+            liveSession = liveSessions.get(sessionCode);
+            if (liveSession == null) {
+                liveSession = load(sessionCode);
+                liveSessions.put(sessionCode, liveSession);
+            }
+            load.complete(liveSession);
+            return liveSession;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadsInFlight.remove(sessionCode, load);
+        }
+    }
+
+    public Optional<LiveSession> find(String sessionCode) {
+        return Optional.ofNullable(liveSessions.get(sessionCode));
+    }
+
+    // Resolves the live session a websocket connection takes part in
+    public Optional<LiveSession> findByWebsocketSessionId(String websocketSessionId) {
+        String sessionCode = sessionCodesByWebsocketSessionId.get(websocketSessionId);
+        return sessionCode != null ? find(sessionCode) : Optional.empty();
+    }
+
+    // Writes the submissions, scores and rankings recorded since the last flush
+    public void flush(String sessionCode) {
+        find(sessionCode).ifPresent(liveSession -> {
+            liveSubmissionPipeline.drainNow(liveSession);
+            liveSessionStore.flush(liveSession);
+        });
+    }
+
+    // Applied once the caller's transaction commits: when it rolls back the session stays live, with its Redis state
+    public void evict(String sessionCode) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(sessionCode);
+                }
+            });
+        } else {
+            evictNow(sessionCode);
+        }
+    }
+
+    // Drops the in-memory copy of a session whose ownership moved to another node, keeping its Redis state
+    public Optional<LiveSession> detach(String sessionCode) {
+        LiveSession liveSession = liveSessions.remove(sessionCode);
+        if (liveSession != null) {
+            liveSubmissionPipeline.discard(sessionCode);
+            participantBroadcastScheduler.discard(sessionCode);
+            liveSessionMailbox.discard(sessionCode);
+            liveSession.getWebsocketSessionIds().forEach(sessionCodesByWebsocketSessionId::remove);
+        }
+        return Optional.ofNullable(liveSession);
+    }
+
+    private LiveSession load(String sessionCode) {
+        // Only a started session is worth a lease, any other would hold it until it expires
+        SessionStatus sessionStatus = sessionRepository.findSessionStatusBySessionCode(sessionCode)
+                .orElseThrow(() -> new ApplicationException(ErrorCode.SESSION_NOT_FOUND));
+        if (sessionStatus != SessionStatus.STARTED) {
+            throw new ApplicationException(ErrorCode.SESSION_NOT_STARTED);
+        }
+
+        if (!liveSessionOwnership.claim(sessionCode)) {
+            throw new ApplicationException(ErrorCode.SESSION_OWNED_BY_ANOTHER_NODE);
+        }
+        try {
+            return index(liveSessionLoader.load(sessionCode));
+        } catch (RuntimeException e) {
+            liveSessionOwnership.release(sessionCode);
+            throw e;
+        }
+    }
+
+    private LiveSession await(CompletableFuture<LiveSession> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evictNow(String sessionCode) {
+        detach(sessionCode).ifPresent(liveSessionStore::clear);
+        liveSessionOwnership.release(sessionCode);
+    }
+
+    private LiveSession index(LiveSession liveSession) {
+        liveSession.getWebsocketSessionIds()
+                .forEach(websocketSessionId -> sessionCodesByWebsocketSessionId.put(websocketSessionId, liveSession.getSessionCode()));
+        return liveSession;
+    }
+}
@@ -0,0 +1,228 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.domain.activity.Activity;
+import com.bitorax.priziq.domain.session.ActivitySubmission;
+import com.bitorax.priziq.domain.session.Session;
+import com.bitorax.priziq.domain.session.SessionParticipant;
+import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
+import com.bitorax.priziq.dto.cache.SubmissionCacheDTO;
+import com.bitorax.priziq.mapper.cache.ActivityCacheMapper;
+import com.bitorax.priziq.mapper.cache.CollectionCacheMapper;
+import com.bitorax.priziq.mapper.cache.SessionCacheMapper;
+import com.bitorax.priziq.repository.ActivityRepository;
+import com.bitorax.priziq.repository.ActivitySubmissionRepository;
+import com.bitorax.priziq.repository.SessionParticipantRepository;
+import com.bitorax.priziq.service.cache.SessionRedisCache;
+import jakarta.transaction.Transactional;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Write-behind store of a live session: answers are recorded in Redis (or in memory when the live cache is disabled)
+// and persisted to the database only at activity boundaries and when the session ends
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LiveSessionStore {
+    SessionRedisCache sessionRedisCache;
+    SessionCacheMapper sessionCacheMapper;
+    CollectionCacheMapper collectionCacheMapper;
+    ActivityCacheMapper activityCacheMapper;
+    ActivityRepository activityRepository;
+    ActivitySubmissionRepository activitySubmissionRepository;
+    SessionParticipantRepository sessionParticipantRepository;
+
+    @NonFinal
+    @Value("${priziq.session.live-cache.enabled}")
+    Boolean liveCacheEnabled;
+
+    @NonFinal
+    @Value("${priziq.session.live-cache.flush-batch-size}")
+    Integer flushBatchSize;
+
+    // Loads the session, its published activities and its participants into Redis
+    public void preload(Session session, List<ParticipantCacheDTO> participants) {
+        if (!liveCacheEnabled) {
+            return;
+        }
+
+        String sessionId = session.getSessionId();
+        sessionRedisCache.cacheSession(sessionId, sessionCacheMapper.sessionToCacheDTO(session));
+        sessionRedisCache.cacheCollection(sessionId, collectionCacheMapper.collectionToCacheDTO(session.getCollection()));
+        sessionRedisCache.cacheActivities(sessionId, session.getCollection().getActivities().stream()
+                .filter(Activity::getIsPublished)
+                .sorted(Comparator.comparingInt(Activity::getOrderIndex))
+                .map(activityCacheMapper::activityToCacheDTO)
+                .toList());
+        sessionRedisCache.cacheParticipants(sessionId, participants);
+    }
+
+    // Participants kept in Redis by a previous run, empty when the session was never preloaded
+    public List<ParticipantCacheDTO> findCachedParticipants(String sessionId) {
+        if (!liveCacheEnabled) {
+            return List.of();
+        }
+        return sessionRedisCache.getCachedParticipants(sessionId);
+    }
+
+    // Never throws: submissions that cannot be written to Redis are kept in memory and persisted by the next flush,
+    // only a crash of this instance before then would lose them
+    public void recordSubmissions(LiveSession liveSession, List<SubmissionCacheDTO> submissions) {
+        if (submissions.isEmpty()) {
+            return;
+        }
+        if (liveCacheEnabled) {
+            try {
+                sessionRedisCache.appendSubmissions(liveSession.getSessionId(), submissions);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to record {} submissions in Redis for session with code {}, keeping them in memory: {}",
+                        submissions.size(), liveSession.getSessionCode(), e.getMessage(), e);
+            }
+        }
+        liveSession.bufferSubmissions(submissions);
+    }
+
+    // Submissions still in Redis from a previous run, not yet written to the database
+    public List<SubmissionCacheDTO> findCachedSubmissions(String sessionId) {
+        if (!liveCacheEnabled) {
+            return List.of();
+        }
+        return sessionRedisCache.getCachedSubmissions(sessionId);
+    }
+
+    public void recordParticipants(LiveSession liveSession, List<ParticipantCacheDTO> participants) {
+        if (liveCacheEnabled && !participants.isEmpty()) {
+            sessionRedisCache.updateParticipants(liveSession.getSessionId(), participants);
+        }
+    }
+
+    // Persists pending submissions and the participants changed since the last flush. Submissions are removed
+    // from Redis and memory only once the transaction has committed, a rollback leaves everything for the next flush
+    @Transactional
+    public void flush(LiveSession liveSession) {
+        int submissionCount = flushSubmissions(liveSession);
+        int participantCount = flushParticipants(liveSession);
+
+        if (submissionCount > 0 || participantCount > 0) {
+            log.info("Flushed {} submissions and {} participants for session with code: {}",
+                    submissionCount, participantCount, liveSession.getSessionCode());
+        }
+    }
+
+    public void clear(LiveSession liveSession) {
+        if (liveCacheEnabled) {
+            sessionRedisCache.removeCachedSession(liveSession.getSessionId());
+        }
+    }
+
+    private int flushSubmissions(LiveSession liveSession) {
+        // Submissions Redis could not take wait in memory, in either mode
+        List<SubmissionCacheDTO> buffered = liveSession.getPendingSubmissions();
+        for (int from = 0; from < buffered.size(); from += flushBatchSize) {
+            saveSubmissions(buffered.subList(from, Math.min(buffered.size(), from + flushBatchSize)));
+        }
+
+        int cachedCount = 0;
+        if (liveCacheEnabled) {
+            List<SubmissionCacheDTO> batch;
+            while (!(batch = sessionRedisCache.getSubmissions(liveSession.getSessionId(), cachedCount, flushBatchSize)).isEmpty()) {
+                saveSubmissions(batch);
+                cachedCount += batch.size();
+            }
+        }
+
+        int flushedCachedCount = cachedCount;
+        afterCompletion(committed -> {
+            if (!committed) {
+                return;
+            }
+            liveSession.removePendingSubmissions(buffered.size());
+            if (flushedCachedCount > 0) {
+                sessionRedisCache.removeSubmissions(liveSession.getSessionId(), flushedCachedCount);
+            }
+        });
+        return buffered.size() + cachedCount;
+    }
+
+    // Submissions whose removal from Redis failed after their commit are read again, their rows already exist
+    private void saveSubmissions(List<SubmissionCacheDTO> submissions) {
+        List<String> submissionIds = submissions.stream()
+                .map(SubmissionCacheDTO::getActivitySubmissionId)
+                .filter(Objects::nonNull)
+                .toList();
+        Set<String> persistedIds = submissionIds.isEmpty() ? Set.of() : activitySubmissionRepository.findExistingIds(submissionIds);
+        activitySubmissionRepository.saveAll(submissions.stream()
+                .filter(submission -> !persistedIds.contains(submission.getActivitySubmissionId()))
+                .map(this::toActivitySubmission)
+                .toList());
+    }
+
+    private int flushParticipants(LiveSession liveSession) {
+        List<ParticipantCacheDTO> dirtyParticipants = liveSession.drainDirtyParticipants();
+        if (dirtyParticipants.isEmpty()) {
+            return 0;
+        }
+
+        // Written again by the next flush unless this transaction commits
+        afterCompletion(committed -> {
+            if (!committed) {
+                liveSession.markDirty(dirtyParticipants);
+            }
+        });
+
+        Map<String, ParticipantCacheDTO> dirtyById = dirtyParticipants.stream()
+                .collect(Collectors.toMap(ParticipantCacheDTO::getSessionParticipantId, Function.identity()));
+
+        List<SessionParticipant> participants = sessionParticipantRepository.findAllById(dirtyById.keySet());
+        for (SessionParticipant participant : participants) {
+            ParticipantCacheDTO dirty = dirtyById.get(participant.getSessionParticipantId());
+            participant.setRealtimeScore(dirty.getRealtimeScore());
+            participant.setRealtimeRanking(dirty.getRealtimeRanking());
+            participant.setIsConnected(dirty.getIsConnected());
+        }
+        sessionParticipantRepository.saveAll(participants);
+        return participants.size();
+    }
+
+    private void afterCompletion(Consumer<Boolean> onCompletion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCompletion.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                onCompletion.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    // References avoid loading the participant and activity rows just to write their foreign keys
+    private ActivitySubmission toActivitySubmission(SubmissionCacheDTO submission) {
+        ActivitySubmission activitySubmission = ActivitySubmission.builder()
+                // Submissions buffered before ids were assigned at submit time get one here
+                .activitySubmissionId(submission.getActivitySubmissionId() != null
+                        ? submission.getActivitySubmissionId() : UUID.randomUUID().toString())
+                .sessionParticipant(sessionParticipantRepository.getReferenceById(submission.getSessionParticipantId()))
+                .activity(activityRepository.getReferenceById(submission.getActivityId()))
+                .answerContent(submission.getAnswerContent())
+                .isCorrect(submission.getIsCorrect())
+                .responseScore(submission.getResponseScore())
+                .build();
+        activitySubmission.setCreatedAt(submission.getSubmittedAt());
+        return activitySubmission;
+    }
+}
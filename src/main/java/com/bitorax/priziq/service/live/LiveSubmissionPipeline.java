@@ -0,0 +1,155 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
+import com.bitorax.priziq.dto.cache.SubmissionCacheDTO;
+import com.bitorax.priziq.exception.ApplicationException;
+import com.bitorax.priziq.exception.ErrorCode;
+import com.bitorax.priziq.exception.WebSocketExceptionHandler;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Scored submissions are queued per session and applied in micro-batches:
+// one Redis write and one participants broadcast request for the batch instead of one per answer
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LiveSubmissionPipeline {
+    LiveSessionStore liveSessionStore;
+    ParticipantBroadcastScheduler participantBroadcastScheduler;
+    ThreadPoolTaskScheduler liveSessionScheduler;
+    LiveSessionMailbox liveSessionMailbox;
+    WebSocketExceptionHandler webSocketExceptionHandler;
+
+    Map<String, SubmissionQueue> queuesBySessionCode = new ConcurrentHashMap<>();
+
+    @NonFinal
+    @Value("${priziq.session.submission.batch-window-ms}")
+    Long batchWindowMs;
+
+    @NonFinal
+    @Value("${priziq.session.submission.batch-max-size}")
+    Integer batchMaxSize;
+
+    @NonFinal
+    @Value("${priziq.session.submission.queue-capacity}")
+    Integer queueCapacity;
+
+    private static final class SubmissionQueue {
+        final BlockingQueue<SubmissionCacheDTO> submissions;
+        final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+        SubmissionQueue(int capacity) {
+            this.submissions = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    public void enqueue(LiveSession liveSession, SubmissionCacheDTO submission) {
+        SubmissionQueue queue = queuesBySessionCode.computeIfAbsent(liveSession.getSessionCode(), code -> new SubmissionQueue(queueCapacity));
+        if (!queue.submissions.offer(submission)) {
+            throw new ApplicationException(ErrorCode.SUBMISSION_QUEUE_FULL);
+        }
+
+        // The first submission of a window schedules the drain, the rest ride along
+        if (queue.drainScheduled.compareAndSet(false, true)) {
+            scheduleDrain(liveSession, queue);
+        }
+    }
+
+    // Applies everything still queued, used before the session is flushed to the database
+    public void drainNow(LiveSession liveSession) {
+        SubmissionQueue queue = queuesBySessionCode.get(liveSession.getSessionCode());
+        if (queue != null) {
+            drain(liveSession, queue);
+        }
+    }
+
+    public void discard(String sessionCode) {
+        queuesBySessionCode.remove(sessionCode);
+    }
+
+    private void drainScheduled(LiveSession liveSession, SubmissionQueue queue) {
+        try {
+            drain(liveSession, queue);
+        } catch (Exception e) {
+            log.error("Failed to process submissions for session with code {}: {}", liveSession.getSessionCode(), e.getMessage(), e);
+        } finally {
+            queue.drainScheduled.set(false);
+            // Submissions that arrived after the last poll would otherwise wait for the next one
+            if (!queue.submissions.isEmpty() && queue.drainScheduled.compareAndSet(false, true)) {
+                scheduleDrain(liveSession, queue);
+            }
+        }
+    }
+
+    // Batches are applied in the session's mailbox, in order with the host's commands
+    private void scheduleDrain(LiveSession liveSession, SubmissionQueue queue) {
+        liveSessionScheduler.schedule(
+                () -> liveSessionMailbox.submit(liveSession.getSessionCode(), () -> drainScheduled(liveSession, queue)),
+                Instant.now().plusMillis(batchWindowMs));
+    }
+
+    // Serialized per session so a flush never overtakes a batch that is still being applied
+    private void drain(LiveSession liveSession, SubmissionQueue queue) {
+        synchronized (queue) {
+            List<SubmissionCacheDTO> batch = new ArrayList<>(batchMaxSize);
+            while (queue.submissions.drainTo(batch, batchMaxSize) > 0) {
+                processBatch(liveSession, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // The batch has left the queue, so every submission ends up either scored and recorded or reported to its submitter
+    private void processBatch(LiveSession liveSession, List<SubmissionCacheDTO> batch) {
+        // Scores are applied in memory first, the live leaderboard does not depend on Redis being reachable
+        List<SubmissionCacheDTO> applied = new ArrayList<>(batch.size());
+        Map<String, ParticipantCacheDTO> changedParticipants = new LinkedHashMap<>();
+        for (SubmissionCacheDTO submission : batch) {
+            try {
+                liveSession.applyScore(submission.getSessionParticipantId(), submission.getResponseScore())
+                        .forEach(participant -> changedParticipants.put(participant.getSessionParticipantId(), participant));
+                applied.add(submission);
+            } catch (RuntimeException e) {
+                log.error("Failed to apply submission of participant {} in session with code {}: {}",
+                        submission.getSessionParticipantId(), liveSession.getSessionCode(), e.getMessage(), e);
+                reject(liveSession, submission);
+            }
+        }
+
+        // Kept in memory when Redis cannot be written, the submissions are persisted by the next flush either way
+        liveSessionStore.recordSubmissions(liveSession, applied);
+        try {
+            liveSessionStore.recordParticipants(liveSession, List.copyOf(changedParticipants.values()));
+        } catch (RuntimeException e) {
+            // The participants stay dirty in memory and are written to the database by the next flush
+            log.warn("Failed to record participants in Redis for session with code {}: {}", liveSession.getSessionCode(), e.getMessage());
+        }
+
+        // The participants message is built when the throttled broadcast goes out, not per batch
+        participantBroadcastScheduler.publishLiveChanges(liveSession,
+                "Activity submission processed and scores updated for session with code: %s",
+                liveSession::getRankedParticipants);
+
+        log.debug("Processed {} submissions for session with code: {}", applied.size(), liveSession.getSessionCode());
+    }
+
+    private void reject(LiveSession liveSession, SubmissionCacheDTO submission) {
+        liveSession.findParticipant(submission.getSessionParticipantId())
+                .map(ParticipantCacheDTO::getStompClientId)
+                .ifPresent(stompClientId -> webSocketExceptionHandler.sendError(stompClientId, ErrorCode.SUBMISSION_NOT_PROCESSED));
+    }
+}
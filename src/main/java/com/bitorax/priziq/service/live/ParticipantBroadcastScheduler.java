@@ -0,0 +1,212 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
+import com.bitorax.priziq.dto.response.common.ApiResponse;
+import com.bitorax.priziq.dto.response.session.LeaderboardDeltaResponse;
+import com.bitorax.priziq.dto.response.session.LeaderboardTopResponse;
+import com.bitorax.priziq.dto.response.session.ParticipantRankResponse;
+import com.bitorax.priziq.dto.response.session.SessionParticipantSummaryResponse;
+import com.bitorax.priziq.mapper.cache.ParticipantCacheMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static com.bitorax.priziq.utils.MetaUtils.buildWebSocketMetaInfo;
+
+// Emits at most one update per session, topic and window. Changes inside a window are merged:
+// only the latest payload is kept and built when it is sent, so superseded snapshots are never serialized
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ParticipantBroadcastScheduler {
+    SimpMessagingTemplate messagingTemplate;
+    ThreadPoolTaskScheduler liveSessionScheduler;
+
+    ParticipantCacheMapper participantCacheMapper;
+
+    Map<String, Throttle> throttlesByKey = new ConcurrentHashMap<>();
+
+    @NonFinal
+    @Value("${priziq.session.broadcast.participants-window-ms}")
+    Long windowMs;
+
+    @NonFinal
+    @Value("${priziq.session.broadcast.delta.enabled}")
+    Boolean deltaEnabled;
+
+    @NonFinal
+    @Value("${priziq.session.broadcast.delta.keyframe-interval}")
+    Integer keyframeInterval;
+
+    @NonFinal
+    @Value("${priziq.session.broadcast.delta.keyframe-max-age-ms}")
+    Long keyframeMaxAgeMs;
+
+    @NonFinal
+    @Value("${priziq.session.broadcast.top-k.enabled}")
+    Boolean topKEnabled;
+
+    @NonFinal
+    @Value("${priziq.session.broadcast.top-k.size}")
+    Integer topKSize;
+
+    private static final class Throttle {
+        final AtomicReference<Runnable> latestEmission = new AtomicReference<>();
+        final AtomicBoolean emitScheduled = new AtomicBoolean();
+        volatile long lastEmittedAt;
+    }
+
+    public static String sessionDestinationPrefix(String sessionCode) {
+        return "/public/session/" + sessionCode + "/";
+    }
+
+    public static String participantsDestination(String sessionCode) {
+        return sessionDestinationPrefix(sessionCode) + "participants";
+    }
+
+    public static String participantsDeltaDestination(String sessionCode) {
+        return sessionDestinationPrefix(sessionCode) + "participants/delta";
+    }
+
+    public static String leaderboardDestination(String sessionCode) {
+        return sessionDestinationPrefix(sessionCode) + "leaderboard";
+    }
+
+    // Throttle key of the personal rank messages, they go to each participant's /private/rank
+    private static String rankThrottleKey(String sessionCode) {
+        return sessionDestinationPrefix(sessionCode) + "rank";
+    }
+
+    public void publish(String sessionCode, Supplier<?> payload) {
+        publishTo(participantsDestination(sessionCode), payload);
+    }
+
+    // Score and connection changes of a started session. The top-K leaderboard and delta modes replace
+    // the full participants list, which is only sent when neither is enabled
+    public void publishLiveChanges(LiveSession liveSession, String message, Supplier<List<ParticipantCacheDTO>> snapshot) {
+        String sessionCode = liveSession.getSessionCode();
+        if (topKEnabled) {
+            publishTopK(liveSession, message);
+        }
+        if (deltaEnabled) {
+            publishDelta(liveSession);
+        }
+        if (topKEnabled || deltaEnabled) {
+            return;
+        }
+
+        publish(sessionCode, () -> ApiResponse.<List<SessionParticipantSummaryResponse>>builder()
+                .message(String.format(message, sessionCode))
+                .data(participantCacheMapper.participantCacheDTOsToSummaryResponseList(snapshot.get()))
+                .meta(buildWebSocketMetaInfo(participantsDestination(sessionCode)))
+                .build());
+    }
+
+    // Lets a client that joined late or missed messages resynchronize without waiting for the next keyframe
+    public void publishKeyframe(LiveSession liveSession) {
+        if (!deltaEnabled) {
+            return;
+        }
+        liveSession.requestKeyframe();
+        publishDelta(liveSession);
+    }
+
+    public void discard(String sessionCode) {
+        throttlesByKey.keySet().removeIf(key -> key.startsWith(sessionDestinationPrefix(sessionCode)));
+    }
+
+    private void publishDelta(LiveSession liveSession) {
+        publishTo(participantsDeltaDestination(liveSession.getSessionCode()),
+                () -> toDeltaResponse(liveSession.drainLeaderboardDelta(keyframeInterval, keyframeMaxAgeMs)));
+    }
+
+    private void publishTopK(LiveSession liveSession, String message) {
+        String sessionCode = liveSession.getSessionCode();
+        publishTo(leaderboardDestination(sessionCode), () -> ApiResponse.<LeaderboardTopResponse>builder()
+                .message(String.format(message, sessionCode))
+                .data(LeaderboardTopResponse.builder()
+                        .totalParticipants(liveSession.getParticipantCount())
+                        .participants(participantCacheMapper.participantCacheDTOsToSummaryResponseList(liveSession.getTopParticipants(topKSize)))
+                        .build())
+                .meta(buildWebSocketMetaInfo(leaderboardDestination(sessionCode)))
+                .build());
+
+        // Only participants whose score or rank moved get a personal message
+        schedule(rankThrottleKey(sessionCode), () -> {
+            int totalParticipants = liveSession.getParticipantCount();
+            for (ParticipantCacheDTO participant : liveSession.drainRankChanges()) {
+                if (participant.getStompClientId() == null || !Boolean.TRUE.equals(participant.getIsConnected())) {
+                    continue;
+                }
+                ParticipantRankResponse rank = ParticipantRankResponse.builder()
+                        .sessionParticipantId(participant.getSessionParticipantId())
+                        .realtimeScore(participant.getRealtimeScore())
+                        .realtimeRanking(participant.getRealtimeRanking())
+                        .totalParticipants(totalParticipants)
+                        .build();
+                messagingTemplate.convertAndSendToUser(participant.getStompClientId(), "/private/rank",
+                        ApiResponse.<ParticipantRankResponse>builder()
+                                .message(String.format("Your rank in session with code: %s", sessionCode))
+                                .data(rank)
+                                .meta(buildWebSocketMetaInfo("/private/rank"))
+                                .build());
+            }
+        });
+    }
+
+    private void publishTo(String destination, Supplier<?> payload) {
+        schedule(destination, () -> messagingTemplate.convertAndSend(destination, payload.get()));
+    }
+
+    // The first change after a quiet window goes out immediately, later ones wait for the window to end
+    private void schedule(String key, Runnable emission) {
+        Throttle throttle = throttlesByKey.computeIfAbsent(key, k -> new Throttle());
+        throttle.latestEmission.set(emission);
+
+        if (throttle.emitScheduled.compareAndSet(false, true)) {
+            long delay = Math.max(0, throttle.lastEmittedAt + windowMs - System.currentTimeMillis());
+            liveSessionScheduler.schedule(() -> emit(key, throttle), Instant.now().plusMillis(delay));
+        }
+    }
+
+    private LeaderboardDeltaResponse toDeltaResponse(LiveSession.LeaderboardDelta delta) {
+        return LeaderboardDeltaResponse.builder()
+                .sequence(delta.sequence())
+                .keyframe(delta.keyframe())
+                .participants(delta.participants().stream()
+                        .map(delta.keyframe()
+                                ? participantCacheMapper::participantCacheDTOToKeyframeResponse
+                                : participantCacheMapper::participantCacheDTOToDeltaResponse)
+                        .toList())
+                .build();
+    }
+
+    private void emit(String key, Throttle throttle) {
+        try {
+            throttle.lastEmittedAt = System.currentTimeMillis();
+            throttle.emitScheduled.set(false);
+
+            Runnable emission = throttle.latestEmission.getAndSet(null);
+            if (emission != null) {
+                emission.run();
+            }
+        } catch (Exception e) {
+            log.error("Failed to broadcast to {}: {}", key, e.getMessage(), e);
+        }
+    }
+}
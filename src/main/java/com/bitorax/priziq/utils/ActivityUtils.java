@@ -749,6 +749,11 @@ public class ActivityUtils {
         }
     }
 
+    // Used in cache eviction keys, "" when the activity does not exist
+    public String findCollectionIdByActivityId(String activityId) {
+        return activityRepository.findCollectionIdByActivityId(activityId).orElse("");
+    }
+
     public Slide getSlideById(String slideId) {
         return slideRepository.findById(slideId).orElseThrow(() -> new ApplicationException(ErrorCode.SLIDE_NOT_FOUND));
     }
@@ -778,6 +783,39 @@ public class ActivityUtils {
         return quiz;
     }
 
+    // Loads the answers, matching pair items and connections and slide elements of the given activities with one
+    // query per list. Their quiz and slide must already be loaded, the results stay in the persistence context
+    public void fetchActivityContents(List<Activity> activities) {
+        List<String> quizIds = activities.stream()
+                .map(Activity::getQuiz)
+                .filter(Objects::nonNull)
+                .map(Quiz::getQuizId)
+                .toList();
+        List<String> slideIds = activities.stream()
+                .map(Activity::getSlide)
+                .filter(Objects::nonNull)
+                .map(Slide::getSlideId)
+                .toList();
+
+        if (!quizIds.isEmpty()) {
+            quizRepository.fetchQuizAnswers(quizIds);
+            quizRepository.fetchQuizLocationAnswers(quizIds);
+
+            List<String> matchingPairQuizIds = activities.stream()
+                    .map(Activity::getQuiz)
+                    .filter(quiz -> quiz != null && quiz.getQuizMatchingPairAnswer() != null)
+                    .map(Quiz::getQuizId)
+                    .toList();
+            if (!matchingPairQuizIds.isEmpty()) {
+                quizRepository.fetchMatchingPairItems(matchingPairQuizIds);
+                quizRepository.fetchMatchingPairConnections(matchingPairQuizIds);
+            }
+        }
+        if (!slideIds.isEmpty()) {
+            slideRepository.fetchSlideElements(slideIds);
+        }
+    }
+
     public void initializeActivityComponents(Activity activity) {
         if (activity.getQuiz() != null) {
             Hibernate.initialize(activity.getQuiz().getQuizAnswers());
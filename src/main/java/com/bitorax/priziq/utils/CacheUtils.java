@@ -63,6 +63,59 @@ public class CacheUtils {
         }
     }
 
+    public <T> void cacheHashEntries(String key, Map<String, T> entries, long ttlSeconds) {
+        try {
+            if (entries.isEmpty()) return;
+            redisTemplate.opsForHash().putAll(key, entries);
+            redisTemplate.expire(key, ttlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to cache hash entries: " + key, e);
+        }
+    }
+
+    public <T> List<T> getCachedHashValues(String key, Class<T> clazz) {
+        try {
+            List<Object> values = redisTemplate.opsForHash().values(key);
+            if (values.isEmpty()) return List.of();
+            return values.stream()
+                    .map(item -> objectMapper.convertValue(item, clazz))
+                    .toList();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get cached hash values: " + key, e);
+        }
+    }
+
+    public <T> void appendToList(String key, List<T> items, long ttlSeconds) {
+        try {
+            if (items.isEmpty()) return;
+            redisTemplate.opsForList().rightPushAll(key, items.toArray());
+            redisTemplate.expire(key, ttlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to append to list: " + key, e);
+        }
+    }
+
+    public <T> List<T> getListRange(String key, long start, long count, Class<T> clazz) {
+        try {
+            List<Object> rawList = redisTemplate.opsForList().range(key, start, start + count - 1);
+            if (rawList == null || rawList.isEmpty()) return List.of();
+            return rawList.stream()
+                    .map(item -> objectMapper.convertValue(item, clazz))
+                    .toList();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get list range: " + key, e);
+        }
+    }
+
+    // Drops the first count items, keeping those appended since they were read
+    public void trimListHead(String key, long count) {
+        try {
+            redisTemplate.opsForList().trim(key, count, -1);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to trim list: " + key, e);
+        }
+    }
+
     public void deleteCache(String... keys) {
         try {
             redisTemplate.delete(List.of(keys));
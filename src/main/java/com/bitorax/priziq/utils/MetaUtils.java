@@ -26,4 +26,12 @@ public class MetaUtils {
                 .instance(instance != null ? instance : "Unknown-WebSocket-Destination")
                 .build();
     }
-}
\ No newline at end of file
+
+    // For messages the server pushes on its own, outside of a client request
+    public static MetaInfo buildWebSocketMetaInfo(String destination) {
+        return MetaInfo.builder()
+                .timestamp(Instant.now().toString())
+                .instance(destination)
+                .build();
+    }
+}
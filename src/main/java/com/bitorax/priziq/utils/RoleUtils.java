@@ -11,9 +11,7 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
@@ -23,6 +21,18 @@ import java.util.stream.Collectors;
 public class RoleUtils {
     RoleRepository roleRepository;
 
+    // Roles of many users with one query, for list responses built without loading the users
+    public Map<String, List<Role>> getRolesByUserIds(Collection<String> userIds) {
+        Map<String, List<Role>> rolesByUserId = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return rolesByUserId;
+        }
+        for (Object[] row : roleRepository.findRolesByUserIds(userIds)) {
+            rolesByUserId.computeIfAbsent((String) row[0], userId -> new ArrayList<>()).add((Role) row[1]);
+        }
+        return rolesByUserId;
+    }
+
     public Set<String> getRoleIdsFromUser(User user) {
         return user.getRoles().stream()
                 .map(Role::getRoleId)
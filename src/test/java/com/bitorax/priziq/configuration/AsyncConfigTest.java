@@ -0,0 +1,104 @@
+package com.bitorax.priziq.configuration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A burst of @Async work larger than the platform pool (8 threads and 50 queued tasks) in both execution modes
+class AsyncConfigTest {
+    private static final int BURST = 200;
+    private static final int CONCURRENCY_LIMIT = 20;
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch finished = new CountDownLatch(BURST);
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final AtomicInteger rejected = new AtomicInteger();
+    Executor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtual) {
+            virtual.close();
+        }
+    }
+
+    @Test
+    void platformPoolRejectsWhatDoesNotFitItsQueue() {
+        executor = asyncTaskExecutor(false);
+
+        submitBurst();
+        release.countDown();
+
+        assertThat(rejected.get()).isEqualTo(BURST - 8 - 50);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void virtualThreadsMakeABurstWaitForTheLimitInsteadOfRejectingIt() throws Exception {
+        executor = asyncTaskExecutor(true);
+
+        // Submitting blocks once the limit is reached, so the burst is sent from its own thread
+        Thread submitter = Thread.ofPlatform().start(this::submitBurst);
+        awaitRunning(CONCURRENCY_LIMIT);
+        assertThat(submitter.isAlive()).isTrue();
+
+        release.countDown();
+        submitter.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertThat(finished.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(rejected.get()).isZero();
+        assertThat(maxRunning.get()).isEqualTo(CONCURRENCY_LIMIT);
+    }
+
+    private Executor asyncTaskExecutor(boolean virtualThreads) {
+        AsyncConfig asyncConfig = new AsyncConfig();
+        ReflectionTestUtils.setField(asyncConfig, "virtualThreads", virtualThreads);
+        ReflectionTestUtils.setField(asyncConfig, "asyncConcurrencyLimit", CONCURRENCY_LIMIT);
+        return asyncConfig.asyncTaskExecutor();
+    }
+
+    private void submitBurst() {
+        for (int i = 0; i < BURST; i++) {
+            try {
+                executor.execute(this::work);
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+            }
+        }
+    }
+
+    // Holds its thread until the test releases the burst, like a task waiting on I/O
+    private void work() {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+            finished.countDown();
+        }
+    }
+
+    private void awaitRunning(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (running.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(running.get()).isEqualTo(count);
+    }
+}
@@ -0,0 +1,129 @@
+package com.bitorax.priziq.configuration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CompactPayloadEncoderTest {
+    private static final String DELTA_DESTINATION = "/public/session/123456/participants/delta";
+    private static final byte[] DELTA_ENVELOPE = """
+            {"success":true,"message":"Participants of session 123456","data":{"sequence":7,"keyframe":false,
+            "participants":[{"sessionParticipantId":"p1","realtimeScore":120,"realtimeRanking":2,"createdAt":"2025-01-01T00:00:00Z"}]},
+            "meta":{"timestamp":"2025-01-01T00:00:00Z"}}""".getBytes(StandardCharsets.UTF_8);
+
+    final ObjectMapper objectMapper = new ObjectMapper();
+    final MessageChannel channel = mock(MessageChannel.class);
+    CompactPayloadEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new CompactPayloadEncoder(objectMapper);
+        ReflectionTestUtils.setField(encoder, "enabled", true);
+    }
+
+    @Test
+    void sendsOnlyTheDataWithShortFieldNamesToCompactClients() throws Exception {
+        connect("ws-1", true);
+
+        Message<?> sent = encoder.preSend(message("ws-1", DELTA_DESTINATION, DELTA_ENVELOPE), channel);
+
+        JsonNode compact = objectMapper.readTree((byte[]) sent.getPayload());
+        assertThat(compact).isEqualTo(objectMapper.readTree("""
+                {"q":7,"k":false,"p":[{"id":"p1","s":120,"r":2}]}"""));
+        assertThat(SimpMessageHeaderAccessor.getDestination(sent.getHeaders())).isEqualTo(DELTA_DESTINATION);
+    }
+
+    @Test
+    void leavesOtherClientsAndDestinationsUnchanged() {
+        connect("ws-1", false);
+        connect("ws-2", true);
+
+        Message<byte[]> regularClient = message("ws-1", DELTA_DESTINATION, DELTA_ENVELOPE);
+        Message<byte[]> privateDestination = message("ws-2", "/user/queue/private/rank", DELTA_ENVELOPE);
+
+        assertThat(encoder.preSend(regularClient, channel)).isSameAs(regularClient);
+        assertThat(encoder.preSend(privateDestination, channel)).isSameAs(privateDestination);
+    }
+
+    @Test
+    void encodesAPayloadSharedBySubscribersOnce() {
+        connect("ws-1", true);
+        connect("ws-2", true);
+
+        Object first = encoder.preSend(message("ws-1", DELTA_DESTINATION, DELTA_ENVELOPE), channel).getPayload();
+        Object second = encoder.preSend(message("ws-2", DELTA_DESTINATION, DELTA_ENVELOPE), channel).getPayload();
+
+        assertThat(second).isSameAs(first);
+        assertThat(ReflectionTestUtils.getField(encoder, "encodedFrames")).hasToString("1");
+    }
+
+    @Test
+    void leavesAFrameAlreadyEncodedUnchanged() {
+        connect("ws-1", true);
+
+        // A conflated frame is sent through the outbound channel again when its connection catches up
+        Message<?> encoded = encoder.preSend(message("ws-1", DELTA_DESTINATION, DELTA_ENVELOPE), channel);
+
+        assertThat(encoder.preSend(encoded, channel)).isSameAs(encoded);
+        assertThat(ReflectionTestUtils.getField(encoder, "encodedFrames")).hasToString("1");
+    }
+
+    @Test
+    void sendsPayloadsThatAreNotJsonUnchanged() {
+        connect("ws-1", true);
+        Message<byte[]> notJson = message("ws-1", DELTA_DESTINATION, "not json".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(encoder.preSend(notJson, channel)).isSameAs(notJson);
+    }
+
+    @Test
+    void stopsEncodingAfterDisconnect() {
+        connect("ws-1", true);
+        SimpMessageHeaderAccessor disconnect = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+        disconnect.setSessionId("ws-1");
+        encoder.preSend(MessageBuilder.createMessage(new byte[0], disconnect.getMessageHeaders()), channel);
+
+        Message<byte[]> delta = message("ws-1", DELTA_DESTINATION, DELTA_ENVELOPE);
+
+        assertThat(encoder.preSend(delta, channel)).isSameAs(delta);
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        ReflectionTestUtils.setField(encoder, "enabled", false);
+        connect("ws-1", true);
+        Message<byte[]> delta = message("ws-1", DELTA_DESTINATION, DELTA_ENVELOPE);
+
+        assertThat(encoder.preSend(delta, channel)).isSameAs(delta);
+    }
+
+    private void connect(String sessionId, boolean compact) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        if (compact) {
+            accessor.setNativeHeader("payload-format", "compact");
+        }
+        encoder.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), channel);
+    }
+
+    private static Message<byte[]> message(String sessionId, String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,51 @@
+package com.bitorax.priziq.configuration;
+
+import com.bitorax.priziq.dto.cache.SubmissionCacheDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RedisConfigurationTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submissionRoundTripsThroughTemplateSerializer() {
+        RedisTemplate<String, Object> template = new RedisConfiguration().redisTemplate(mock(LettuceConnectionFactory.class));
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) template.getValueSerializer();
+
+        SubmissionCacheDTO submission = SubmissionCacheDTO.builder()
+                .activitySubmissionId("submission-1")
+                .sessionParticipantId("participant-1")
+                .activityId("activity-1")
+                .answerContent("answer-1,answer-2")
+                .isCorrect(true)
+                .responseScore(28)
+                .submittedAt(Instant.parse("2025-01-01T10:15:30.123Z"))
+                .build();
+
+        Object deserialized = serializer.deserialize(serializer.serialize(submission));
+
+        assertThat(deserialized).isEqualTo(submission);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void hashValuesUseTheSameSerializer() {
+        RedisTemplate<String, Object> template = new RedisConfiguration().redisTemplate(mock(LettuceConnectionFactory.class));
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) template.getHashValueSerializer();
+
+        Instant submittedAt = Instant.parse("2025-01-01T10:15:30Z");
+        SubmissionCacheDTO submission = SubmissionCacheDTO.builder().submittedAt(submittedAt).build();
+
+        assertThat(serializer.deserialize(serializer.serialize(submission)))
+                .isInstanceOf(SubmissionCacheDTO.class)
+                .extracting("submittedAt")
+                .isEqualTo(submittedAt);
+    }
+}
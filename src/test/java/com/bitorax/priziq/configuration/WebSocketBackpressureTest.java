@@ -0,0 +1,134 @@
+package com.bitorax.priziq.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebSocketBackpressureTest {
+    private static final String SESSION_ID = "ws-1";
+    private static final String START_DESTINATION = "/public/session/123456/start";
+    private static final String PARTICIPANTS_DESTINATION = "/public/session/123456/participants";
+    // The user destination as the outbound channel sees it, and as the client subscribed to it
+    private static final String RESOLVED_RANK_DESTINATION = "/private/rank-user" + SESSION_ID;
+    private static final String SUBSCRIBED_RANK_DESTINATION = "/client/private/rank";
+
+    final MessageChannel channel = mock(MessageChannel.class);
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    WebSocketBackpressure backpressure;
+    WebSocketSession connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backpressure = new WebSocketBackpressure();
+        ReflectionTestUtils.setField(backpressure, "conflationThreshold", 10L);
+        ReflectionTestUtils.setField(backpressure, "conflatedDestinationSuffixes", List.of("/participants", "/leaderboard", "/private/rank"));
+        backpressure.bindTo(meterRegistry);
+        connection = connect();
+    }
+
+    @Test
+    void deliversEveryFrameWhileTheConnectionKeepsUp() {
+        Message<byte[]> participants = message(PARTICIPANTS_DESTINATION, null, 5);
+
+        assertThat(backpressure.preSend(participants, channel)).isSameAs(participants);
+        assertThat(queuedBytes()).isEqualTo(5);
+    }
+
+    @Test
+    void keepsOnlyTheLatestSnapshotForALaggingConnection() {
+        lag();
+
+        assertThat(backpressure.preSend(message(PARTICIPANTS_DESTINATION, null, 5), channel)).isNull();
+        assertThat(backpressure.preSend(message(PARTICIPANTS_DESTINATION, null, 5), channel)).isNull();
+
+        assertThat(conflatedFrames()).isEqualTo(1);
+    }
+
+    @Test
+    void conflatesPersonalRankFramesSentToAUserDestination() {
+        lag();
+
+        assertThat(backpressure.preSend(message(RESOLVED_RANK_DESTINATION, SUBSCRIBED_RANK_DESTINATION, 5), channel)).isNull();
+        assertThat(backpressure.preSend(message(RESOLVED_RANK_DESTINATION, SUBSCRIBED_RANK_DESTINATION, 5), channel)).isNull();
+
+        assertThat(conflatedFrames()).isEqualTo(1);
+    }
+
+    @Test
+    void neverConflatesOtherDestinations() {
+        lag();
+        Message<byte[]> start = message(START_DESTINATION, null, 5);
+
+        assertThat(backpressure.preSend(start, channel)).isSameAs(start);
+    }
+
+    @Test
+    void resendsTheLatestSnapshotOnceTheBacklogIsWritten() throws Exception {
+        lag();
+        backpressure.preSend(message(PARTICIPANTS_DESTINATION, null, 5), channel);
+        Message<byte[]> latest = message(PARTICIPANTS_DESTINATION, null, 5);
+        backpressure.preSend(latest, channel);
+
+        backpressure.flushConflated();
+        verify(channel, never()).send(latest);
+
+        connection.sendMessage(new TextMessage("MESSAGE\n\n"));
+        backpressure.flushConflated();
+
+        verify(channel).send(latest);
+        assertThat(queuedBytes()).isZero();
+    }
+
+    // Queues a frame over the threshold that the connection has not written yet
+    private void lag() {
+        backpressure.preSend(message(START_DESTINATION, null, 20), channel);
+    }
+
+    private WebSocketSession connect() throws Exception {
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(SESSION_ID);
+
+        backpressure.decorate(handler).afterConnectionEstablished(session);
+
+        ArgumentCaptor<WebSocketSession> decorated = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(decorated.capture());
+        return decorated.getValue();
+    }
+
+    private double queuedBytes() {
+        return meterRegistry.get("websocket.subscriber.queued.bytes").tag("connection", SESSION_ID).gauge().value();
+    }
+
+    private double conflatedFrames() {
+        return meterRegistry.get("websocket.subscriber.conflated.frames").functionCounter().count();
+    }
+
+    private static Message<byte[]> message(String destination, String originalDestination, int size) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setDestination(destination);
+        if (originalDestination != null) {
+            accessor.setNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, originalDestination);
+        }
+        return MessageBuilder.createMessage(new byte[size], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,114 @@
+package com.bitorax.priziq.service.implement;
+
+import com.bitorax.priziq.domain.Achievement;
+import com.bitorax.priziq.domain.User;
+import com.bitorax.priziq.dto.response.achievement.AchievementSummaryResponse;
+import com.bitorax.priziq.dto.response.achievement.AchievementUpdateResponse;
+import com.bitorax.priziq.mapper.AchievementMapper;
+import com.bitorax.priziq.repository.AchievementRepository;
+import com.bitorax.priziq.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AchievementServiceImplTest {
+    AchievementRepository achievementRepository;
+    UserRepository userRepository;
+    AchievementServiceImpl achievementService;
+
+    @BeforeEach
+    void setUp() {
+        achievementRepository = mock(AchievementRepository.class);
+        userRepository = mock(UserRepository.class);
+        achievementService = new AchievementServiceImpl(achievementRepository, userRepository, mock(AchievementMapper.class));
+
+        when(achievementRepository.findAllByOrderByRequiredPointsAsc()).thenReturn(List.of(
+                achievement("bronze", 100),
+                achievement("silver", 200),
+                achievement("silver-twin", 200),
+                achievement("gold", 500),
+                achievement("unranked", null)));
+    }
+
+    @Test
+    void awardsEveryThresholdReachedIncludingTiesAndSkipsHeldOnes() {
+        when(userRepository.findAllById(any())).thenReturn(List.of(user("user-1", 150)));
+        when(achievementRepository.findAchievementIdsByUserIds(any())).thenReturn(List.<Object[]>of(new Object[]{"user-1", "bronze"}));
+
+        List<AchievementUpdateResponse> updates = achievementService.assignAchievementsToUsers(Map.of("user-1", 50));
+
+        assertThat(updates).singleElement().satisfies(update -> {
+            assertThat(update.getTotalPoints()).isEqualTo(200);
+            assertThat(update.getNewAchievements()).extracting(AchievementSummaryResponse::getAchievementId)
+                    .containsExactly("silver", "silver-twin");
+        });
+        verify(userRepository).addTotalPoints(Map.of("user-1", 50));
+        verify(achievementRepository).insertAchievementUsers(Map.of(
+                "silver", Set.of("user-1"),
+                "silver-twin", Set.of("user-1")));
+    }
+
+    @Test
+    void awardsNothingBelowTheLowestThreshold() {
+        when(userRepository.findAllById(any())).thenReturn(List.of(user("user-1", null)));
+        when(achievementRepository.findAchievementIdsByUserIds(any())).thenReturn(List.of());
+
+        List<AchievementUpdateResponse> updates = achievementService.assignAchievementsToUsers(Map.of("user-1", 99));
+
+        assertThat(updates).singleElement().satisfies(update -> {
+            assertThat(update.getTotalPoints()).isEqualTo(99);
+            assertThat(update.getNewAchievements()).isEmpty();
+        });
+        verify(achievementRepository).insertAchievementUsers(Map.of());
+    }
+
+    @Test
+    void awardsEveryRankedAchievementAboveTheHighestThreshold() {
+        when(userRepository.findAllById(any())).thenReturn(List.of(user("user-1", 0), user("user-2", 450)));
+        when(achievementRepository.findAchievementIdsByUserIds(any())).thenReturn(List.of());
+
+        Map<String, Integer> pointsToAdd = new HashMap<>();
+        pointsToAdd.put("user-1", 100);
+        pointsToAdd.put("user-2", 1000);
+        List<AchievementUpdateResponse> updates = achievementService.assignAchievementsToUsers(pointsToAdd);
+
+        assertThat(updates).extracting(AchievementUpdateResponse::getUserId).containsExactly("user-1", "user-2");
+        assertThat(updates.get(0).getNewAchievements()).extracting(AchievementSummaryResponse::getAchievementId)
+                .containsExactly("bronze");
+        assertThat(updates.get(1).getNewAchievements()).extracting(AchievementSummaryResponse::getAchievementId)
+                .containsExactly("bronze", "silver", "silver-twin", "gold");
+        verify(achievementRepository).insertAchievementUsers(Map.of(
+                "bronze", Set.of("user-1", "user-2"),
+                "silver", Set.of("user-2"),
+                "silver-twin", Set.of("user-2"),
+                "gold", Set.of("user-2")));
+    }
+
+    @Test
+    void skipsTheQueriesWithoutPoints() {
+        assertThat(achievementService.assignAchievementsToUsers(Map.of())).isEmpty();
+
+        verifyNoInteractions(userRepository);
+        verify(achievementRepository, never()).insertAchievementUsers(any());
+    }
+
+    private static Achievement achievement(String achievementId, Integer requiredPoints) {
+        return Achievement.builder()
+                .achievementId(achievementId)
+                .name(achievementId.toUpperCase())
+                .requiredPoints(requiredPoints)
+                .build();
+    }
+
+    private static User user(String userId, Integer totalPoints) {
+        return User.builder()
+                .userId(userId)
+                .totalPoints(totalPoints)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.bitorax.priziq.service.implement;
+
+import com.bitorax.priziq.constant.ActivityType;
+import com.bitorax.priziq.constant.PointType;
+import com.bitorax.priziq.domain.activity.Activity;
+import com.bitorax.priziq.domain.activity.quiz.Quiz;
+import com.bitorax.priziq.domain.activity.quiz.QuizAnswer;
+import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
+import com.bitorax.priziq.dto.cache.SubmissionCacheDTO;
+import com.bitorax.priziq.dto.request.session.activity_submission.CreateActivitySubmissionRequest;
+import com.bitorax.priziq.exception.ApplicationException;
+import com.bitorax.priziq.exception.ErrorCode;
+import com.bitorax.priziq.mapper.cache.SubmissionCacheMapper;
+import com.bitorax.priziq.service.live.CompiledAnswerKey;
+import com.bitorax.priziq.service.live.LiveSession;
+import com.bitorax.priziq.service.live.LiveSessionRegistry;
+import com.bitorax.priziq.service.live.LiveSubmissionPipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ActivitySubmissionServiceImplTest {
+    private static final String SESSION_CODE = "123456";
+    private static final String ACTIVITY_ID = "activity-1";
+
+    LiveSubmissionPipeline liveSubmissionPipeline;
+    LiveSession liveSession;
+    ActivitySubmissionServiceImpl activitySubmissionService;
+
+    @BeforeEach
+    void setUp() {
+        Activity activity = Activity.builder()
+                .activityId(ACTIVITY_ID)
+                .activityType(ActivityType.QUIZ_BUTTONS)
+                .quiz(Quiz.builder()
+                        .pointType(PointType.STANDARD)
+                        .quizAnswers(List.of(QuizAnswer.builder().quizAnswerId("answer-1").answerText("Paris").isCorrect(true).orderIndex(0).build()))
+                        .build())
+                .build();
+        liveSession = new LiveSession("session-1", SESSION_CODE, "host-1", Set.of(ACTIVITY_ID),
+                Map.of(ACTIVITY_ID, CompiledAnswerKey.compile(activity).orElseThrow()));
+        liveSession.addParticipant(participant("participant-1", "ws-1"));
+        liveSession.addParticipant(participant("participant-2", "ws-2"));
+
+        LiveSessionRegistry liveSessionRegistry = mock(LiveSessionRegistry.class);
+        when(liveSessionRegistry.getOrLoad(SESSION_CODE)).thenReturn(liveSession);
+        liveSubmissionPipeline = mock(LiveSubmissionPipeline.class);
+        activitySubmissionService = new ActivitySubmissionServiceImpl(mock(SubmissionCacheMapper.class), liveSessionRegistry, liveSubmissionPipeline);
+        ReflectionTestUtils.setField(activitySubmissionService, "baseScore", 1000);
+        ReflectionTestUtils.setField(activitySubmissionService, "timeDecrement", 50);
+    }
+
+    @Test
+    void laterCorrectAnswersGetALowerScore() {
+        activitySubmissionService.createActivitySubmission(correctAnswer(), "ws-1");
+        activitySubmissionService.createActivitySubmission(correctAnswer(), "ws-2");
+
+        assertThat(enqueuedScores()).containsExactly(1000, 950);
+    }
+
+    @Test
+    void aRejectedAnswerGivesItsRankBack() {
+        doThrow(new ApplicationException(ErrorCode.SUBMISSION_QUEUE_FULL))
+                .doNothing()
+                .when(liveSubmissionPipeline).enqueue(any(), any());
+
+        assertThatThrownBy(() -> activitySubmissionService.createActivitySubmission(correctAnswer(), "ws-1"))
+                .isInstanceOf(ApplicationException.class);
+        activitySubmissionService.createActivitySubmission(correctAnswer(), "ws-2");
+
+        // The rejected answer, then the next one, which still arrives first among accepted answers
+        assertThat(enqueuedScores()).containsExactly(1000, 1000);
+        assertThat(liveSession.nextCorrectSubmissionRank(ACTIVITY_ID)).isEqualTo(1);
+    }
+
+    private List<Integer> enqueuedScores() {
+        ArgumentCaptor<SubmissionCacheDTO> submissions = ArgumentCaptor.forClass(SubmissionCacheDTO.class);
+        verify(liveSubmissionPipeline, atLeastOnce()).enqueue(eq(liveSession), submissions.capture());
+        return submissions.getAllValues().stream().map(SubmissionCacheDTO::getResponseScore).toList();
+    }
+
+    private static CreateActivitySubmissionRequest correctAnswer() {
+        return CreateActivitySubmissionRequest.builder()
+                .sessionCode(SESSION_CODE)
+                .activityId(ACTIVITY_ID)
+                .answerContent("answer-1")
+                .build();
+    }
+
+    private static ParticipantCacheDTO participant(String sessionParticipantId, String websocketSessionId) {
+        return ParticipantCacheDTO.builder()
+                .sessionParticipantId(sessionParticipantId)
+                .websocketSessionId(websocketSessionId)
+                .isConnected(true)
+                .build();
+    }
+}
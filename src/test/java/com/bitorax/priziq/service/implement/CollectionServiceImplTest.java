@@ -0,0 +1,248 @@
+package com.bitorax.priziq.service.implement;
+
+import com.bitorax.priziq.constant.ActivityType;
+import com.bitorax.priziq.constant.CollectionTopicType;
+import com.bitorax.priziq.constant.PointType;
+import com.bitorax.priziq.constant.SlideElementType;
+import com.bitorax.priziq.domain.Collection;
+import com.bitorax.priziq.domain.User;
+import com.bitorax.priziq.domain.activity.Activity;
+import com.bitorax.priziq.domain.activity.quiz.*;
+import com.bitorax.priziq.domain.activity.slide.Slide;
+import com.bitorax.priziq.domain.activity.slide.SlideElement;
+import com.bitorax.priziq.dto.request.collection.ActivityReorderRequest;
+import com.bitorax.priziq.dto.response.collection.CollectionDetailResponse;
+import com.bitorax.priziq.dto.response.collection.ReorderedActivityResponse;
+import com.bitorax.priziq.mapper.CollectionMapperImpl;
+import com.bitorax.priziq.repository.*;
+import com.bitorax.priziq.service.ActivityService;
+import com.bitorax.priziq.service.cache.CollectionFeedCache;
+import com.bitorax.priziq.service.job.BackgroundJobRunner;
+import com.bitorax.priziq.utils.ActivityUtils;
+import com.bitorax.priziq.utils.SecurityUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// Guards getCollectionById against N+1 selects: the editor tree is read with the same statements for any activity count.
+// reorderActivities is measured with the JDBC batching of application.yaml and with batching turned off for the session
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(SpecificationProjectionExecutor.class)
+class CollectionServiceImplTest {
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    CollectionRepository collectionRepository;
+
+    @Autowired
+    ActivityRepository activityRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    QuizRepository quizRepository;
+
+    @Autowired
+    SlideRepository slideRepository;
+
+    @Autowired
+    SlideElementRepository slideElementRepository;
+
+    CollectionServiceImpl collectionService;
+    Statistics statistics;
+    User creator;
+    AtomicInteger executedBatches = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ActivityUtils activityUtils = new ActivityUtils(activityRepository, userRepository, quizRepository,
+                slideRepository, slideElementRepository, mock(SecurityUtils.class));
+        collectionService = new CollectionServiceImpl(collectionRepository, activityRepository, userRepository,
+                mock(ActivityService.class), new CollectionMapperImpl(), mock(SecurityUtils.class), activityUtils,
+                mock(BackgroundJobRepository.class), mock(BackgroundJobRunner.class), mock(CollectionFeedCache.class));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // The email SecurityUtils reports without a signed-in user, so the creator owns the collections it edits
+        creator = entityManager.persist(User.builder().email("system").build());
+        entityManager.getEntityManager().unwrap(Session.class).addEventListeners(new SessionEventListener() {
+            @Override
+            public void jdbcExecuteBatchStart() {
+                executedBatches.incrementAndGet();
+            }
+        });
+    }
+
+    @Test
+    void readsTheEditorTreeWithAFixedNumberOfStatements() {
+        String smallCollectionId = persistCollection(1);
+        String largeCollectionId = persistCollection(12);
+
+        long smallStatements = countStatements(smallCollectionId, 1);
+        long largeStatements = countStatements(largeCollectionId, 12);
+
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        assertThat(largeStatements).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void writesReorderedActivitiesInBatches() {
+        String collectionId = persistCollection(40);
+
+        long statements = countReorderStatements(collectionId);
+
+        // 4 selects (the collection, the user, its activities and findAllById), then one update statement
+        // executed as 3 batches of at most 50 rows
+        assertThat(statements).isEqualTo(4 + 1);
+        assertThat(executedBatches.get()).isEqualTo(3);
+    }
+
+    @Test
+    void writesReorderedActivitiesOneByOneWithoutBatching() {
+        String collectionId = persistCollection(40);
+        entityManager.getEntityManager().unwrap(Session.class).setJdbcBatchSize(1);
+
+        long statements = countReorderStatements(collectionId);
+
+        assertThat(statements).isEqualTo(4 + 120);
+        assertThat(executedBatches.get()).isZero();
+    }
+
+    // Reverses the order of every activity, so each of them is updated
+    private long countReorderStatements(String collectionId) {
+        List<String> reversedActivityIds = new ArrayList<>(activityRepository.findAll().stream()
+                .filter(activity -> activity.getCollection().getCollectionId().equals(collectionId))
+                .sorted((first, second) -> Integer.compare(first.getOrderIndex(), second.getOrderIndex()))
+                .map(Activity::getActivityId)
+                .toList());
+        Collections.reverse(reversedActivityIds);
+        entityManager.clear();
+        statistics.clear();
+        executedBatches.set(0);
+
+        List<ReorderedActivityResponse> reordered = collectionService.reorderActivities(collectionId,
+                ActivityReorderRequest.builder().orderedActivityIds(reversedActivityIds).build());
+        entityManager.flush();
+
+        assertThat(reordered).hasSize(reversedActivityIds.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long countStatements(String collectionId, int expectedGroups) {
+        entityManager.clear();
+        statistics.clear();
+
+        CollectionDetailResponse response = collectionService.getCollectionById(collectionId);
+
+        // Every list of the tree is mapped, so lazy loads the fetch queries missed would be counted here
+        assertThat(response.getActivities()).hasSize(expectedGroups * 3);
+        assertThat(response.getActivities()).allSatisfy(activity ->
+                assertThat(activity.getQuiz() != null || activity.getSlide() != null).isTrue());
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Each group holds a choice quiz, a matching pairs quiz and a slide
+    private String persistCollection(int groups) {
+        Collection collection = Collection.builder()
+                .creator(creator)
+                .title("Collection of " + groups)
+                .topic(CollectionTopicType.ART)
+                .activities(new ArrayList<>())
+                .build();
+        entityManager.persist(collection);
+
+        int orderIndex = 0;
+        for (int group = 0; group < groups; group++) {
+            Activity choice = activity(collection, ActivityType.QUIZ_BUTTONS, orderIndex++);
+            Quiz choiceQuiz = quiz(choice);
+            choiceQuiz.setQuizAnswers(List.of(answer(choiceQuiz, "A", true, 0), answer(choiceQuiz, "B", false, 1)));
+            choiceQuiz.setQuizLocationAnswers(List.of(QuizLocationAnswer.builder()
+                    .quiz(choiceQuiz).longitude(105.8).latitude(21.0).radius(1.0).build()));
+            entityManager.persist(choice);
+
+            Activity matching = activity(collection, ActivityType.QUIZ_MATCHING_PAIRS, orderIndex++);
+            Quiz matchingQuiz = quiz(matching);
+            matchingQuiz.setQuizAnswers(new ArrayList<>());
+            matchingQuiz.setQuizLocationAnswers(new ArrayList<>());
+            QuizMatchingPairAnswer pairAnswer = QuizMatchingPairAnswer.builder().quiz(matchingQuiz).build();
+            QuizMatchingPairItem left = item(pairAnswer, true);
+            QuizMatchingPairItem right = item(pairAnswer, false);
+            pairAnswer.setItems(new ArrayList<>(List.of(left, right)));
+            pairAnswer.setConnections(new ArrayList<>(List.of(QuizMatchingPairConnection.builder()
+                    .quizMatchingPairAnswer(pairAnswer).leftItem(left).rightItem(right).build())));
+            matchingQuiz.setQuizMatchingPairAnswer(pairAnswer);
+            entityManager.persist(matching);
+
+            Activity info = activity(collection, ActivityType.INFO_SLIDE, orderIndex++);
+            Slide slide = Slide.builder().activity(info).build();
+            slide.setSlideElements(List.of(SlideElement.builder()
+                    .slide(slide).slideElementType(SlideElementType.TEXT).content("Welcome").build()));
+            info.setSlide(slide);
+            entityManager.persist(info);
+        }
+
+        entityManager.flush();
+        return collection.getCollectionId();
+    }
+
+    private static Activity activity(Collection collection, ActivityType activityType, int orderIndex) {
+        Activity activity = Activity.builder()
+                .collection(collection)
+                .activityType(activityType)
+                .orderIndex(orderIndex)
+                .build();
+        collection.getActivities().add(activity);
+        return activity;
+    }
+
+    private static Quiz quiz(Activity activity) {
+        Quiz quiz = Quiz.builder()
+                .activity(activity)
+                .questionText("Question " + activity.getOrderIndex())
+                .pointType(PointType.STANDARD)
+                .build();
+        activity.setQuiz(quiz);
+        return quiz;
+    }
+
+    private static QuizAnswer answer(Quiz quiz, String answerText, boolean isCorrect, int orderIndex) {
+        return QuizAnswer.builder()
+                .quiz(quiz)
+                .answerText(answerText)
+                .isCorrect(isCorrect)
+                .orderIndex(orderIndex)
+                .build();
+    }
+
+    private static QuizMatchingPairItem item(QuizMatchingPairAnswer pairAnswer, boolean isLeftColumn) {
+        return QuizMatchingPairItem.builder()
+                .quizMatchingPairAnswer(pairAnswer)
+                .content(isLeftColumn ? "Left" : "Right")
+                .isLeftColumn(isLeftColumn)
+                .displayOrder(0)
+                .build();
+    }
+}
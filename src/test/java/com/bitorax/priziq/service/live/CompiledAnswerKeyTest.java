@@ -0,0 +1,131 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.constant.ActivityType;
+import com.bitorax.priziq.constant.PointType;
+import com.bitorax.priziq.domain.activity.Activity;
+import com.bitorax.priziq.domain.activity.quiz.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledAnswerKeyTest {
+
+    @Test
+    void activitiesWithoutQuizAreNotCompiled() {
+        Activity slide = Activity.builder()
+                .activityId("activity-1")
+                .activityType(ActivityType.INFO_SLIDE)
+                .build();
+
+        assertThat(CompiledAnswerKey.compile(slide)).isEmpty();
+    }
+
+    @Test
+    void compilesAnswersIntoLookupSets() {
+        Quiz quiz = Quiz.builder()
+                .pointType(PointType.DOUBLE_POINTS)
+                .quizAnswers(List.of(
+                        answer("answer-3", "Paris", true, 2),
+                        answer("answer-1", "London", false, 0),
+                        answer("answer-2", "ROME", true, 1)))
+                .build();
+
+        CompiledAnswerKey answerKey = CompiledAnswerKey.compile(activity(ActivityType.QUIZ_CHECKBOXES, quiz)).orElseThrow();
+
+        assertThat(answerKey.getActivityId()).isEqualTo("activity-1");
+        assertThat(answerKey.getActivityType()).isEqualTo(ActivityType.QUIZ_CHECKBOXES);
+        assertThat(answerKey.getPointType()).isEqualTo(PointType.DOUBLE_POINTS);
+        assertThat(answerKey.getAnswerIds()).containsExactlyInAnyOrder("answer-1", "answer-2", "answer-3");
+        assertThat(answerKey.getCorrectAnswerIds()).containsExactlyInAnyOrder("answer-2", "answer-3");
+        assertThat(answerKey.getCorrectOrder()).containsExactly("answer-1", "answer-2", "answer-3");
+        assertThat(answerKey.getNormalizedCorrectTexts()).containsExactlyInAnyOrder("paris", "rome");
+        assertThat(answerKey.isMatchingPairAnswerPresent()).isFalse();
+        assertThat(answerKey.isMatchingPairItem("answer-1")).isFalse();
+    }
+
+    @Test
+    void convertsLocationRadiusToMeters() {
+        Quiz quiz = Quiz.builder()
+                .quizLocationAnswers(List.of(QuizLocationAnswer.builder()
+                        .quizLocationAnswerId("location-1")
+                        .longitude(105.85)
+                        .latitude(21.02)
+                        .radius(1.5)
+                        .build()))
+                .build();
+
+        CompiledAnswerKey answerKey = CompiledAnswerKey.compile(activity(ActivityType.QUIZ_LOCATION, quiz)).orElseThrow();
+
+        assertThat(answerKey.getLocationAnswers())
+                .containsExactly(new CompiledAnswerKey.LocationAnswer("location-1", 105.85, 21.02, 1500));
+        assertThat(answerKey.getAnswerIds()).isEmpty();
+    }
+
+    @Test
+    void indexesMatchingPairConnectionsByLeftItem() {
+        QuizMatchingPairItem left1 = item("left-1", true);
+        QuizMatchingPairItem left2 = item("left-2", true);
+        QuizMatchingPairItem right1 = item("right-1", false);
+        QuizMatchingPairItem right2 = item("right-2", false);
+        Quiz quiz = Quiz.builder()
+                .quizMatchingPairAnswer(QuizMatchingPairAnswer.builder()
+                        .items(List.of(left1, left2, right1, right2))
+                        .connections(List.of(
+                                connection(left1, right1),
+                                connection(left1, right2),
+                                connection(left2, right2)))
+                        .build())
+                .build();
+
+        CompiledAnswerKey answerKey = CompiledAnswerKey.compile(activity(ActivityType.QUIZ_MATCHING_PAIRS, quiz)).orElseThrow();
+
+        assertThat(answerKey.isMatchingPairAnswerPresent()).isTrue();
+        assertThat(answerKey.getLeftItemIds()).containsExactlyInAnyOrder("left-1", "left-2");
+        assertThat(answerKey.getRightItemIds()).containsExactlyInAnyOrder("right-1", "right-2");
+        assertThat(answerKey.getConnectionCount()).isEqualTo(3);
+        assertThat(answerKey.isMatchingPairItem("right-2")).isTrue();
+        assertThat(answerKey.isMatchingPairItem("unknown")).isFalse();
+        assertThat(answerKey.isCorrectMatchingPair("left-1", "right-2")).isTrue();
+        assertThat(answerKey.isCorrectMatchingPair("left-2", "right-1")).isFalse();
+        assertThat(answerKey.isCorrectMatchingPair("right-1", "left-1")).isFalse();
+    }
+
+    @Test
+    void normalizeLowercasesWithoutLocaleSurprises() {
+        assertThat(CompiledAnswerKey.normalize("ISTANBUL")).isEqualTo("istanbul");
+        assertThat(CompiledAnswerKey.normalize(null)).isNull();
+    }
+
+    private static Activity activity(ActivityType activityType, Quiz quiz) {
+        return Activity.builder()
+                .activityId("activity-1")
+                .activityType(activityType)
+                .quiz(quiz)
+                .build();
+    }
+
+    private static QuizAnswer answer(String quizAnswerId, String answerText, boolean isCorrect, int orderIndex) {
+        return QuizAnswer.builder()
+                .quizAnswerId(quizAnswerId)
+                .answerText(answerText)
+                .isCorrect(isCorrect)
+                .orderIndex(orderIndex)
+                .build();
+    }
+
+    private static QuizMatchingPairItem item(String itemId, boolean isLeftColumn) {
+        return QuizMatchingPairItem.builder()
+                .quizMatchingPairItemId(itemId)
+                .isLeftColumn(isLeftColumn)
+                .build();
+    }
+
+    private static QuizMatchingPairConnection connection(QuizMatchingPairItem leftItem, QuizMatchingPairItem rightItem) {
+        return QuizMatchingPairConnection.builder()
+                .leftItem(leftItem)
+                .rightItem(rightItem)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.bitorax.priziq.service.live;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveLeaderboardTest {
+
+    @Test
+    void ranksByScoreDescending() {
+        LiveLeaderboard leaderboard = new LiveLeaderboard();
+        leaderboard.add("a", 10);
+        leaderboard.add("b", 30);
+        leaderboard.add("c", 20);
+
+        assertThat(leaderboard.rankedParticipants()).containsExactly("b", "c", "a");
+        assertThat(leaderboard.rankOf("b")).isEqualTo(1);
+        assertThat(leaderboard.rankOf("c")).isEqualTo(2);
+        assertThat(leaderboard.rankOf("a")).isEqualTo(3);
+        assertThat(leaderboard.participantAt(2)).isEqualTo("c");
+    }
+
+    @Test
+    void tiesAreBrokenByJoinOrder() {
+        LiveLeaderboard leaderboard = new LiveLeaderboard();
+        leaderboard.add("first", 0);
+        leaderboard.add("second", 0);
+        leaderboard.add("third", 0);
+
+        assertThat(leaderboard.rankedParticipants()).containsExactly("first", "second", "third");
+
+        // Reaching the same score later keeps the original join order
+        leaderboard.updateScore("third", 50);
+        leaderboard.updateScore("first", 50);
+
+        assertThat(leaderboard.rankedParticipants()).containsExactly("first", "third", "second");
+    }
+
+    @Test
+    void addingAnExistingParticipantKeepsItsEntry() {
+        LiveLeaderboard leaderboard = new LiveLeaderboard();
+        leaderboard.add("a", 10);
+
+        assertThat(leaderboard.add("a", 99)).isEqualTo(1);
+        assertThat(leaderboard.size()).isEqualTo(1);
+        assertThat(leaderboard.scoreOf("a")).isEqualTo(10);
+    }
+
+    @Test
+    void updateScoreReturnsTheShiftedRanks() {
+        LiveLeaderboard leaderboard = new LiveLeaderboard();
+        leaderboard.add("a", 30);
+        leaderboard.add("b", 20);
+        leaderboard.add("c", 10);
+
+        LiveLeaderboard.RankShift shift = leaderboard.updateScore("c", 40);
+
+        assertThat(shift.oldRank()).isEqualTo(3);
+        assertThat(shift.newRank()).isEqualTo(1);
+        assertThat(shift.fromRank()).isEqualTo(1);
+        assertThat(shift.toRank()).isEqualTo(3);
+        assertThat(leaderboard.rankedParticipants()).containsExactly("c", "a", "b");
+        assertThat(leaderboard.updateScore("c", 40)).isEqualTo(new LiveLeaderboard.RankShift(1, 1));
+    }
+
+    @Test
+    void updateScoreAddsUnknownParticipants() {
+        LiveLeaderboard leaderboard = new LiveLeaderboard();
+        leaderboard.add("a", 10);
+
+        assertThat(leaderboard.updateScore("b", 20)).isEqualTo(new LiveLeaderboard.RankShift(1, 1));
+        assertThat(leaderboard.contains("b")).isTrue();
+    }
+
+    @Test
+    void removedParticipantsLeaveTheBoard() {
+        LiveLeaderboard leaderboard = new LiveLeaderboard();
+        leaderboard.add("a", 10);
+        leaderboard.add("b", 20);
+
+        leaderboard.remove("b");
+
+        assertThat(leaderboard.contains("b")).isFalse();
+        assertThat(leaderboard.rankOf("b")).isZero();
+        assertThat(leaderboard.rankOf("a")).isEqualTo(1);
+        assertThat(leaderboard.participantAt(2)).isNull();
+    }
+
+    @Test
+    void participantsBetweenClampsToTheBoard() {
+        LiveLeaderboard leaderboard = new LiveLeaderboard();
+        leaderboard.add("a", 30);
+        leaderboard.add("b", 20);
+        leaderboard.add("c", 10);
+
+        assertThat(leaderboard.participantsBetween(2, 3)).containsExactly("b", "c");
+        assertThat(leaderboard.participantsBetween(0, 10)).containsExactly("a", "b", "c");
+        assertThat(leaderboard.participantsBetween(3, 2)).isEmpty();
+        assertThat(new LiveLeaderboard().participantsBetween(1, 5)).isEmpty();
+    }
+
+    @Test
+    void matchesASortedListUnderRandomUpdates() {
+        Random random = new Random(42);
+        LiveLeaderboard leaderboard = new LiveLeaderboard();
+        Map<String, Integer> scores = new HashMap<>();
+        List<String> joinOrder = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            String participantId = "p" + random.nextInt(300);
+            int score = random.nextInt(50);
+            if (random.nextInt(10) == 0 && scores.containsKey(participantId)) {
+                leaderboard.remove(participantId);
+                scores.remove(participantId);
+                joinOrder.remove(participantId);
+                continue;
+            }
+            if (!scores.containsKey(participantId)) {
+                joinOrder.add(participantId);
+            }
+            leaderboard.updateScore(participantId, score);
+            scores.put(participantId, score);
+        }
+
+        List<String> expected = joinOrder.stream()
+                .sorted(Comparator.comparing((String participantId) -> scores.get(participantId)).reversed())
+                .toList();
+
+        assertThat(leaderboard.rankedParticipants()).isEqualTo(expected);
+        for (int rank = 1; rank <= expected.size(); rank++) {
+            assertThat(leaderboard.participantAt(rank)).isEqualTo(expected.get(rank - 1));
+            assertThat(leaderboard.rankOf(expected.get(rank - 1))).isEqualTo(rank);
+        }
+        assertThat(leaderboard.participantsBetween(17, 93)).isEqualTo(expected.subList(16, 93));
+    }
+}
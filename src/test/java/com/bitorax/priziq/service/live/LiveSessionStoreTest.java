@@ -0,0 +1,209 @@
+package com.bitorax.priziq.service.live;
+
+import com.bitorax.priziq.constant.ActivityType;
+import com.bitorax.priziq.constant.CollectionTopicType;
+import com.bitorax.priziq.constant.SessionStatus;
+import com.bitorax.priziq.domain.Collection;
+import com.bitorax.priziq.domain.User;
+import com.bitorax.priziq.domain.activity.Activity;
+import com.bitorax.priziq.domain.session.Session;
+import com.bitorax.priziq.domain.session.SessionParticipant;
+import com.bitorax.priziq.dto.cache.ParticipantCacheDTO;
+import com.bitorax.priziq.dto.cache.SubmissionCacheDTO;
+import com.bitorax.priziq.mapper.cache.ActivityCacheMapper;
+import com.bitorax.priziq.mapper.cache.CollectionCacheMapper;
+import com.bitorax.priziq.mapper.cache.SessionCacheMapper;
+import com.bitorax.priziq.repository.ActivityRepository;
+import com.bitorax.priziq.repository.ActivitySubmissionRepository;
+import com.bitorax.priziq.repository.SessionParticipantRepository;
+import com.bitorax.priziq.repository.SpecificationProjectionExecutor;
+import com.bitorax.priziq.service.cache.SessionRedisCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// Round trips of a flush with the JDBC batching of application.yaml and with batching turned off for the session
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(SpecificationProjectionExecutor.class)
+class LiveSessionStoreTest {
+    private static final int PARTICIPANTS = 120;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ActivityRepository activityRepository;
+
+    @Autowired
+    ActivitySubmissionRepository activitySubmissionRepository;
+
+    @Autowired
+    SessionParticipantRepository sessionParticipantRepository;
+
+    LiveSessionStore liveSessionStore;
+    Statistics statistics;
+    AtomicInteger executedBatches = new AtomicInteger();
+    LiveSession liveSession;
+    Activity activity;
+
+    @BeforeEach
+    void setUp() {
+        liveSessionStore = new LiveSessionStore(mock(SessionRedisCache.class), mock(SessionCacheMapper.class),
+                mock(CollectionCacheMapper.class), mock(ActivityCacheMapper.class),
+                activityRepository, activitySubmissionRepository, sessionParticipantRepository);
+        ReflectionTestUtils.setField(liveSessionStore, "liveCacheEnabled", false);
+        ReflectionTestUtils.setField(liveSessionStore, "flushBatchSize", 500);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        hibernateSession().addEventListeners(new SessionEventListener() {
+            @Override
+            public void jdbcExecuteBatchStart() {
+                executedBatches.incrementAndGet();
+            }
+        });
+        liveSession = persistStartedSession();
+    }
+
+    @Test
+    void writesSubmissionsInBatches() {
+        bufferOneSubmissionPerParticipant();
+
+        long statements = countFlushStatements();
+
+        // The existing ids select, then one insert statement executed as 3 batches of at most 50 rows
+        assertThat(statements).isEqualTo(1 + 1);
+        assertThat(executedBatches.get()).isEqualTo(3);
+        assertThat(activitySubmissionRepository.count()).isEqualTo(PARTICIPANTS);
+    }
+
+    @Test
+    void writesSubmissionsOneByOneWithoutBatching() {
+        hibernateSession().setJdbcBatchSize(1);
+        bufferOneSubmissionPerParticipant();
+
+        long statements = countFlushStatements();
+
+        assertThat(statements).isEqualTo(1 + PARTICIPANTS);
+        assertThat(executedBatches.get()).isZero();
+    }
+
+    @Test
+    void writesParticipantsInBatches() {
+        scoreEveryParticipant();
+
+        long statements = countFlushStatements();
+
+        // findAllById and the eager load of their session, then one update statement executed as 3 batches of at most 50 rows
+        assertThat(statements).isEqualTo(2 + 1);
+        assertThat(executedBatches.get()).isEqualTo(3);
+    }
+
+    @Test
+    void writesParticipantsOneByOneWithoutBatching() {
+        hibernateSession().setJdbcBatchSize(1);
+        scoreEveryParticipant();
+
+        long statements = countFlushStatements();
+
+        assertThat(statements).isEqualTo(2 + PARTICIPANTS);
+        assertThat(executedBatches.get()).isZero();
+    }
+
+    private long countFlushStatements() {
+        entityManager.clear();
+        statistics.clear();
+        executedBatches.set(0);
+
+        liveSessionStore.flush(liveSession);
+        entityManager.flush();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void bufferOneSubmissionPerParticipant() {
+        liveSession.bufferSubmissions(liveSession.getRankedParticipants().stream()
+                .map(participant -> SubmissionCacheDTO.builder()
+                        .activitySubmissionId(UUID.randomUUID().toString())
+                        .sessionParticipantId(participant.getSessionParticipantId())
+                        .activityId(activity.getActivityId())
+                        .answerContent("A")
+                        .isCorrect(true)
+                        .responseScore(100)
+                        .submittedAt(Instant.now())
+                        .build())
+                .toList());
+    }
+
+    private void scoreEveryParticipant() {
+        liveSession.getRankedParticipants().forEach(participant ->
+                liveSession.applyScore(participant.getSessionParticipantId(), 100));
+    }
+
+    private LiveSession persistStartedSession() {
+        User host = entityManager.persist(User.builder().email("host@priziq.test").build());
+        Collection collection = entityManager.persist(Collection.builder()
+                .creator(host)
+                .title("Live collection")
+                .topic(CollectionTopicType.ART)
+                .build());
+        activity = entityManager.persist(Activity.builder()
+                .collection(collection)
+                .activityType(ActivityType.QUIZ_BUTTONS)
+                .orderIndex(0)
+                .build());
+        Session session = entityManager.persist(Session.builder()
+                .collection(collection)
+                .hostUser(host)
+                .sessionCode("123456")
+                .startTime(Instant.now())
+                .sessionStatus(SessionStatus.STARTED)
+                .build());
+
+        LiveSession started = new LiveSession(session.getSessionId(), session.getSessionCode(), host.getUserId(),
+                Set.of(activity.getActivityId()), Map.of());
+        IntStream.range(0, PARTICIPANTS).forEach(index -> {
+            SessionParticipant participant = entityManager.persist(SessionParticipant.builder()
+                    .session(session)
+                    .displayName("Participant " + index)
+                    .build());
+            started.addParticipant(ParticipantCacheDTO.builder()
+                    .sessionParticipantId(participant.getSessionParticipantId())
+                    .sessionId(session.getSessionId())
+                    .displayName(participant.getDisplayName())
+                    .isConnected(true)
+                    .build());
+        });
+        entityManager.flush();
+        // Joining marks participants dirty, the tests measure only the writes they cause
+        started.drainDirtyParticipants();
+        return started;
+    }
+
+    private org.hibernate.Session hibernateSession() {
+        return entityManager.getEntityManager().unwrap(org.hibernate.Session.class);
+    }
+}